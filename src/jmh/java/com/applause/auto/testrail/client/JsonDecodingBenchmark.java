@@ -0,0 +1,260 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.models.testrail.PaginatedBulkCaseDto;
+import com.applause.auto.testrail.client.models.testrail.PaginatedBulkPlanDto;
+import com.applause.auto.testrail.client.models.testrail.PaginatedBulkTestDto;
+import com.applause.auto.testrail.client.models.testrail.PlanDto;
+import com.applause.auto.testrail.client.models.testrail.PlanEntryDto;
+import com.applause.auto.testrail.client.models.testrail.TestRunDto;
+import com.google.gson.TypeAdapter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures decoding of full TestRail pages and large plans with the Gson instance of {@link
+ * TestRailClientFactory}. Payloads carry the fields TestRail sends but the DTOs don't map, and are
+ * decoded from UTF-8 bytes through a reader, the same way Retrofit's Gson converter does. This is
+ * the baseline for judging decoder and DTO changes.
+ *
+ * <p>Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="JsonDecodingBenchmark -prof gc"}
+ * to get the bytes allocated per decode next to the throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonDecodingBenchmark {
+  /** The largest page TestRail returns */
+  private static final int PAGE_SIZE = 250;
+
+  private byte[] casesPage;
+  private byte[] testsPage;
+  private byte[] plansPage;
+
+  private final TypeAdapter<PaginatedBulkCaseDto> casesAdapter =
+      TestRailClientFactory.gson.getAdapter(PaginatedBulkCaseDto.class);
+  private final TypeAdapter<PaginatedBulkTestDto> testsAdapter =
+      TestRailClientFactory.gson.getAdapter(PaginatedBulkTestDto.class);
+  private final TypeAdapter<PaginatedBulkPlanDto> plansAdapter =
+      TestRailClientFactory.gson.getAdapter(PaginatedBulkPlanDto.class);
+  private final TypeAdapter<PlanDto> planAdapter =
+      TestRailClientFactory.gson.getAdapter(PlanDto.class);
+
+  /** Builds the payloads once per trial */
+  @Setup(Level.Trial)
+  public void setUp() {
+    casesPage = utf8(page("cases", IntStream.range(0, PAGE_SIZE).mapToObj(this::testCase)));
+    testsPage = utf8(page("tests", IntStream.range(0, PAGE_SIZE).mapToObj(this::test)));
+    plansPage = utf8(page("plans", IntStream.range(0, PAGE_SIZE).mapToObj(this::planSummary)));
+  }
+
+  /** A get_plan response with a number of entries of three runs each */
+  @State(Scope.Benchmark)
+  public static class LargePlan {
+    @Param({"50", "500"})
+    private int planEntries;
+
+    private byte[] payload;
+
+    /** Builds the payload once per trial */
+    @Setup(Level.Trial)
+    public void setUp() {
+      payload = utf8(TestRailClientFactory.gson.toJson(plan(planEntries)));
+    }
+  }
+
+  /**
+   * Decodes a full get_cases page
+   *
+   * @return The decoded page
+   * @throws IOException If the payload is invalid
+   */
+  @Benchmark
+  public PaginatedBulkCaseDto casesPage() throws IOException {
+    return decode(casesAdapter, casesPage);
+  }
+
+  /**
+   * Decodes a full get_tests page
+   *
+   * @return The decoded page
+   * @throws IOException If the payload is invalid
+   */
+  @Benchmark
+  public PaginatedBulkTestDto testsPage() throws IOException {
+    return decode(testsAdapter, testsPage);
+  }
+
+  /**
+   * Decodes a full get_plans page
+   *
+   * @return The decoded page
+   * @throws IOException If the payload is invalid
+   */
+  @Benchmark
+  public PaginatedBulkPlanDto plansPage() throws IOException {
+    return decode(plansAdapter, plansPage);
+  }
+
+  /**
+   * Decodes a large get_plan response
+   *
+   * @param plan The plan payload
+   * @return The decoded plan
+   * @throws IOException If the payload is invalid
+   */
+  @Benchmark
+  public PlanDto largePlan(final LargePlan plan) throws IOException {
+    return decode(planAdapter, plan.payload);
+  }
+
+  private static <T> T decode(final TypeAdapter<T> adapter, final byte[] payload)
+      throws IOException {
+    try (var reader =
+        TestRailClientFactory.gson.newJsonReader(
+            new InputStreamReader(new ByteArrayInputStream(payload), StandardCharsets.UTF_8))) {
+      return adapter.read(reader);
+    }
+  }
+
+  private static byte[] utf8(final String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String page(final String itemsName, final Stream<String> items) {
+    return "{\"offset\":0,\"limit\":%d,\"size\":%d,\"_links\":{\"next\":\"/api/v2/get_%s&offset=%d\",\"prev\":null},\"%s\":[%s]}"
+        .formatted(
+            PAGE_SIZE,
+            PAGE_SIZE,
+            itemsName,
+            PAGE_SIZE,
+            itemsName,
+            items.collect(Collectors.joining(",")));
+  }
+
+  private String testCase(final int i) {
+    return ("{\"id\":%d,\"title\":\"Checkout with saved card %d\",\"section_id\":%d,"
+            + "\"template_id\":2,\"type_id\":7,\"priority_id\":2,\"milestone_id\":null,"
+            + "\"refs\":\"JIRA-%d\",\"created_by\":3,\"created_on\":1700000000,\"updated_by\":3,"
+            + "\"updated_on\":1700100000,\"estimate\":null,\"estimate_forecast\":\"1m 30s\","
+            + "\"suite_id\":1,\"display_order\":%d,\"is_deleted\":0,\"custom_automation_type\":1,"
+            + "\"custom_preconds\":\"A signed in user with a saved card\","
+            + "\"custom_steps_separated\":[{\"content\":\"Open the cart\",\"expected\":\"The cart"
+            + " shows\"},{\"content\":\"Pay\",\"expected\":\"The order is placed\"}]}")
+        .formatted(1000 + i, i, 100 + i / 25, i, i);
+  }
+
+  private String test(final int i) {
+    return ("{\"id\":%d,\"case_id\":%d,\"status_id\":%d,\"assignedto_id\":null,\"run_id\":77,"
+            + "\"title\":\"Checkout with saved card %d\",\"template_id\":2,\"type_id\":7,"
+            + "\"priority_id\":2,\"estimate\":null,\"estimate_forecast\":\"1m 30s\","
+            + "\"refs\":\"JIRA-%d\",\"milestone_id\":null,\"custom_automation_type\":1,"
+            + "\"custom_preconds\":\"A signed in user with a saved card\","
+            + "\"custom_expected\":null,\"custom_steps_separated\":[{\"content\":\"Open the"
+            + " cart\",\"expected\":\"The cart shows\"},{\"content\":\"Pay\",\"expected\":\"The"
+            + " order is placed\"}]}")
+        .formatted(50_000 + i, 1000 + i, 1 + i % 5, i, i);
+  }
+
+  private String planSummary(final int i) {
+    return ("{\"id\":%d,\"name\":\"Nightly regression %d\",\"description\":null,"
+            + "\"milestone_id\":null,\"assignedto_id\":null,\"is_completed\":%b,"
+            + "\"completed_on\":null,\"passed_count\":180,\"blocked_count\":2,"
+            + "\"untested_count\":40,\"retest_count\":3,\"failed_count\":25,"
+            + "\"custom_status1_count\":0,\"custom_status2_count\":0,\"custom_status3_count\":0,"
+            + "\"custom_status4_count\":0,\"custom_status5_count\":0,\"custom_status6_count\":0,"
+            + "\"custom_status7_count\":0,\"project_id\":1,\"created_on\":1700000000,"
+            + "\"created_by\":3,\"url\":\"https://testrail.example.com/index.php?/plans/view/%d\"}")
+        .formatted(900 + i, i, i % 3 == 0, 900 + i);
+  }
+
+  private static PlanDto plan(final int entries) {
+    return PlanDto.builder()
+        .id(900L)
+        .name("Nightly regression")
+        .projectId(1L)
+        .isCompleted(false)
+        .passedCount(1800L)
+        .failedCount(250L)
+        .untestedCount(400L)
+        .createdOn(1_700_000_000L)
+        .url("https://testrail.example.com/index.php?/plans/view/900")
+        .entries(
+            IntStream.range(0, entries)
+                .mapToObj(
+                    i ->
+                        PlanEntryDto.builder()
+                            .id("0b6c9a0e-5d7f-4a53-8c1e-%012d".formatted(i))
+                            .name("Suite run " + i)
+                            .suiteId((long) i)
+                            .runs(
+                                IntStream.range(0, 3)
+                                    .mapToObj(r -> run(i, r))
+                                    .collect(Collectors.toList()))
+                            .build())
+                .collect(Collectors.toList()))
+        .build();
+  }
+
+  private static TestRunDto run(final int entry, final int index) {
+    final long id = 10_000L + entry * 3L + index;
+    return TestRunDto.builder()
+        .id(id)
+        .name("Suite run " + entry)
+        .suiteId((long) entry)
+        .planId(900L)
+        .projectId(1L)
+        .entryId("0b6c9a0e-5d7f-4a53-8c1e-%012d".formatted(entry))
+        .entryIndex((long) entry)
+        .config(List.of("Chrome", "Firefox", "Safari").get(index))
+        .configIds(List.of((long) index + 1))
+        .includeAll(false)
+        .isCompleted(false)
+        .passedCount(40L)
+        .failedCount(5L)
+        .untestedCount(8L)
+        .blockedCount(0L)
+        .retestCount(1L)
+        .createdOn(1_700_000_000L)
+        .url("https://testrail.example.com/index.php?/runs/view/" + id)
+        .build();
+  }
+}
@@ -0,0 +1,153 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.interceptors.HeadersInterceptor;
+import com.applause.auto.testrail.client.interceptors.TestRailRequestInterceptor;
+import com.applause.auto.testrail.client.interceptors.UrlInterceptor;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the request rewriting of {@link TestRailRequestInterceptor} with the {@link
+ * HeadersInterceptor} and {@link UrlInterceptor} chain it replaces. The interceptors run on a
+ * minimal chain that answers without any I/O, so only their own work is measured.
+ *
+ * <p>Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="RequestInterceptorBenchmark
+ * -prof gc"} to see the bytes allocated per request next to the latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestInterceptorBenchmark {
+  private static final Request REQUEST =
+      new Request.Builder()
+          .url("https://testrail.example.com/get_cases/1?suite_id=2&offset=250&limit=250")
+          .build();
+
+  private final List<Interceptor> separate =
+      List.of(new HeadersInterceptor("user@example.com", "key"), new UrlInterceptor());
+  private final List<Interceptor> fused =
+      List.of(new TestRailRequestInterceptor("user@example.com", "key"));
+
+  /**
+   * Rewrites a request with the separate headers and url interceptors
+   *
+   * @return The request that reached the end of the chain
+   * @throws IOException Never, the chain does no I/O
+   */
+  @Benchmark
+  public Request separateInterceptors() throws IOException {
+    return new BenchmarkChain(separate, 0, REQUEST).proceed(REQUEST).request();
+  }
+
+  /**
+   * Rewrites a request with the fused interceptor
+   *
+   * @return The request that reached the end of the chain
+   * @throws IOException Never, the chain does no I/O
+   */
+  @Benchmark
+  public Request fusedInterceptor() throws IOException {
+    return new BenchmarkChain(fused, 0, REQUEST).proceed(REQUEST).request();
+  }
+
+  /** Runs the interceptors in order, then answers with an empty response */
+  private record BenchmarkChain(List<Interceptor> interceptors, int index, Request request)
+      implements Interceptor.Chain {
+    private static final ResponseBody EMPTY = ResponseBody.create(new byte[0], null);
+
+    @Override
+    public @NotNull Response proceed(@NotNull final Request request) throws IOException {
+      if (index < interceptors.size()) {
+        return interceptors
+            .get(index)
+            .intercept(new BenchmarkChain(interceptors, index + 1, request));
+      }
+      return new Response.Builder()
+          .request(request)
+          .protocol(Protocol.HTTP_1_1)
+          .code(200)
+          .message("OK")
+          .body(EMPTY)
+          .build();
+    }
+
+    @Override
+    public @Nullable Connection connection() {
+      return null;
+    }
+
+    @Override
+    public @NotNull Call call() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int connectTimeoutMillis() {
+      return 0;
+    }
+
+    @Override
+    public @NotNull Interceptor.Chain withConnectTimeout(final int timeout, final TimeUnit unit) {
+      return this;
+    }
+
+    @Override
+    public int readTimeoutMillis() {
+      return 0;
+    }
+
+    @Override
+    public @NotNull Interceptor.Chain withReadTimeout(final int timeout, final TimeUnit unit) {
+      return this;
+    }
+
+    @Override
+    public int writeTimeoutMillis() {
+      return 0;
+    }
+
+    @Override
+    public @NotNull Interceptor.Chain withWriteTimeout(final int timeout, final TimeUnit unit) {
+      return this;
+    }
+  }
+}
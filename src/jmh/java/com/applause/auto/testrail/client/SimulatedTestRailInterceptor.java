@@ -0,0 +1,104 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An OkHttp interceptor that answers TestRail requests locally after a fixed delay, so benchmarks
+ * can measure the client without a TestRail instance. It has to be the first interceptor of the
+ * client, since it never calls the rest of the chain.
+ */
+class SimulatedTestRailInterceptor implements Interceptor {
+  private static final MediaType JSON = MediaType.get("application/json");
+
+  private final long latencyMillis;
+  private final int casesPerSuite;
+
+  /**
+   * @param latencyMillis The delay before each response, standing in for server and network time
+   * @param casesPerSuite The number of test cases returned by get_cases
+   */
+  SimulatedTestRailInterceptor(final long latencyMillis, final int casesPerSuite) {
+    this.latencyMillis = latencyMillis;
+    this.casesPerSuite = casesPerSuite;
+  }
+
+  @Override
+  public @NotNull Response intercept(final Chain chain) throws IOException {
+    try {
+      Thread.sleep(latencyMillis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while simulating latency", e);
+    }
+    final var url = chain.request().url();
+    final String body;
+    if (url.encodedPath().startsWith("/get_cases/")) {
+      final int offset =
+          Optional.ofNullable(url.queryParameter("offset")).map(Integer::parseInt).orElse(0);
+      final int limit =
+          Optional.ofNullable(url.queryParameter("limit")).map(Integer::parseInt).orElse(250);
+      body = casesPage(offset, limit);
+    } else {
+      body =
+          "{\"id\":1,\"name\":\"Simulated project\",\"is_completed\":false,\"suite_mode\":3,"
+              + "\"url\":\"http://testrail.local/index.php?/projects/overview/1\"}";
+    }
+    return new Response.Builder()
+        .request(chain.request())
+        .protocol(Protocol.HTTP_1_1)
+        .code(200)
+        .message("OK")
+        .body(ResponseBody.create(body, JSON))
+        .build();
+  }
+
+  private String casesPage(final int offset, final int limit) {
+    final int end = Math.min(casesPerSuite, offset + limit);
+    final int size = Math.max(0, end - offset);
+    final String next =
+        end < casesPerSuite
+            ? "\"/api/v2/get_cases/1&suite_id=1&limit=" + limit + "&offset=" + end + "\""
+            : "null";
+    final String cases =
+        IntStream.range(offset, end)
+            .mapToObj(id -> "{\"id\":" + (id + 1) + ",\"title\":\"Case " + (id + 1) + "\"}")
+            .collect(Collectors.joining(","));
+    return "{\"offset\":"
+        + offset
+        + ",\"limit\":"
+        + limit
+        + ",\"size\":"
+        + size
+        + ",\"_links\":{\"next\":"
+        + next
+        + ",\"prev\":null},\"cases\":["
+        + cases
+        + "]}";
+  }
+}
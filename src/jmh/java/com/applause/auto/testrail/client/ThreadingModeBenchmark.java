@@ -0,0 +1,147 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the platform and virtual thread modes of the TestRail client under many concurrent
+ * blocking callers, as seen when a large test suite reports results from parallel test threads.
+ * Responses come from {@link SimulatedTestRailInterceptor}, so the numbers reflect the threading
+ * overhead and not TestRail itself. On runtimes older than Java 21 both modes use platform threads.
+ *
+ * <p>Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ThreadingModeBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadingModeBenchmark {
+  @Param({"false", "true"})
+  private boolean virtualThreads;
+
+  @Param({"64", "512"})
+  private int concurrentCallers;
+
+  @Param("20")
+  private long latencyMillis;
+
+  private TestRailClient client;
+  private ExecutorService callers;
+
+  /** Builds a client in the benchmarked mode, with request limits high enough for every caller */
+  @Setup(Level.Trial)
+  public void setUp() {
+    final var dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(concurrentCallers);
+    dispatcher.setMaxRequestsPerHost(concurrentCallers);
+    final var httpClient =
+        new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .addInterceptor(new SimulatedTestRailInterceptor(latencyMillis, 1_000))
+            .build();
+    final var options = TestRailClientOptions.builder().virtualThreads(virtualThreads).build();
+    client =
+        new TestRailClientFactory(httpClient, options)
+            .getTestRailClient(
+                TestRailConfig.builder()
+                    .url("http://testrail.local/")
+                    .email("benchmark@example.com")
+                    .apiKey("benchmark")
+                    .build());
+    callers =
+        virtualThreads
+            ? TestRailExecutors.newVirtualThreadPerTaskExecutor()
+            : Executors.newFixedThreadPool(concurrentCallers);
+  }
+
+  /** Stops the caller threads */
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    callers.shutdownNow();
+  }
+
+  /**
+   * Every caller makes one blocking request
+   *
+   * @param blackhole Consumes the responses
+   * @throws Exception If a call fails
+   */
+  @Benchmark
+  public void concurrentBlockingCalls(final Blackhole blackhole) throws Exception {
+    runOnAllCallers(() -> blackhole.consume(client.getProject(1)));
+  }
+
+  /**
+   * Every caller reads a 1000 case suite, which takes four prefetched pages
+   *
+   * @param blackhole Consumes the cases
+   * @throws Exception If a call fails
+   */
+  @Benchmark
+  public void concurrentPaginatedReads(final Blackhole blackhole) throws Exception {
+    runOnAllCallers(() -> blackhole.consume(client.getTestCasesForSuite(1, 1)));
+  }
+
+  private void runOnAllCallers(final TestRailCall call)
+      throws InterruptedException, ExecutionException {
+    final var pending = new ArrayList<Future<?>>(concurrentCallers);
+    for (int i = 0; i < concurrentCallers; i++) {
+      pending.add(
+          callers.submit(
+              () -> {
+                call.run();
+                return null;
+              }));
+    }
+    for (final var future : pending) {
+      future.get();
+    }
+  }
+
+  @FunctionalInterface
+  private interface TestRailCall {
+    void run() throws TestRailException;
+  }
+}
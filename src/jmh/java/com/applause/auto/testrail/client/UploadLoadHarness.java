@@ -0,0 +1,210 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.TestRailResultUploader.ProjectConfiguration;
+import com.applause.auto.testrail.client.TestRailResultUploader.UploadResultDto;
+import com.applause.auto.testrail.client.enums.TestResultStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives concurrent {@link TestRailResultUploader}s against a {@link TestRailSimulator} and reports
+ * the results per second, the p50 and p99 latency of an upload, and the TestRail API calls per
+ * result. Every uploader reports to its own run of a shared plan, like parallel CI jobs.
+ *
+ * <p>Run with {@code mvn -Pjmh test-compile exec:exec
+ * -Djmh.main=com.applause.auto.testrail.client.UploadLoadHarness -Djmh.args="uploaders=16
+ * latencyMillis=50 rateLimitRate=0.02"}. The settings and their defaults are in {@link #DEFAULTS}.
+ */
+public final class UploadLoadHarness {
+  private static final Map<String, String> DEFAULTS =
+      Map.of(
+          "uploaders", "8",
+          "uploadsPerUploader", "20",
+          "resultsPerUpload", "50",
+          "caseCount", "2000",
+          "latencyMillis", "20",
+          "rateLimitRate", "0",
+          "maintenanceRate", "0",
+          "seed", "1");
+
+  private UploadLoadHarness() {}
+
+  /**
+   * Runs the load and prints the report
+   *
+   * @param args Settings as name=value pairs
+   * @throws Exception If the simulator cannot start or an uploader fails
+   */
+  public static void main(final String[] args) throws Exception {
+    final var settings = new HashMap<>(DEFAULTS);
+    Arrays.stream(args)
+        .map(arg -> arg.split("=", 2))
+        .forEach(
+            pair -> {
+              if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+                throw new IllegalArgumentException(
+                    "Expected name=value with a name in " + DEFAULTS.keySet());
+              }
+              settings.put(pair[0], pair[1]);
+            });
+    final int uploaders = Integer.parseInt(settings.get("uploaders"));
+    final int uploadsPerUploader = Integer.parseInt(settings.get("uploadsPerUploader"));
+    final int resultsPerUpload = Integer.parseInt(settings.get("resultsPerUpload"));
+    final int caseCount = Integer.parseInt(settings.get("caseCount"));
+    final long seed = Long.parseLong(settings.get("seed"));
+
+    try (var simulator =
+        TestRailSimulator.builder()
+            .latency(Duration.ofMillis(Long.parseLong(settings.get("latencyMillis"))))
+            .rateLimitRate(Double.parseDouble(settings.get("rateLimitRate")))
+            .maintenanceRate(Double.parseDouble(settings.get("maintenanceRate")))
+            .caseCount(caseCount)
+            .seed(seed)
+            .build()) {
+      final var config =
+          TestRailConfig.builder()
+              .url(simulator.start())
+              .email("load@example.com")
+              .apiKey("load")
+              .build();
+      // the injected 429 and 409 responses are retried, as a production setup would
+      final var options =
+          TestRailClientOptions.builder()
+              .retryPolicy(TestRailRetryPolicy.builder().initialBackoff(Duration.ofMillis(100)).build())
+              .build();
+      simulator.createPlan("Load plan");
+
+      final var latencies = new ConcurrentLinkedQueue<Long>();
+      final var failedUploads = new AtomicInteger();
+      final ExecutorService threads = Executors.newFixedThreadPool(uploaders);
+      final long start = System.nanoTime();
+      try {
+        final var pending = new ArrayList<Future<?>>();
+        for (int u = 0; u < uploaders; u++) {
+          final int uploader = u;
+          pending.add(
+              threads.submit(
+                  () -> {
+                    final var random = new Random(seed + uploader);
+                    try (var resultUploader =
+                        TestRailResultUploader.initialize(
+                            config, project("Load run " + uploader), null, options)) {
+                      for (int i = 0; i < uploadsPerUploader; i++) {
+                        final var batch =
+                            batch(random, resultsPerUpload, caseCount, uploader, i);
+                        final long uploadStart = System.nanoTime();
+                        try {
+                          resultUploader.uploadResults(batch);
+                        } catch (TestRailException e) {
+                          // failures the retry policy couldn't absorb are part of the report
+                          failedUploads.incrementAndGet();
+                        }
+                        latencies.add(System.nanoTime() - uploadStart);
+                      }
+                    } catch (TestRailException e) {
+                      failedUploads.addAndGet(uploadsPerUploader);
+                    }
+                    return null;
+                  }));
+        }
+        for (final var future : pending) {
+          future.get();
+        }
+      } finally {
+        threads.shutdownNow();
+      }
+      final double seconds = (System.nanoTime() - start) / 1e9;
+
+      final var sorted = latencies.stream().sorted().toList();
+      final long results = simulator.getResultCount();
+      System.out.printf(
+          "%d uploaders, %d results in %.2f s%n"
+              + "results/sec:      %.1f%n"
+              + "upload p50:       %.1f ms%n"
+              + "upload p99:       %.1f ms%n"
+              + "API calls/result: %.3f (%d calls, %d injected failures)%n"
+              + "failed uploads:   %d of %d%n",
+          uploaders,
+          results,
+          seconds,
+          results / seconds,
+          percentileMillis(sorted, 0.50),
+          percentileMillis(sorted, 0.99),
+          (double) simulator.getCallCount() / results,
+          simulator.getCallCount(),
+          simulator.getInjectedFailureCount(),
+          failedUploads.get(),
+          uploaders * uploadsPerUploader);
+    }
+  }
+
+  private static ProjectConfiguration project(final String runName) {
+    return new ProjectConfiguration(
+        1, 1, false, "Load plan", runName, "passed", "failed", "blocked", "retest", "blocked");
+  }
+
+  /** Results for distinct random cases, so later uploads also add cases to the run */
+  private static Set<UploadResultDto> batch(
+      final Random random,
+      final int size,
+      final int caseCount,
+      final int uploader,
+      final int upload) {
+    final var caseIds = new HashSet<Long>();
+    while (caseIds.size() < Math.min(size, caseCount)) {
+      caseIds.add(1 + (long) random.nextInt(caseCount));
+    }
+    final var statuses = List.of(TestResultStatus.PASSED, TestResultStatus.FAILED);
+    final var batch = new HashSet<UploadResultDto>();
+    for (final long caseId : caseIds) {
+      batch.add(
+          new UploadResultDto(
+              "C" + caseId,
+              statuses.get(random.nextInt(statuses.size())),
+              "Upload " + upload + " of uploader " + uploader));
+    }
+    return batch;
+  }
+
+  private static double percentileMillis(final List<Long> sortedNanos, final double percentile) {
+    if (sortedNanos.isEmpty()) {
+      return 0;
+    }
+    final int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+    return sortedNanos.get(Math.max(0, index)) / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
@@ -0,0 +1,461 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static com.applause.auto.testrail.client.TestRailClient.TESTRAIL_PAGE_LIMIT;
+
+import com.applause.auto.testrail.client.cache.TestRailPlanIndex;
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.internal.AddResultsChunk;
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import com.applause.auto.testrail.client.models.testrail.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import retrofit2.Response;
+
+/**
+ * An asynchronous variant of the {@link TestRailClient}. Offers the same operations, but never
+ * blocks the calling thread. Error responses are mapped exactly as in the TestRailClient, and
+ * complete the returned stages exceptionally with a {@link TestRailException}.
+ */
+@Slf4j
+public class AsyncTestRailClient {
+  private final TestRailApi apiClient;
+  private final TestRailPaginator paginator;
+  private final TestRailPlanIndex planIndex;
+  private final Duration planLookupMaxAge;
+  private final TestRailResultChunker resultChunker;
+  private final int resultUploadConcurrency;
+
+  /**
+   * Creates a new asynchronous TestRail client using the default options
+   *
+   * @param apiClient The TestRail API to wrap
+   */
+  public AsyncTestRailClient(@NonNull final TestRailApi apiClient) {
+    this(apiClient, TestRailClientOptions.DEFAULTS);
+  }
+
+  /**
+   * Creates a new asynchronous TestRail client
+   *
+   * @param apiClient The TestRail API to wrap
+   * @param options The client tuning options
+   */
+  public AsyncTestRailClient(
+      @NonNull final TestRailApi apiClient, @NonNull final TestRailClientOptions options) {
+    this.apiClient = apiClient;
+    this.paginator = new TestRailPaginator(TESTRAIL_PAGE_LIMIT, options.getPagePrefetchWindow());
+    this.planIndex =
+        new TestRailPlanIndex(options.getPlanIndexTtl(), options.getPlanIndexMaxSize());
+    this.planLookupMaxAge = options.getPlanLookupMaxAge();
+    this.resultChunker =
+        new TestRailResultChunker(
+            options.getResultChunkMaxResults(), options.getResultChunkMaxBytes());
+    this.resultUploadConcurrency = Math.max(1, options.getResultUploadConcurrency());
+  }
+
+  /**
+   * Fetch a test plan
+   *
+   * @param planId The id of the plan to fetch from TestRail
+   * @return A stage completing with the plan object
+   */
+  public CompletionStage<PlanDto> getTestPlan(final long planId) {
+    log.debug("Request getPlan from TestRail for planId [ " + planId + " ]");
+    return call(apiClient.getPlan(planId), res -> TestRailClient.validatePlanResponse(res, planId))
+        .thenApply(
+            plan -> {
+              if (plan != null && Boolean.TRUE.equals(plan.getIsCompleted())) {
+                this.planIndex.invalidatePlan(planId);
+              }
+              return plan;
+            });
+  }
+
+  /**
+   * Retrieve the statuses for the given TestRail account
+   *
+   * @return A stage completing with the statuses for the given TestRail account
+   */
+  public CompletionStage<List<StatusDto>> getCustomStatuses() {
+    log.debug("Requesting getStatuses from TestRail");
+    return call(apiClient.getStatuses(), TestRailClient::validateStatusesResponse);
+  }
+
+  /**
+   * Fetch a given project
+   *
+   * @param projectId The id of the project to fetch from TestRail
+   * @return A stage completing with the project object
+   */
+  public CompletionStage<ProjectDto> getProject(final long projectId) {
+    log.debug("Requesting getProject from TestRail for projectId [ " + projectId + " ]");
+    return call(
+        apiClient.getProject(projectId),
+        res -> TestRailClient.validateProjectResponse(res, projectId));
+  }
+
+  /**
+   * Get a given test suite
+   *
+   * @param suiteId The suiteId to fetch
+   * @return A stage completing with the test suite
+   */
+  public CompletionStage<TestSuiteDto> getTestSuite(final long suiteId) {
+    log.debug("Requesting getSuite from TestRail for suiteId [ " + suiteId + " ]");
+    return call(
+        apiClient.getSuite(suiteId), res -> TestRailClient.validateSuiteResponse(res, suiteId));
+  }
+
+  /**
+   * Creates a test plan in TestRail
+   *
+   * @param testPlanName TestRail plan name
+   * @param testRailProjectId TestRail project id to create plan for
+   * @return A stage completing with the created TestRail plan
+   */
+  public CompletionStage<PlanDto> createTestPlan(
+      @NonNull final String testPlanName, final long testRailProjectId) {
+    log.debug(
+        "Request addPlan from TestRail for projectId [ "
+            + testRailProjectId
+            + " ] planName [ "
+            + testPlanName
+            + " ]");
+    return call(
+            apiClient.addPlan(testRailProjectId, AddPlanDto.builder().name(testPlanName).build()),
+            res -> TestRailClient.validateAddPlanResponse(res, testRailProjectId))
+        .thenApply(
+            plan -> {
+              if (plan != null && plan.getId() != null) {
+                this.planIndex.put(testRailProjectId, testPlanName, plan.getId());
+              }
+              return plan;
+            });
+  }
+
+  /**
+   * Adds the results for a set of test cases in a run. Large maps are split into several
+   * add_results_for_cases requests, see {@link #addResultsInChunks(long, Map)}.
+   *
+   * @param testRailRunId The id of the test run to add the results for
+   * @param results A map of caseId to status and comment
+   * @return A stage completing with the created results, or failing with the error of the first
+   *     failed chunk. Other chunks may already have been added to the run.
+   */
+  public CompletionStage<List<TestResultDto>> addResults(
+      final long testRailRunId, @NonNull final Map<Long, TestRailStatusComment> results) {
+    return addResultsInChunks(testRailRunId, results)
+        .thenApply(
+            chunks -> {
+              final List<TestResultDto> created = new ArrayList<>();
+              for (final AddResultsChunk chunk : chunks) {
+                if (!chunk.isSuccessful()) {
+                  throw new CompletionException(chunk.error());
+                }
+                Optional.ofNullable(chunk.createdResults()).ifPresent(created::addAll);
+              }
+              return created;
+            });
+  }
+
+  /**
+   * Adds results for a run, splitting them into add_results_for_cases requests by result count and
+   * serialized size. Up to {@link TestRailClientOptions#getResultUploadConcurrency()} chunks are in
+   * flight at once.
+   *
+   * @param testRailRunId The id of the test run to add the results for
+   * @param results A map of caseId to status and comment
+   * @return A stage completing with the outcome of every chunk, in order. A failed chunk can be
+   *     retried on its own.
+   */
+  public CompletionStage<List<AddResultsChunk>> addResultsInChunks(
+      final long testRailRunId, @NonNull final Map<Long, TestRailStatusComment> results) {
+    final var chunks = this.resultChunker.split(results);
+    log.debug(
+        "Sending addResultsForCases requests to TestRail for run [{}] with test results count [{}]"
+            + " in [{}] chunks",
+        testRailRunId,
+        results.size(),
+        chunks.size());
+    final AddResultsChunk[] outcomes = new AddResultsChunk[chunks.size()];
+    final AtomicInteger nextChunk = new AtomicInteger();
+    final int workers = Math.min(this.resultUploadConcurrency, chunks.size());
+    final CompletableFuture<?>[] uploads = new CompletableFuture<?>[workers];
+    for (int i = 0; i < workers; i++) {
+      uploads[i] = uploadNextChunk(testRailRunId, chunks, outcomes, nextChunk);
+    }
+    return CompletableFuture.allOf(uploads).thenApply(ignored -> List.of(outcomes));
+  }
+
+  /** Uploads chunks one after another until none are left to claim */
+  private CompletableFuture<Void> uploadNextChunk(
+      final long testRailRunId,
+      final List<Map<Long, TestRailStatusComment>> chunks,
+      final AddResultsChunk[] outcomes,
+      final AtomicInteger nextChunk) {
+    final int index = nextChunk.getAndIncrement();
+    if (index >= chunks.size()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final var chunk = chunks.get(index);
+    CompletionStage<List<TestResultDto>> upload;
+    try {
+      upload =
+          call(
+              apiClient.addResultsForCases(testRailRunId, TestRailResultChunker.toRequest(chunk)),
+              res -> TestRailClient.validateAddResultsResponse(res, testRailRunId));
+    } catch (RuntimeException e) {
+      upload = CompletableFuture.failedFuture(e);
+    }
+    return upload
+        .handle(
+            (created, error) -> {
+              outcomes[index] =
+                  error == null
+                      ? new AddResultsChunk(chunk, created, null)
+                      : new AddResultsChunk(chunk, null, TestRailClient.toTestRailException(error));
+              return null;
+            })
+        .toCompletableFuture()
+        .thenCompose(ignored -> uploadNextChunk(testRailRunId, chunks, outcomes, nextChunk));
+  }
+
+  /**
+   * Fetches all test cases for a suite
+   *
+   * @param projectId The id of the project in TestRail
+   * @param suiteId The id of the suite in TestRail
+   * @return A stage completing with the test cases in the suite
+   */
+  public CompletionStage<List<TestCaseDto>> getTestCasesForSuite(
+      final long projectId, final long suiteId) {
+    log.debug(
+        "Requesting getCasesForSuite from TestRail for project [ "
+            + projectId
+            + " ] suiteId [ "
+            + suiteId
+            + " ]");
+    return paginator.fetchAllAsync(
+        offset -> apiClient.getCasesForSuite(projectId, suiteId, offset, TESTRAIL_PAGE_LIMIT),
+        res -> TestRailClient.validateCasesPage(res, projectId, suiteId));
+  }
+
+  /**
+   * Create a new plan entry in the current plan, and add a test case. This equates to a test run
+   *
+   * @param testRunName TestRail run name
+   * @param testSuiteId TestRail suite id
+   * @param testRailPlanId TestRail plan id
+   * @param includeAll Whether to add all tests to the new plan entry
+   * @param testCaseIds A set of ids to create the plan with
+   * @return A stage completing with the new plan entry
+   */
+  public CompletionStage<PlanEntryDto> createNewPlanEntry(
+      @NonNull final String testRunName,
+      final long testSuiteId,
+      final long testRailPlanId,
+      final boolean includeAll,
+      @NonNull final Set<Long> testCaseIds) {
+    if (testCaseIds.isEmpty()) {
+      return CompletableFuture.failedFuture(
+          new TestRailException(
+                  "TestcaseId invalid. PlanEntry creation must contain at least 1 valid Testcase Id.",
+                  TestRailErrorStatus.BAD_REQUEST)
+              .setRetryable(false));
+    }
+    final var dto =
+        AddPlanEntryDto.builder()
+            .suiteId(testSuiteId)
+            .includeAll(includeAll)
+            .caseIds(testCaseIds)
+            .name(testRunName)
+            .build();
+    log.debug(
+        "Requesting addPlanEntry from TestRail for plan [{}], suite [{}], run [{}], and test case id count [{}]",
+        testRailPlanId,
+        testSuiteId,
+        testRunName,
+        testCaseIds.size());
+    return call(
+        apiClient.addPlanEntry(testRailPlanId, dto),
+        res -> TestRailClient.validateAddPlanEntryResponse(res, testRailPlanId));
+  }
+
+  /**
+   * Updates an existing TestRail plan entry
+   *
+   * @param planId The plan id for the plan entry you want to update
+   * @param planEntryId The id of the plan entry to update
+   * @param caseIds A list of caseIds for all the cases
+   * @return A stage completing with the updated TestRail Plan Entry
+   */
+  public CompletionStage<PlanEntryDto> updateExistingPlanEntry(
+      final long planId, @NonNull final String planEntryId, @Nullable final Set<Long> caseIds) {
+    log.debug(
+        "Requesting updatePlanEntry from TestRail for planId [ "
+            + planId
+            + " ] planEntryId [ "
+            + planEntryId
+            + " ] caseId count [ "
+            + (caseIds != null ? caseIds.size() : 0)
+            + " ]");
+    return call(
+        apiClient.updatePlanEntry(
+            planId, planEntryId, UpdatePlanEntryDto.builder().caseIds(caseIds).build()),
+        res -> TestRailClient.validateUpdatePlanEntryResponse(res, planId, planEntryId));
+  }
+
+  /**
+   * Finds the newest open test plan with the given name. Like {@link
+   * TestRailClient#findExistingTestPlan(long, String)}, plans that were found or created before are
+   * looked up in an index and read again by ID, and the plan listing stops at the first page
+   * containing a match.
+   *
+   * @param projectId The id of the project to fetch from TestRail
+   * @param planName The name of the plan to search for
+   * @return A stage completing with the plan, if one was found
+   */
+  public CompletionStage<Optional<PlanDto>> findExistingTestPlan(
+      final long projectId, @NonNull final String planName) {
+    final var indexedPlanId = this.planIndex.find(projectId, planName);
+    if (indexedPlanId.isEmpty()) {
+      return this.searchTestPlan(projectId, planName);
+    }
+    log.debug(
+        "Found plan [ {} ] in the plan index for projectId [ {} ] planName [ {} ]",
+        indexedPlanId.get(),
+        projectId,
+        planName);
+    return this.recheckIndexedPlan(projectId, planName, indexedPlanId.get())
+        .thenCompose(
+            indexedPlan ->
+                indexedPlan.isPresent()
+                    ? CompletableFuture.completedFuture(indexedPlan)
+                    : this.searchTestPlan(projectId, planName));
+  }
+
+  /**
+   * Reads a plan found in the plan index again, forgetting it if it was deleted, renamed or
+   * completed since it was indexed
+   */
+  private CompletionStage<Optional<PlanDto>> recheckIndexedPlan(
+      final long projectId, @NonNull final String planName, final long planId) {
+    return this.getTestPlan(planId)
+        .handle(
+            (plan, error) -> {
+              if (error != null) {
+                final var failure = TestRailClient.toTestRailException(error);
+                // TestRail answers 400 for a plan that was deleted
+                if (failure.getStatus() != TestRailErrorStatus.BAD_REQUEST) {
+                  throw new CompletionException(failure);
+                }
+              }
+              if (error == null && TestRailClient.isOpenPlan(plan, projectId, planName)) {
+                return Optional.of(plan);
+              }
+              log.debug("Indexed plan [ {} ] is no longer the open plan [ {} ]", planId, planName);
+              this.planIndex.invalidatePlan(planId);
+              return Optional.empty();
+            });
+  }
+
+  /** Searches the open plans of a project newest first, stopping at the first page with a match */
+  private CompletionStage<Optional<PlanDto>> searchTestPlan(
+      final long projectId, @NonNull final String planName) {
+    log.debug(
+        "Requesting getPlansForProject from TestRail for projectId [ "
+            + projectId
+            + " ] planName [ "
+            + planName
+            + " ]");
+    final Long createdAfter = TestRailClient.planLookupCreatedAfter(planLookupMaxAge);
+    final var found = new AtomicReference<PlanDto>();
+    return paginator
+        .forEachPageAsync(
+            offset ->
+                apiClient.getPlansForProject(
+                    projectId, 0, createdAfter, offset, TESTRAIL_PAGE_LIMIT),
+            res -> TestRailClient.validatePlansPage(res, projectId),
+            page -> {
+              // TestRail lists plans newest first, so the first page with a match holds the newest
+              TestRailClient.findNewestOpenPlan(page.items(), planName).ifPresent(found::set);
+              return found.get() == null;
+            })
+        .thenApply(
+            ignored -> {
+              final var plan = Optional.ofNullable(found.get());
+              plan.map(PlanDto::getId)
+                  .ifPresent(planId -> this.planIndex.put(projectId, planName, planId));
+              return plan;
+            });
+  }
+
+  /**
+   * Get the tests for a run
+   *
+   * @param testRailRunId The run id to fetch the results for
+   * @param statusIds A CSV string of status ids to search the results for
+   * @return A stage completing with the tests for the given TestRail run with the matching status
+   *     ids
+   */
+  public CompletionStage<List<TestDto>> getTestResultsForRun(
+      final long testRailRunId, @Nullable final String statusIds) {
+    log.debug(
+        "Requesting getTests from TestRail for testRailRunId [ "
+            + testRailRunId
+            + " ] containing statusIds [ "
+            + statusIds
+            + " ]");
+    return paginator.fetchAllAsync(
+        offset -> apiClient.getTests(testRailRunId, statusIds, offset, TESTRAIL_PAGE_LIMIT),
+        res -> TestRailClient.validateTestsPage(res, testRailRunId));
+  }
+
+  private static <T> CompletionStage<T> call(
+      @NonNull final CompletableFuture<Response<T>> pendingCall,
+      @NonNull final TestRailResponseValidator<T> validator) {
+    return pendingCall.handle(
+        (response, error) -> {
+          if (error != null) {
+            throw new CompletionException(TestRailClient.toTestRailException(error));
+          }
+          try {
+            validator.validate(response);
+          } catch (TestRailException e) {
+            throw new CompletionException(e);
+          }
+          return response.body();
+        });
+  }
+}
@@ -20,6 +20,8 @@ package com.applause.auto.testrail.client;
 import com.applause.auto.testrail.client.models.testrail.*;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import javax.annotation.Nullable;
+import okhttp3.ResponseBody;
 import retrofit2.Response;
 import retrofit2.http.*;
 
@@ -82,6 +84,39 @@ public interface TestRailApi {
   CompletableFuture<Response<PaginatedBulkPlanDto>> getPlansForProject(
       @Path("project_id") long projectId, @Query("offset") int offset, @Query("limit") int limit);
 
+  /**
+   * Returns the test plans in a project that match the given filters, newest first. Either filter
+   * may be null to leave it out of the request.
+   *
+   * @param projectId The ID of the project
+   * @param isCompleted 1 to only return completed plans, 0 to only return active plans
+   * @param createdAfter Only return plans created after this date, as a UNIX timestamp
+   * @param offset number of items to offset the pagination by
+   * @param limit max number of items to return
+   * @return A page of the matching test plans
+   */
+  @GET("/get_plans/{project_id}")
+  CompletableFuture<Response<PaginatedBulkPlanDto>> getPlansForProject(
+      @Path("project_id") long projectId,
+      @Nullable @Query("is_completed") Integer isCompleted,
+      @Nullable @Query("created_after") Long createdAfter,
+      @Query("offset") int offset,
+      @Query("limit") int limit);
+
+  /**
+   * Streaming variant of {@link #getPlansForProject(long, int, int)}. The body is not buffered, so
+   * it must be read incrementally and closed by the caller.
+   *
+   * @param projectId The ID of the project
+   * @param offset number of items to offset the pagination by
+   * @param limit max number of items to return
+   * @return The raw, unbuffered page of test plans
+   */
+  @Streaming
+  @GET("/get_plans/{project_id}")
+  CompletableFuture<Response<ResponseBody>> streamPlansForProject(
+      @Path("project_id") long projectId, @Query("offset") int offset, @Query("limit") int limit);
+
   /**
    * Returns an existing test plan.
    *
@@ -146,6 +181,25 @@ public interface TestRailApi {
       @Query("offset") int offset,
       @Query("limit") int limit);
 
+  /**
+   * Streaming variant of {@link #getTests(long, String, int, int)}. The body is not buffered, so it
+   * must be read incrementally and closed by the caller.
+   *
+   * @param testRailRunId The ID of the test run
+   * @param statusIds optional comma-separated list of Statuses to filter by. Pass null if you don't
+   *     want to filter
+   * @param offset number of items to offset the pagination by
+   * @param limit max number of items to return
+   * @return The raw, unbuffered page of tests
+   */
+  @Streaming
+  @GET("/get_tests/{run_id}")
+  CompletableFuture<Response<ResponseBody>> streamTests(
+      @Path("run_id") long testRailRunId,
+      final @Query("status_id") String statusIds,
+      @Query("offset") int offset,
+      @Query("limit") int limit);
+
   /**
    * Returns a list of test cases for a project or specific test suite (if the project has multiple
    * suites enabled).
@@ -165,6 +219,45 @@ public interface TestRailApi {
       @Query("offset") int offset,
       @Query("limit") int limit);
 
+  /**
+   * Returns the test cases of a suite that were created or updated after the given times. Either
+   * filter may be null to leave it out of the request.
+   *
+   * @param projectId The ID of the project
+   * @param suiteId The id of the test suite inside the project
+   * @param createdAfter Only return cases created after this date, as a UNIX timestamp
+   * @param updatedAfter Only return cases updated after this date, as a UNIX timestamp
+   * @param offset number of items to offset the pagination by
+   * @param limit max number of items to return
+   * @return If successful, a page of the matching test cases
+   */
+  @GET("/get_cases/{project_id}")
+  CompletableFuture<Response<PaginatedBulkCaseDto>> getCasesForSuite(
+      @Path("project_id") long projectId,
+      final @Query("suite_id") long suiteId,
+      @Nullable @Query("created_after") Long createdAfter,
+      @Nullable @Query("updated_after") Long updatedAfter,
+      @Query("offset") int offset,
+      @Query("limit") int limit);
+
+  /**
+   * Streaming variant of {@link #getCasesForSuite(long, long, int, int)}. The body is not buffered,
+   * so it must be read incrementally and closed by the caller.
+   *
+   * @param projectId The ID of the project
+   * @param suiteId The id of the test suite inside the project
+   * @param offset number of items to offset the pagination by
+   * @param limit max number of items to return
+   * @return The raw, unbuffered page of test cases
+   */
+  @Streaming
+  @GET("/get_cases/{project_id}")
+  CompletableFuture<Response<ResponseBody>> streamCasesForSuite(
+      @Path("project_id") long projectId,
+      final @Query("suite_id") long suiteId,
+      @Query("offset") int offset,
+      @Query("limit") int limit);
+
   /**
    * Returns a list of TestRail test result statuses for the calling customer. The response should
    * contain the 5 default statuses, plus any other custom statuses the customer may have set up.
@@ -0,0 +1,409 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import com.applause.auto.testrail.client.models.internal.TestRailValidateRequest;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import com.applause.auto.testrail.client.spool.SpooledResult;
+import com.applause.auto.testrail.client.spool.TestRailResultSpool;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+import java.io.Closeable;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects single test results and uploads them to TestRail in batches from a background thread.
+ * Submitting a result never waits on TestRail. The pending results are uploaded once the batch size
+ * is reached, or once the oldest pending result has waited for the max latency. Each upload goes
+ * through {@link TestRailResultLogger#execute}, which sends one add_results_for_cases call per run.
+ *
+ * <p>Only the latest result per run and case is kept, so a retried test replaces its earlier
+ * result. If an upload fails with a retryable error, its results are queued again unless a newer
+ * result for the same case was submitted in the meantime, and are dropped after {@value
+ * #MAX_ATTEMPTS} attempts. One upload covers several runs, but only the results of the runs that
+ * were not uploaded yet are queued again, so a retry does not post a run's results twice.
+ *
+ * <p>With a {@link TestRailResultSpool}, every submitted result is spooled before it is queued, and
+ * acknowledged once it was uploaded, replaced by a newer result, or rejected for an invalid case
+ * ID. Results that were dropped stay in the spool and are replayed the next time it is opened.
+ *
+ * <p>The flusher thread is a daemon, so {@link #close()} must be called to upload the remaining
+ * results before the JVM exits.
+ */
+@Slf4j
+public class TestRailBatchingResultWriter implements Closeable {
+  static final int MAX_ATTEMPTS = 3;
+  private static final long NOT_SPOOLED = -1;
+
+  private final TestRailResultLogger resultLogger;
+  private final TestRailValidateRequest validateRequest;
+  private final int maxBatchSize;
+  private final Duration maxLatency;
+  @Nullable private final TestRailResultSpool spool;
+  private final TestRailRetryPolicy retryPolicy;
+  private final ScheduledExecutorService flusher =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("testrail-result-writer-%d")
+              .setDaemon(true)
+              .build());
+
+  private final Object lock = new Object();
+  // guarded by lock
+  private Map<RunCase, PendingResult> pending = new LinkedHashMap<>();
+  private ScheduledFuture<?> latencyTimer;
+  private boolean flushQueued;
+  private boolean closed;
+
+  /**
+   * Creates a new writer
+   *
+   * @param resultLogger Uploads each batch
+   * @param validateRequest The project, suite and plan the results belong to
+   * @param maxBatchSize The number of pending results that triggers an upload
+   * @param maxLatency The longest time a result waits before it is uploaded
+   */
+  public TestRailBatchingResultWriter(
+      @NonNull final TestRailResultLogger resultLogger,
+      @NonNull final TestRailValidateRequest validateRequest,
+      final int maxBatchSize,
+      @NonNull final Duration maxLatency) {
+    this(resultLogger, validateRequest, maxBatchSize, maxLatency, null);
+  }
+
+  /**
+   * Creates a new writer that spools the results until they were uploaded
+   *
+   * @param resultLogger Uploads each batch
+   * @param validateRequest The project, suite and plan the results belong to
+   * @param maxBatchSize The number of pending results that triggers an upload
+   * @param maxLatency The longest time a result waits before it is uploaded
+   * @param spool Keeps the results until they were uploaded, or null to keep them in memory only
+   */
+  public TestRailBatchingResultWriter(
+      @NonNull final TestRailResultLogger resultLogger,
+      @NonNull final TestRailValidateRequest validateRequest,
+      final int maxBatchSize,
+      @NonNull final Duration maxLatency,
+      @Nullable final TestRailResultSpool spool) {
+    this(
+        resultLogger,
+        validateRequest,
+        maxBatchSize,
+        maxLatency,
+        spool,
+        TestRailRetryPolicy.DISABLED);
+  }
+
+  /**
+   * Creates a new writer that spools the results until they were uploaded, and waits the backoff of
+   * the retry policy before retrying a failed upload on close
+   *
+   * @param resultLogger Uploads each batch
+   * @param validateRequest The project, suite and plan the results belong to
+   * @param maxBatchSize The number of pending results that triggers an upload
+   * @param maxLatency The longest time a result waits before it is uploaded
+   * @param spool Keeps the results until they were uploaded, or null to keep them in memory only
+   * @param retryPolicy Picks the delay before retrying a failed upload on close
+   */
+  public TestRailBatchingResultWriter(
+      @NonNull final TestRailResultLogger resultLogger,
+      @NonNull final TestRailValidateRequest validateRequest,
+      final int maxBatchSize,
+      @NonNull final Duration maxLatency,
+      @Nullable final TestRailResultSpool spool,
+      @NonNull final TestRailRetryPolicy retryPolicy) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be at least 1, was " + maxBatchSize);
+    }
+    this.resultLogger = resultLogger;
+    this.validateRequest = validateRequest;
+    this.maxBatchSize = maxBatchSize;
+    this.maxLatency = maxLatency;
+    this.spool = spool;
+    this.retryPolicy = retryPolicy;
+  }
+
+  /**
+   * Queues a result for upload, replacing any pending result for the same run and case
+   *
+   * @param runName The name of the run to report to
+   * @param caseId The TestRail case ID
+   * @param result The status and comment of the result
+   * @throws IllegalStateException if the writer was closed
+   */
+  public void submit(
+      @NonNull final String runName,
+      final long caseId,
+      @NonNull final TestRailStatusComment result) {
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("The TestRail result writer has been closed");
+      }
+      this.enqueue(
+          new RunCase(runName, caseId),
+          new PendingResult(result, 0, this.spool(runName, caseId, result)));
+    }
+  }
+
+  /**
+   * Queues results recovered from the spool for upload, without spooling them again
+   *
+   * @param results The results that were not acknowledged
+   * @throws IllegalStateException if the writer was closed
+   */
+  public void resubmit(@NonNull final Collection<SpooledResult> results) {
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("The TestRail result writer has been closed");
+      }
+      for (final var result : results) {
+        this.enqueue(
+            new RunCase(result.runName(), result.caseId()),
+            new PendingResult(result.result(), 0, result.entryId()));
+      }
+    }
+  }
+
+  /**
+   * Spools a result, returning its entry ID. A result that could not be spooled is still queued.
+   */
+  private long spool(final String runName, final long caseId, final TestRailStatusComment result) {
+    if (spool == null) {
+      return NOT_SPOOLED;
+    }
+    try {
+      return spool.append(runName, caseId, result);
+    } catch (UncheckedIOException e) {
+      log.warn("Could not spool the TestRail result for case {}", caseId, e);
+      return NOT_SPOOLED;
+    }
+  }
+
+  /** Queues a result, acknowledging the spooled result it replaces */
+  private void enqueue(final RunCase key, final PendingResult result) {
+    final var replaced = pending.put(key, result);
+    if (replaced != null) {
+      this.acknowledge(List.of(replaced));
+    }
+    this.scheduleFlush();
+  }
+
+  /**
+   * Uploads all results submitted so far and waits for the upload to finish. Results whose upload
+   * failed with a retryable error stay queued.
+   */
+  public void flush() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+    }
+    this.awaitOnFlusher(flusher.submit(this::flushPending));
+  }
+
+  /**
+   * Stops accepting results and uploads the pending ones, retrying failed uploads up to {@value
+   * #MAX_ATTEMPTS} times in total. Each retry waits the backoff of the retry policy first.
+   */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+    try {
+      this.awaitOnFlusher(
+          flusher.submit(
+              () -> {
+                this.flushPending();
+                for (int failedFlushes = 1; this.hasPending(); failedFlushes++) {
+                  Uninterruptibles.sleepUninterruptibly(
+                      retryPolicy.backoffNanos(failedFlushes), TimeUnit.NANOSECONDS);
+                  this.flushPending();
+                }
+              }));
+    } finally {
+      flusher.shutdown();
+    }
+  }
+
+  /** Queues an upload if the batch is full, or starts the latency timer for a new batch */
+  private void scheduleFlush() {
+    if (flushQueued || closed) {
+      return;
+    }
+    if (pending.size() >= maxBatchSize) {
+      flushQueued = true;
+      flusher.execute(this::flushPending);
+    } else if (latencyTimer == null) {
+      latencyTimer =
+          flusher.schedule(this::flushPending, maxLatency.toNanos(), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private boolean hasPending() {
+    synchronized (lock) {
+      return !pending.isEmpty();
+    }
+  }
+
+  private Map<RunCase, PendingResult> drain() {
+    synchronized (lock) {
+      final var batch = pending;
+      pending = new LinkedHashMap<>();
+      if (latencyTimer != null) {
+        latencyTimer.cancel(false);
+        latencyTimer = null;
+      }
+      flushQueued = false;
+      return batch;
+    }
+  }
+
+  /** Uploads the pending results. Only ever runs on the flusher thread. */
+  private void flushPending() {
+    final var batch = this.drain();
+    if (batch.isEmpty()) {
+      return;
+    }
+    final Table<String, Long, TestRailStatusComment> resultsByRunAndCase = HashBasedTable.create();
+    batch.forEach(
+        (key, value) -> resultsByRunAndCase.put(key.runName(), key.caseId(), value.result()));
+    log.debug("Uploading a batch of {} TestRail results", batch.size());
+    this.syncSpool();
+    try {
+      final var invalidCaseIds = resultLogger.execute(resultsByRunAndCase, validateRequest);
+      this.acknowledge(batch.values());
+      if (!invalidCaseIds.isEmpty()) {
+        log.warn("Dropped results for case IDs missing from the suite: {}", invalidCaseIds);
+      }
+    } catch (TestRailException e) {
+      // the logger removes the results it uploaded from the table, only retry the rest
+      this.acknowledge(
+          batch.entrySet().stream()
+              .filter(
+                  entry ->
+                      !resultsByRunAndCase.contains(
+                          entry.getKey().runName(), entry.getKey().caseId()))
+              .map(Map.Entry::getValue)
+              .toList());
+      if (e.isRetryable()) {
+        batch.keySet().removeIf(key -> !resultsByRunAndCase.contains(key.runName(), key.caseId()));
+        this.requeue(batch, e);
+      } else {
+        log.error("Dropped a batch of {} TestRail results", batch.size(), e);
+      }
+    } catch (RuntimeException e) {
+      log.error("Dropped a batch of {} TestRail results", batch.size(), e);
+    }
+  }
+
+  private void requeue(final Map<RunCase, PendingResult> batch, final TestRailException cause) {
+    int dropped = 0;
+    final List<PendingResult> replaced = new ArrayList<>();
+    synchronized (lock) {
+      for (final var entry : batch.entrySet()) {
+        final var attempts = entry.getValue().attempts() + 1;
+        if (attempts >= MAX_ATTEMPTS) {
+          dropped++;
+          continue;
+        }
+        // a newer result for the same case takes precedence over the failed one
+        final var newer =
+            pending.putIfAbsent(
+                entry.getKey(),
+                new PendingResult(
+                    entry.getValue().result(), attempts, entry.getValue().spoolEntryId()));
+        if (newer != null) {
+          replaced.add(entry.getValue());
+        }
+      }
+      this.scheduleFlush();
+    }
+    this.acknowledge(replaced);
+    if (dropped > 0) {
+      log.error(
+          "Dropped {} TestRail results after {} failed attempts", dropped, MAX_ATTEMPTS, cause);
+    } else {
+      log.warn("Uploading a batch of TestRail results failed, it will be retried", cause);
+    }
+  }
+
+  /** Forces the spooled results to disk before they are uploaded */
+  private void syncSpool() {
+    if (spool == null) {
+      return;
+    }
+    try {
+      spool.sync();
+    } catch (UncheckedIOException e) {
+      log.warn("Could not sync the TestRail result spool", e);
+    }
+  }
+
+  /** Acknowledges spooled results that no longer need to be uploaded */
+  private void acknowledge(final Collection<PendingResult> results) {
+    if (spool == null) {
+      return;
+    }
+    final var entryIds =
+        results.stream()
+            .map(PendingResult::spoolEntryId)
+            .filter(entryId -> entryId != NOT_SPOOLED)
+            .toList();
+    try {
+      spool.acknowledge(entryIds);
+    } catch (UncheckedIOException e) {
+      log.warn("Could not acknowledge {} spooled TestRail results", entryIds.size(), e);
+    }
+  }
+
+  private void awaitOnFlusher(final Future<?> task) {
+    try {
+      Uninterruptibles.getUninterruptibly(task);
+    } catch (ExecutionException e) {
+      log.error("Flushing TestRail results failed", e.getCause());
+    }
+  }
+
+  private record RunCase(String runName, long caseId) {}
+
+  private record PendingResult(TestRailStatusComment result, int attempts, long spoolEntryId) {}
+}
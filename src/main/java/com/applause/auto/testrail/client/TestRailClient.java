@@ -17,35 +17,132 @@
 */
 package com.applause.auto.testrail.client;
 
+import com.applause.auto.testrail.client.cache.TestRailCaseIdCache;
+import com.applause.auto.testrail.client.cache.TestRailPlanIndex;
+import com.applause.auto.testrail.client.cache.TestRailRunMembershipCache;
 import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
 import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.errors.UncheckedTestRailException;
+import com.applause.auto.testrail.client.metrics.TestRailMetricsListener;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.internal.AddResultsChunk;
 import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
 import com.applause.auto.testrail.client.models.testrail.*;
+import com.applause.auto.testrail.client.resilience.TestRailCircuitOpenException;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
 import jakarta.ws.rs.core.Response.Status;
 import java.io.IOException;
 import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nullable;
-import lombok.AllArgsConstructor;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import retrofit2.Response;
 
 /** The TestRail client that wraps the TestRail API with exception handling */
-@AllArgsConstructor
 @Slf4j
 public class TestRailClient {
-  private static final int TESTRAIL_PAGE_LIMIT = 250;
+  static final int TESTRAIL_PAGE_LIMIT = 250;
 
   private final TestRailApi apiClient;
 
+  /**
+   * The API the re-checks of failed writes read through. It never joins a coalesced read, which may
+   * have started before the write was applied.
+   */
+  private final TestRailApi recheckApiClient;
+
+  private final TestRailPageRetry pageRetry;
+  private final TestRailPaginator paginator;
+  private final TestRailCaseIdCache caseIdCache;
+  private final TestRailPlanIndex planIndex;
+  private final TestRailRunMembershipCache runMembership;
+  private final Duration planLookupMaxAge;
+  private final TestRailResultChunker resultChunker;
+  private final int resultUploadConcurrency;
+  private final TestRailRetryPolicy retryPolicy;
+  private final TestRailMetricsListener metricsListener;
+
+  /**
+   * Creates a new TestRail client using the default options
+   *
+   * @param apiClient The TestRail API to wrap
+   */
+  public TestRailClient(@NonNull final TestRailApi apiClient) {
+    this(apiClient, TestRailClientOptions.DEFAULTS);
+  }
+
+  /**
+   * Creates a new TestRail client
+   *
+   * @param apiClient The TestRail API to wrap
+   * @param options The client tuning options
+   */
+  public TestRailClient(
+      @NonNull final TestRailApi apiClient, @NonNull final TestRailClientOptions options) {
+    this(
+        apiClient,
+        options,
+        new TestRailRunMembershipCache(
+            options.getRunMembershipCacheTtl(), options.getRunMembershipCacheMaxRuns()));
+  }
+
+  /**
+   * Creates a new TestRail client sharing its run membership cache with other clients
+   *
+   * @param apiClient The TestRail API to wrap
+   * @param options The client tuning options
+   * @param runMembership The run membership cache of the TestRail instance
+   */
+  TestRailClient(
+      @NonNull final TestRailApi apiClient,
+      @NonNull final TestRailClientOptions options,
+      @NonNull final TestRailRunMembershipCache runMembership) {
+    this.apiClient = apiClient;
+    this.recheckApiClient = TestRailRequestCoalescer.uncoalesced(apiClient);
+    this.pageRetry = new TestRailPageRetry(options.getRetryPolicy(), options.getMetricsListener());
+    this.paginator =
+        new TestRailPaginator(TESTRAIL_PAGE_LIMIT, options.getPagePrefetchWindow(), pageRetry);
+    this.caseIdCache =
+        new TestRailCaseIdCache(
+            this::loadTestCases,
+            options.getCaseIdCacheTtl(),
+            options.getCaseIdCacheMaxSuites(),
+            options.getUnknownCaseIdTtl(),
+            options.getUnknownCaseIdCacheMaxSize(),
+            options.getCaseIdSyncInterval());
+    this.planIndex =
+        new TestRailPlanIndex(options.getPlanIndexTtl(), options.getPlanIndexMaxSize());
+    this.planLookupMaxAge = options.getPlanLookupMaxAge();
+    this.runMembership = runMembership;
+    this.resultChunker =
+        new TestRailResultChunker(
+            options.getResultChunkMaxResults(), options.getResultChunkMaxBytes());
+    this.resultUploadConcurrency = Math.max(1, options.getResultUploadConcurrency());
+    this.retryPolicy = options.getRetryPolicy();
+    this.metricsListener = options.getMetricsListener();
+  }
+
   /**
    * Fetch a test plan
    *
@@ -54,28 +151,25 @@ public class TestRailClient {
    * @throws TestRailException if there is an error response from TestRail
    */
   public PlanDto getTestPlan(final long planId) throws TestRailException {
-    log.debug("Request getPlan from TestRail for planId [ " + planId + " ]");
-    var result = this.makeCall(client -> client.getPlan(planId));
+    return this.getTestPlan(planId, this.apiClient);
+  }
 
-    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Invalid or unknown test plan: " + planId, TestRailErrorStatus.BAD_REQUEST);
-    }
-    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-      throw new TestRailException(
-              "No access to TestRail project for planId: " + planId,
-              TestRailErrorStatus.ACCESS_DENIED)
-          .setRetryable(false);
+  private PlanDto getTestPlan(final long planId, final TestRailApi api) throws TestRailException {
+    log.debug("Request getPlan from TestRail for planId [ " + planId + " ]");
+    var result = this.makeCall("getPlan", api, client -> client.getPlan(planId));
+    validatePlanResponse(result, planId);
+    final var plan = result.body();
+    if (plan != null && Boolean.TRUE.equals(plan.getIsCompleted())) {
+      this.planIndex.invalidatePlan(planId);
     }
-    throwForCommonErrorStatuses(result, "Could not get TestRail test plan: " + planId);
-    return result.body();
+    return plan;
   }
 
   /**
    * Checks a TestRail response for common error statuses. These can happen even if all the
    * parameters were correct.
    */
-  private static void throwForCommonErrorStatuses(
+  static void throwForCommonErrorStatuses(
       @NonNull final Response<?> res, @NonNull final String detailMessage)
       throws TestRailException {
     if (res.isSuccessful()) {
@@ -97,22 +191,16 @@ public class TestRailClient {
 
     var errorDetailMsg = detailMessage + " Error from testrail: " + errorBody;
 
-    switch (Status.fromStatusCode(res.code())) {
-      case CONFLICT -> throw new TestRailException(errorDetailMsg, TestRailErrorStatus.MAINTENANCE);
-      case UNAUTHORIZED -> throw new TestRailException(
-          errorDetailMsg, TestRailErrorStatus.AUTHENTICATION_FAILED);
-      case TOO_MANY_REQUESTS -> throw new TestRailException(
-          errorDetailMsg, TestRailErrorStatus.HIT_RATE_LIMIT);
-      case NOT_FOUND -> {
-        try (var rawRes = res.raw()) {
-          throw new TestRailException(
-              "Invalid Route: %s Error from testrail: %s"
-                  .formatted(rawRes.request().url().url().getPath(), errorBody),
-              TestRailErrorStatus.INVALID_ROUTE);
-        }
+    final var status = TestRailErrorStatus.fromHttpStatus(res.code());
+    if (status == TestRailErrorStatus.INVALID_ROUTE) {
+      try (var rawRes = res.raw()) {
+        throw new TestRailException(
+            "Invalid Route: %s Error from testrail: %s"
+                .formatted(rawRes.request().url().url().getPath(), errorBody),
+            TestRailErrorStatus.INVALID_ROUTE);
       }
-      default -> throw new TestRailException(errorDetailMsg, TestRailErrorStatus.UNKNOWN_ERROR);
     }
+    throw new TestRailException(errorDetailMsg, status);
   }
 
   /**
@@ -123,10 +211,8 @@ public class TestRailClient {
    */
   public List<StatusDto> getCustomStatuses() throws TestRailException {
     log.debug("Requesting getStatuses from TestRail");
-    var result = this.makeCall(client -> client.getStatuses());
-    debugLogPostResponse(result.code(), "getStatuses");
-
-    throwForCommonErrorStatuses(result, "Could not get TestRail statuses");
+    var result = this.makeCall("getStatuses", client -> client.getStatuses());
+    validateStatusesResponse(result);
     return result.body();
   }
 
@@ -139,19 +225,8 @@ public class TestRailClient {
    */
   public ProjectDto getProject(final long projectId) throws TestRailException {
     log.debug("Requesting getProject from TestRail for projectId [ " + projectId + " ]");
-    var result = this.makeCall(client -> client.getProject(projectId));
-    debugLogPostResponse(result.code(), "getProject");
-
-    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Invalid or unknown project: " + projectId, TestRailErrorStatus.BAD_REQUEST);
-    }
-    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-      throw new TestRailException(
-              "No access to TestRail project: " + projectId, TestRailErrorStatus.ACCESS_DENIED)
-          .setRetryable(false);
-    }
-    throwForCommonErrorStatuses(result, "Could not get TestRail project: " + projectId);
+    var result = this.makeCall("getProject", client -> client.getProject(projectId));
+    validateProjectResponse(result, projectId);
 
     return result.body();
   }
@@ -165,20 +240,8 @@ public class TestRailClient {
    */
   public TestSuiteDto getTestSuite(final long suiteId) throws TestRailException {
     log.debug("Requesting getSuite from TestRail for suiteId [ " + suiteId + " ]");
-    var result = this.makeCall(client -> client.getSuite(suiteId));
-    debugLogPostResponse(result.code(), "getSuite");
-
-    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Invalid or unknown test suite: " + suiteId, TestRailErrorStatus.BAD_REQUEST);
-    }
-    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-      throw new TestRailException(
-              "No access to TestRail project for suiteId: " + suiteId,
-              TestRailErrorStatus.ACCESS_DENIED)
-          .setRetryable(false);
-    }
-    throwForCommonErrorStatuses(result, "Could not get TestRail test suite: " + suiteId);
+    var result = this.makeCall("getSuite", client -> client.getSuite(suiteId));
+    validateSuiteResponse(result, suiteId);
 
     return result.body();
   }
@@ -201,63 +264,93 @@ public class TestRailClient {
             + " ] planName [ "
             + testPlanName
             + " ]");
-    var result = this.makeCall(client -> client.addPlan(testRailProjectId, dto));
-    debugLogPostResponse(result.code(), "addPlan");
-
-    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Invalid or unknown project: " + testRailProjectId, TestRailErrorStatus.BAD_REQUEST);
-    }
-    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-      throw new TestRailException(
-              "No permission to add test plans or no access to TestRail project.",
-              TestRailErrorStatus.ACCESS_DENIED)
-          .setRetryable(false);
+    var result =
+        this.makeWrite(
+            "addPlan",
+            client -> client.addPlan(testRailProjectId, dto),
+            () -> this.findExistingTestPlan(testRailProjectId, testPlanName, recheckApiClient));
+    validateAddPlanResponse(result, testRailProjectId);
+    final var plan = result.body();
+    if (plan != null && plan.getId() != null) {
+      this.planIndex.put(testRailProjectId, testPlanName, plan.getId());
     }
-    throwForCommonErrorStatuses(
-        result, "Could not add TestRail plan for project id: " + testRailProjectId);
-    return result.body();
+    return plan;
   }
 
   /**
-   * Adds a result for a given testId
+   * Adds results for a run. Large maps are split into several add_results_for_cases requests, see
+   * {@link #addResultsInChunks(long, Map)}.
    *
    * @param testRailRunId The id of the test run to add the results for
    * @param results A map of caseId to status and comment
-   * @return the result for the test
-   * @throws TestRailException if there is an error response from TestRail
+   * @return the results created by TestRail
+   * @throws TestRailException if there is an error response from TestRail for any chunk. Other
+   *     chunks may already have been added to the run.
    */
   public List<TestResultDto> addResults(
       final long testRailRunId, @NonNull final Map<Long, TestRailStatusComment> results)
       throws TestRailException {
-    final AddTestResultsForCaseDto testResults = new AddTestResultsForCaseDto();
-    for (Map.Entry<Long, TestRailStatusComment> result : results.entrySet()) {
-      testResults.add(
-          AddTestResultForCaseDto.builder()
-              .caseId(result.getKey())
-              .statusId(result.getValue().statusId())
-              .comment(result.getValue().comment())
-              .build());
+    final List<TestResultDto> created = new ArrayList<>();
+    for (final AddResultsChunk chunk : addResultsInChunks(testRailRunId, results)) {
+      if (!chunk.isSuccessful()) {
+        throw chunk.error();
+      }
+      Optional.ofNullable(chunk.createdResults()).ifPresent(created::addAll);
     }
+    return created;
+  }
 
+  /**
+   * Adds results for a run, splitting them into add_results_for_cases requests by result count and
+   * serialized size. Up to {@link TestRailClientOptions#getResultUploadConcurrency()} chunks are in
+   * flight at once.
+   *
+   * @param testRailRunId The id of the test run to add the results for
+   * @param results A map of caseId to status and comment
+   * @return the outcome of every chunk, in order. A failed chunk can be retried on its own.
+   */
+  public List<AddResultsChunk> addResultsInChunks(
+      final long testRailRunId, @NonNull final Map<Long, TestRailStatusComment> results) {
+    final var chunks = this.resultChunker.split(results);
     log.debug(
-        "Sending addResultsForCases request to TestRail for run [{}] with test results count [{}]",
+        "Sending addResultsForCases requests to TestRail for run [{}] with test results count [{}]"
+            + " in [{}] chunks",
         testRailRunId,
-        results.size());
-    var res = this.makeCall(client -> client.addResultsForCases(testRailRunId, testResults));
-    debugLogPostResponse(res.code(), "addResultsForCases");
+        results.size(),
+        chunks.size());
+    final List<CompletableFuture<Response<List<TestResultDto>>>> pending = new ArrayList<>();
+    final List<AddResultsChunk> outcomes = new ArrayList<>(chunks.size());
+    for (int i = 0; i < chunks.size(); i++) {
+      // keep a sliding window of requests in flight, waiting on them in order
+      while (pending.size() - outcomes.size() < this.resultUploadConcurrency
+          && pending.size() < chunks.size()) {
+        pending.add(sendResultsChunk(testRailRunId, chunks.get(pending.size())));
+      }
+      outcomes.add(awaitResultsChunk(testRailRunId, chunks.get(i), pending.get(i)));
+    }
+    return outcomes;
+  }
 
-    if (res.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Invalid or unknown run id: " + testRailRunId, TestRailErrorStatus.BAD_REQUEST);
+  private CompletableFuture<Response<List<TestResultDto>>> sendResultsChunk(
+      final long testRailRunId, final Map<Long, TestRailStatusComment> chunk) {
+    try {
+      return apiClient.addResultsForCases(testRailRunId, TestRailResultChunker.toRequest(chunk));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
     }
-    if (res.code() == Status.FORBIDDEN.getStatusCode()) {
-      throw new TestRailException(
-          "No permission to add test result or no access to TestRail project.",
-          TestRailErrorStatus.ACCESS_DENIED);
+  }
+
+  private static AddResultsChunk awaitResultsChunk(
+      final long testRailRunId,
+      final Map<Long, TestRailStatusComment> chunk,
+      final CompletableFuture<Response<List<TestResultDto>>> pendingCall) {
+    try {
+      final var res = awaitResponse(pendingCall);
+      validateAddResultsResponse(res, testRailRunId);
+      return new AddResultsChunk(chunk, res.body(), null);
+    } catch (TestRailException e) {
+      return new AddResultsChunk(chunk, null, e);
     }
-    throwForCommonErrorStatuses(res, "Could not add TestRail result for run id: " + testRailRunId);
-    return res.body();
   }
 
   /**
@@ -276,43 +369,80 @@ public class TestRailClient {
             + " ] suiteId [ "
             + suiteId
             + " ]");
-    int offset = 0;
-    boolean nextPage = true;
-    List<TestCaseDto> cases = new ArrayList<>();
-    while (nextPage) {
-      final int currentOffset = offset;
-      var res =
-          this.makeCall(
-              client ->
-                  client.getCasesForSuite(projectId, suiteId, currentOffset, TESTRAIL_PAGE_LIMIT));
-      nextPage = false;
-      offset += TESTRAIL_PAGE_LIMIT;
-      debugLogPostResponse(res.code(), "getCasesForSuite");
+    return this.paginator.fetchAll(
+        "getCasesForSuite",
+        offset -> this.apiClient.getCasesForSuite(projectId, suiteId, offset, TESTRAIL_PAGE_LIMIT),
+        res -> validateCasesPage(res, projectId, suiteId));
+  }
 
-      if (res.code() == Status.BAD_REQUEST.getStatusCode()) {
-        throw new TestRailException(
-            "Invalid or unknown project [%d] or suite [%d]".formatted(projectId, suiteId),
-            TestRailErrorStatus.BAD_REQUEST);
-      }
-      if (res.code() == Status.FORBIDDEN.getStatusCode()) {
-        throw new TestRailException(
-            "No permission to get this suite or no access to TestRail project",
-            TestRailErrorStatus.ACCESS_DENIED);
-      }
+  /**
+   * Gets the test cases of a suite that were created or updated after the given times
+   *
+   * @param projectId The id of the project in TestRail
+   * @param suiteId The id of the suite in TestRail
+   * @param createdAfter Only return cases created after this UNIX timestamp, or null for any
+   * @param updatedAfter Only return cases updated after this UNIX timestamp, or null for any
+   * @return the matching test cases
+   * @throws TestRailException if there is an error response from TestRail
+   */
+  public List<TestCaseDto> getTestCasesForSuite(
+      final long projectId,
+      final long suiteId,
+      @Nullable final Long createdAfter,
+      @Nullable final Long updatedAfter)
+      throws TestRailException {
+    log.debug(
+        "Requesting getCasesForSuite from TestRail for project [ {} ] suiteId [ {} ] created"
+            + " after [ {} ] updated after [ {} ]",
+        projectId,
+        suiteId,
+        createdAfter,
+        updatedAfter);
+    return this.paginator.fetchAll(
+        "getCasesForSuite",
+        offset ->
+            this.apiClient.getCasesForSuite(
+                projectId, suiteId, createdAfter, updatedAfter, offset, TESTRAIL_PAGE_LIMIT),
+        res -> validateCasesPage(res, projectId, suiteId));
+  }
 
-      throwForCommonErrorStatuses(res, "Could not fetch test case for suite: " + suiteId);
-      var body = res.body();
-      if (body != null && body.cases() != null && !body.cases().isEmpty()) {
-        cases.addAll(body.cases());
-      }
-      if (body != null
-          && body._links() != null
-          && body._links().next() != null
-          && body.size() > 0) {
-        nextPage = true;
-      }
-    }
-    return cases;
+  /**
+   * Gets the IDs of all test cases in a suite. The IDs are cached per suite and kept up to date
+   * incrementally, see {@link TestRailClientOptions#getCaseIdCacheTtl()} and {@link
+   * TestRailClientOptions#getCaseIdSyncInterval()}.
+   *
+   * @param projectId The id of the project in TestRail
+   * @param suiteId The id of the suite in TestRail
+   * @return the IDs of the test cases in the suite
+   * @throws TestRailException if there is an error response from TestRail
+   */
+  public Set<Long> getTestCaseIdsForSuite(final long projectId, final long suiteId)
+      throws TestRailException {
+    return this.caseIdCache.getCaseIds(projectId, suiteId);
+  }
+
+  /**
+   * Finds the given case IDs that are not part of a suite. This uses the cached case IDs of the
+   * suite, and only reloads them when an ID is missing that was not already known to be invalid.
+   *
+   * @param projectId The id of the project in TestRail
+   * @param suiteId The id of the suite in TestRail
+   * @param caseIds The case IDs to check
+   * @return the case IDs that do not belong to the suite
+   * @throws TestRailException if there is an error response from TestRail
+   */
+  public Set<Long> findUnknownTestCaseIds(
+      final long projectId, final long suiteId, @NonNull final Collection<Long> caseIds)
+      throws TestRailException {
+    return this.caseIdCache.findUnknownCaseIds(projectId, suiteId, caseIds);
+  }
+
+  private List<TestCaseDto> loadTestCases(
+      final long projectId, final long suiteId, @Nullable final Long updatedAfter)
+      throws TestRailException {
+    return updatedAfter == null
+        ? this.getTestCasesForSuite(projectId, suiteId)
+        : this.getTestCasesForSuite(projectId, suiteId, null, updatedAfter);
   }
 
   /**
@@ -356,22 +486,28 @@ public class TestRailClient {
         testRunName,
         testCaseIds.size());
 
-    var result = this.makeCall(client -> client.addPlanEntry(testRailPlanId, dto));
-    debugLogPostResponse(result.code(), "addPlanEntry");
-
-    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Invalid or unknown test plan id: " + testRailPlanId, TestRailErrorStatus.BAD_REQUEST);
-    }
-    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-      throw new TestRailException(
-              "No permission to modify test plans or no access to TestRail project.",
-              TestRailErrorStatus.ACCESS_DENIED)
-          .setRetryable(false);
+    var result =
+        this.makeWrite(
+            "addPlanEntry",
+            client -> client.addPlanEntry(testRailPlanId, dto),
+            () -> this.findPlanEntry(testRailPlanId, testRunName, testSuiteId));
+    validateAddPlanEntryResponse(result, testRailPlanId);
+    final var planEntry = result.body();
+    // With includeAll the runs hold every case of the suite, which we don't know here
+    if (!includeAll) {
+      this.recordPlanEntryCases(planEntry, testCaseIds);
     }
-    throwForCommonErrorStatuses(
-        result, "Could not add TestRail plan entry for test plan id: " + testRailPlanId);
-    return result.body();
+    return planEntry;
+  }
+
+  private Optional<PlanEntryDto> findPlanEntry(
+      final long planId, @NonNull final String runName, final long suiteId)
+      throws TestRailException {
+    return Optional.ofNullable(this.getTestPlan(planId, recheckApiClient).getEntries()).stream()
+        .flatMap(List::stream)
+        .filter(entry -> runName.equals(entry.getName()))
+        .filter(entry -> Objects.equals(entry.getSuiteId(), suiteId))
+        .findFirst();
   }
 
   /**
@@ -394,32 +530,110 @@ public class TestRailClient {
             + " ] caseId count [ "
             + (caseIds != null ? caseIds.size() : 0)
             + " ]");
-    var result =
-        this.makeCall(
-            client ->
-                client.updatePlanEntry(
-                    planId, planEntryId, UpdatePlanEntryDto.builder().caseIds(caseIds).build()));
-    debugLogPostResponse(result.code(), "updatePlanEntry");
+    try {
+      var result =
+          this.makeCall(
+              "updatePlanEntry",
+              client ->
+                  client.updatePlanEntry(
+                      planId, planEntryId, UpdatePlanEntryDto.builder().caseIds(caseIds).build()));
+      validateUpdatePlanEntryResponse(result, planId, planEntryId);
 
-    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-      throw new TestRailException(
-          "Bad request for test plan: " + planId + " of test plan entry: " + planEntryId,
-          TestRailErrorStatus.BAD_REQUEST);
+      final var planEntry = result.body();
+      if (caseIds != null) {
+        this.recordPlanEntryCases(planEntry, caseIds);
+      }
+      return planEntry;
+    } catch (TestRailException e) {
+      // TestRail rejected the case list, so our view of the runs may be wrong
+      if (e.getStatus() == TestRailErrorStatus.BAD_REQUEST) {
+        this.runMembership.invalidateEntry(planEntryId);
+      }
+      throw e;
     }
-    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+  }
+
+  /**
+   * Gets the IDs of the test cases that are part of a run. The IDs are loaded from the tests of the
+   * run once, and kept up to date as the clients of the same TestRail instance create and update
+   * plan entries.
+   *
+   * @param run The TestRail run
+   * @return the IDs of the test cases in the run
+   * @throws TestRailException if there is an error response from TestRail
+   */
+  public Set<Long> getCaseIdsInRun(@NonNull final TestRunDto run) throws TestRailException {
+    return this.runMembership.getCaseIds(
+        run.getId(), run.getEntryId(), () -> this.loadCaseIdsInRun(run.getId()));
+  }
+
+  /**
+   * Adds test cases to the plan entry of a run, keeping the cases already in it. update_plan_entry
+   * replaces the case list of the entry, so the cases of the run are read from TestRail again right
+   * before the update, while holding the lock of the entry. Cases that another uploader added in
+   * the meantime are kept.
+   *
+   * @param planId The id of the plan containing the run
+   * @param run The TestRail run, which must be part of a plan entry
+   * @param caseIds The IDs of the test cases the run should contain
+   * @return the IDs of the test cases that were added to the run
+   * @throws TestRailException if there is an error response from TestRail
+   */
+  public Set<Long> addCasesToRun(
+      final long planId, @NonNull final TestRunDto run, @NonNull final Collection<Long> caseIds)
+      throws TestRailException {
+    if (this.getCaseIdsInRun(run).containsAll(caseIds)) {
+      return Set.of();
+    }
+    final var entryId = run.getEntryId();
+    if (entryId == null) {
       throw new TestRailException(
-              "No permission to add test result or no access to TestRail project.",
-              TestRailErrorStatus.ACCESS_DENIED)
+              "Run " + run.getId() + " is not part of a plan entry",
+              TestRailErrorStatus.BAD_REQUEST)
           .setRetryable(false);
     }
-    throwForCommonErrorStatuses(
-        result, "Could not update TestRail plan entry " + planEntryId + "in plan " + planId);
+    final var lock = this.runMembership.lockEntry(entryId);
+    lock.lock();
+    try {
+      final var current = this.loadCaseIdsInRun(run.getId());
+      this.runMembership.putRun(run.getId(), current);
+      final Set<Long> added = new HashSet<>(caseIds);
+      added.removeAll(current);
+      if (added.isEmpty()) {
+        return Set.of();
+      }
+      final Set<Long> merged = new HashSet<>(current);
+      merged.addAll(added);
+      this.updateExistingPlanEntry(planId, entryId, merged);
+      return added;
+    } finally {
+      lock.unlock();
+    }
+  }
 
-    return result.body();
+  private Set<Long> loadCaseIdsInRun(final long runId) throws TestRailException {
+    return this.getTestResultsForRun(runId, null).stream()
+        .map(TestDto::getCaseId)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toSet());
+  }
+
+  private void recordPlanEntryCases(
+      @Nullable final PlanEntryDto planEntry, @NonNull final Set<Long> caseIds) {
+    if (planEntry == null || planEntry.getId() == null || planEntry.getRuns() == null) {
+      return;
+    }
+    final var runIds =
+        planEntry.getRuns().stream().map(TestRunDto::getId).filter(Objects::nonNull).toList();
+    this.runMembership.putEntry(planEntry.getId(), runIds, caseIds);
   }
 
   /**
-   * Fetch a test plan
+   * Find the newest open test plan with the given name. Plans that were found or created before are
+   * looked up in an index, and read again by ID to make sure they are still open. Otherwise the
+   * open plans of the project are searched newest first, stopping at the first page containing a
+   * match. A plan from the search comes from a plan listing, so it does not include the plan
+   * entries.
    *
    * @param projectId The id of the project to fetch from TestRail
    * @param planName The name of the plan to search for
@@ -428,6 +642,25 @@ public class TestRailClient {
    */
   public Optional<PlanDto> findExistingTestPlan(
       final long projectId, @NonNull final String planName) throws TestRailException {
+    return this.findExistingTestPlan(projectId, planName, this.apiClient);
+  }
+
+  private Optional<PlanDto> findExistingTestPlan(
+      final long projectId, @NonNull final String planName, final TestRailApi api)
+      throws TestRailException {
+    final var indexedPlanId = this.planIndex.find(projectId, planName);
+    if (indexedPlanId.isPresent()) {
+      log.debug(
+          "Found plan [ {} ] in the plan index for projectId [ {} ] planName [ {} ]",
+          indexedPlanId.get(),
+          projectId,
+          planName);
+      final var indexedPlan =
+          this.recheckIndexedPlan(projectId, planName, indexedPlanId.get(), api);
+      if (indexedPlan.isPresent()) {
+        return indexedPlan;
+      }
+    }
     log.debug(
         "Requesting getPlansForProject from TestRail for projectId [ "
             + projectId
@@ -435,45 +668,92 @@ public class TestRailClient {
             + planName
             + " ]");
 
-    int offset = 0;
-    boolean nextPage = true;
-    List<PlanDto> plans = new ArrayList<>();
-    while (nextPage) {
-      final var currentOffset = offset;
-      var result =
-          this.makeCall(
-              client -> client.getPlansForProject(projectId, currentOffset, TESTRAIL_PAGE_LIMIT));
-      nextPage = false;
-      offset += TESTRAIL_PAGE_LIMIT;
-      debugLogPostResponse(result.code(), "getPlansForProject");
+    final Long createdAfter = planLookupCreatedAfter(this.planLookupMaxAge);
+    final var found = new AtomicReference<PlanDto>();
+    this.paginator.forEachPage(
+        "getPlansForProject",
+        offset -> api.getPlansForProject(projectId, 0, createdAfter, offset, TESTRAIL_PAGE_LIMIT),
+        result -> validatePlansPage(result, projectId),
+        page -> {
+          // TestRail lists plans newest first, so the first page with a match holds the newest one
+          findNewestOpenPlan(page.items(), planName).ifPresent(found::set);
+          return found.get() == null;
+        });
 
-      if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-        throw new TestRailException(
-            "Invalid or unknown project: " + projectId, TestRailErrorStatus.BAD_REQUEST);
-      }
-      if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-        throw new TestRailException(
-                "No access to TestRail project: " + projectId, TestRailErrorStatus.ACCESS_DENIED)
-            .setRetryable(false);
-      }
-      throwForCommonErrorStatuses(result, "Could not get TestRail test project: " + projectId);
+    final var plan = Optional.ofNullable(found.get());
+    plan.map(PlanDto::getId).ifPresent(planId -> this.planIndex.put(projectId, planName, planId));
+    return plan;
+  }
 
-      var body = result.body();
-      if (body != null && body.plans() != null && !body.plans().isEmpty()) {
-        plans.addAll(body.plans());
-      }
-      if (body != null
-          && body._links() != null
-          && body._links().next() != null
-          && body.size() > 0) {
-        nextPage = true;
+  /**
+   * Reads a plan found in the plan index again, forgetting it if it was deleted, renamed or
+   * completed since it was indexed
+   */
+  private Optional<PlanDto> recheckIndexedPlan(
+      final long projectId,
+      @NonNull final String planName,
+      final long planId,
+      final TestRailApi api)
+      throws TestRailException {
+    PlanDto plan;
+    try {
+      plan = this.getTestPlan(planId, api);
+    } catch (TestRailException e) {
+      // TestRail answers 400 for a plan that was deleted
+      if (e.getStatus() != TestRailErrorStatus.BAD_REQUEST) {
+        throw e;
       }
+      plan = null;
+    }
+    if (isOpenPlan(plan, projectId, planName)) {
+      return Optional.of(plan);
+    }
+    log.debug("Indexed plan [ {} ] is no longer the open plan [ {} ]", planId, planName);
+    this.planIndex.invalidatePlan(planId);
+    return Optional.empty();
+  }
+
+  /** Checks whether a plan is the open plan with the given project and name */
+  static boolean isOpenPlan(
+      @Nullable final PlanDto plan, final long projectId, @NonNull final String planName) {
+    return plan != null
+        && !Boolean.TRUE.equals(plan.getIsCompleted())
+        && Objects.equals(plan.getProjectId(), projectId)
+        && planName.equals(plan.getName());
+  }
+
+  /**
+   * Finds the newest plan with the given name that is not completed
+   *
+   * @param plans The plans to search, may be null
+   * @param planName The name of the plan to search for
+   * @return The newest matching plan
+   */
+  static Optional<PlanDto> findNewestOpenPlan(
+      @Nullable final List<PlanDto> plans, @NonNull final String planName) {
+    if (plans == null) {
+      return Optional.empty();
     }
+    return plans.stream()
+        .filter(plan -> !Boolean.TRUE.equals(plan.getIsCompleted()))
+        .filter(plan -> planName.equals(plan.getName()))
+        .max(
+            Comparator.comparing(
+                PlanDto::getCreatedOn, Comparator.nullsFirst(Comparator.naturalOrder())));
+  }
 
-    return plans.parallelStream()
-        .filter(plan -> !plan.getIsCompleted())
-        .filter(plan -> plan.getName().equals(planName))
-        .min((planA, planB) -> Math.toIntExact(planB.getCreatedOn() - planA.getCreatedOn()));
+  /**
+   * Converts the plan lookup age limit to the created_after filter of get_plans
+   *
+   * @param maxAge The maximum age of the plans to consider, or zero for any age
+   * @return The UNIX timestamp to pass as created_after, or null to not filter by age
+   */
+  @Nullable
+  static Long planLookupCreatedAfter(@NonNull final Duration maxAge) {
+    if (maxAge.isZero() || maxAge.isNegative()) {
+      return null;
+    }
+    return Instant.now().minus(maxAge).getEpochSecond();
   }
 
   /**
@@ -493,61 +773,389 @@ public class TestRailClient {
             + statusIds
             + " ]");
 
-    int offset = 0;
-    boolean nextPage = true;
-    List<TestDto> tests = new ArrayList<>();
-    while (nextPage) {
-      final var currentOffset = offset;
-      var result =
-          this.makeCall(
-              client ->
-                  client.getTests(testRailRunId, statusIds, currentOffset, TESTRAIL_PAGE_LIMIT));
-      nextPage = false;
-      offset += TESTRAIL_PAGE_LIMIT;
-      debugLogPostResponse(result.code(), "getTests");
+    return this.paginator.fetchAll(
+        "getTests",
+        offset -> this.apiClient.getTests(testRailRunId, statusIds, offset, TESTRAIL_PAGE_LIMIT),
+        result -> validateTestsPage(result, testRailRunId));
+  }
 
-      if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
-        throw new TestRailException(
-            "Invalid or unknown test run id: " + testRailRunId, TestRailErrorStatus.BAD_REQUEST);
-      }
-      if (result.code() == Status.FORBIDDEN.getStatusCode()) {
-        throw new TestRailException(
-            "No access to TestRail project for testRailRunId: " + testRailRunId,
-            TestRailErrorStatus.ACCESS_DENIED);
-      }
-      throwForCommonErrorStatuses(
-          result, "Could not get TestRail test list for test run id: " + testRailRunId);
+  /**
+   * Lazily streams the test cases for a suite. Pages are fetched on demand as the stream is
+   * consumed, so memory use stays constant regardless of the suite size. The first page is fetched
+   * before returning. The stream should be closed (e.g. with try-with-resources) if it is not
+   * consumed to the end, which cancels any page request still in flight.
+   *
+   * <p>Errors while fetching later pages are thrown as {@link UncheckedTestRailException}.
+   *
+   * @param projectId The id of the project in TestRail
+   * @param suiteId The id of the suite in TestRail
+   * @return A stream of the test cases in the suite
+   * @throws TestRailException if the first page could not be fetched
+   */
+  public Stream<TestCaseDto> streamTestCasesForSuite(final long projectId, final long suiteId)
+      throws TestRailException {
+    log.debug(
+        "Streaming getCasesForSuite from TestRail for project [ "
+            + projectId
+            + " ] suiteId [ "
+            + suiteId
+            + " ]");
+    return this.streamPages(
+        new TestRailPageIterator<>(
+            "streamCasesForSuite",
+            offset ->
+                this.apiClient.streamCasesForSuite(projectId, suiteId, offset, TESTRAIL_PAGE_LIMIT),
+            this.pageRetry,
+            res -> validateCasesPage(res, projectId, suiteId),
+            TestRailClientFactory.gson,
+            TestCaseDto.class,
+            "cases",
+            TESTRAIL_PAGE_LIMIT));
+  }
 
-      var body = result.body();
-      if (body != null && body.tests() != null && !body.tests().isEmpty()) {
-        tests.addAll(body.tests());
-      }
-      if (body != null
-          && body._links() != null
-          && body._links().next() != null
-          && body.size() > 0) {
-        nextPage = true;
-      }
+  /**
+   * Lazily streams the test plans for a project. Pages are fetched on demand as the stream is
+   * consumed, so a search can stop at the first match. The first page is fetched before returning.
+   * The stream should be closed (e.g. with try-with-resources) if it is not consumed to the end,
+   * which cancels any page request still in flight.
+   *
+   * <p>Errors while fetching later pages are thrown as {@link UncheckedTestRailException}.
+   *
+   * @param projectId The id of the project in TestRail
+   * @return A stream of the plans in the project
+   * @throws TestRailException if the first page could not be fetched
+   */
+  public Stream<PlanDto> streamPlansForProject(final long projectId) throws TestRailException {
+    log.debug("Streaming getPlansForProject from TestRail for projectId [ " + projectId + " ]");
+    return this.streamPages(
+        new TestRailPageIterator<>(
+            "streamPlansForProject",
+            offset -> this.apiClient.streamPlansForProject(projectId, offset, TESTRAIL_PAGE_LIMIT),
+            this.pageRetry,
+            res -> validatePlansPage(res, projectId),
+            TestRailClientFactory.gson,
+            PlanDto.class,
+            "plans",
+            TESTRAIL_PAGE_LIMIT));
+  }
+
+  /**
+   * Lazily streams the tests in a run. Pages are fetched on demand as the stream is consumed. The
+   * first page is fetched before returning. The stream should be closed (e.g. with
+   * try-with-resources) if it is not consumed to the end, which cancels any page request still in
+   * flight.
+   *
+   * <p>Errors while fetching later pages are thrown as {@link UncheckedTestRailException}.
+   *
+   * @param testRailRunId The run id to fetch the tests for
+   * @param statusIds A CSV string of status ids to search the results for
+   * @return A stream of the tests for the given TestRail run with the matching status ids
+   * @throws TestRailException if the first page could not be fetched
+   */
+  public Stream<TestDto> streamTestsForRun(
+      final long testRailRunId, @Nullable final String statusIds) throws TestRailException {
+    log.debug(
+        "Streaming getTests from TestRail for testRailRunId [ "
+            + testRailRunId
+            + " ] containing statusIds [ "
+            + statusIds
+            + " ]");
+    return this.streamPages(
+        new TestRailPageIterator<>(
+            "streamTests",
+            offset ->
+                this.apiClient.streamTests(testRailRunId, statusIds, offset, TESTRAIL_PAGE_LIMIT),
+            this.pageRetry,
+            res -> validateTestsPage(res, testRailRunId),
+            TestRailClientFactory.gson,
+            TestDto.class,
+            "tests",
+            TESTRAIL_PAGE_LIMIT));
+  }
+
+  private <T> Stream<T> streamPages(@NonNull final TestRailPageIterator<T> pages)
+      throws TestRailException {
+    pages.start();
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(pages::close);
+  }
+
+  /** Checks a get_plan response, throwing for any error status */
+  static void validatePlanResponse(@NonNull final Response<?> result, final long planId)
+      throws TestRailException {
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown test plan: " + planId, TestRailErrorStatus.BAD_REQUEST);
     }
-    return tests;
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No access to TestRail project for planId: " + planId,
+              TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(result, "Could not get TestRail test plan: " + planId);
+  }
+
+  /** Checks a get_statuses response, throwing for any error status */
+  static void validateStatusesResponse(@NonNull final Response<?> result) throws TestRailException {
+    debugLogPostResponse(result.code(), "getStatuses");
+
+    throwForCommonErrorStatuses(result, "Could not get TestRail statuses");
   }
 
-  private void debugLogPostResponse(final int httpStatusCode, @NonNull final String methodName) {
+  /** Checks a get_project response, throwing for any error status */
+  static void validateProjectResponse(@NonNull final Response<?> result, final long projectId)
+      throws TestRailException {
+    debugLogPostResponse(result.code(), "getProject");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown project: " + projectId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No access to TestRail project: " + projectId, TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(result, "Could not get TestRail project: " + projectId);
+  }
+
+  /** Checks a get_suite response, throwing for any error status */
+  static void validateSuiteResponse(@NonNull final Response<?> result, final long suiteId)
+      throws TestRailException {
+    debugLogPostResponse(result.code(), "getSuite");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown test suite: " + suiteId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No access to TestRail project for suiteId: " + suiteId,
+              TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(result, "Could not get TestRail test suite: " + suiteId);
+  }
+
+  /** Checks an add_plan response, throwing for any error status */
+  static void validateAddPlanResponse(
+      @NonNull final Response<?> result, final long testRailProjectId) throws TestRailException {
+    debugLogPostResponse(result.code(), "addPlan");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown project: " + testRailProjectId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No permission to add test plans or no access to TestRail project.",
+              TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(
+        result, "Could not add TestRail plan for project id: " + testRailProjectId);
+  }
+
+  /** Checks an add_results_for_cases response, throwing for any error status */
+  static void validateAddResultsResponse(@NonNull final Response<?> res, final long testRailRunId)
+      throws TestRailException {
+    debugLogPostResponse(res.code(), "addResultsForCases");
+
+    if (res.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown run id: " + testRailRunId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (res.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+          "No permission to add test result or no access to TestRail project.",
+          TestRailErrorStatus.ACCESS_DENIED);
+    }
+    throwForCommonErrorStatuses(res, "Could not add TestRail result for run id: " + testRailRunId);
+  }
+
+  /** Checks an add_plan_entry response, throwing for any error status */
+  static void validateAddPlanEntryResponse(
+      @NonNull final Response<?> result, final long testRailPlanId) throws TestRailException {
+    debugLogPostResponse(result.code(), "addPlanEntry");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown test plan id: " + testRailPlanId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No permission to modify test plans or no access to TestRail project.",
+              TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(
+        result, "Could not add TestRail plan entry for test plan id: " + testRailPlanId);
+  }
+
+  /** Checks an update_plan_entry response, throwing for any error status */
+  static void validateUpdatePlanEntryResponse(
+      @NonNull final Response<?> result, final long planId, @NonNull final String planEntryId)
+      throws TestRailException {
+    debugLogPostResponse(result.code(), "updatePlanEntry");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Bad request for test plan: " + planId + " of test plan entry: " + planEntryId,
+          TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No permission to add test result or no access to TestRail project.",
+              TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(
+        result, "Could not update TestRail plan entry " + planEntryId + "in plan " + planId);
+  }
+
+  static void validateCasesPage(
+      @NonNull final Response<?> res, final long projectId, final long suiteId)
+      throws TestRailException {
+    debugLogPostResponse(res.code(), "getCasesForSuite");
+
+    if (res.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown project [%d] or suite [%d]".formatted(projectId, suiteId),
+          TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (res.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+          "No permission to get this suite or no access to TestRail project",
+          TestRailErrorStatus.ACCESS_DENIED);
+    }
+
+    throwForCommonErrorStatuses(res, "Could not fetch test case for suite: " + suiteId);
+  }
+
+  static void validatePlansPage(@NonNull final Response<?> result, final long projectId)
+      throws TestRailException {
+    debugLogPostResponse(result.code(), "getPlansForProject");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown project: " + projectId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+              "No access to TestRail project: " + projectId, TestRailErrorStatus.ACCESS_DENIED)
+          .setRetryable(false);
+    }
+    throwForCommonErrorStatuses(result, "Could not get TestRail test project: " + projectId);
+  }
+
+  static void validateTestsPage(@NonNull final Response<?> result, final long testRailRunId)
+      throws TestRailException {
+    debugLogPostResponse(result.code(), "getTests");
+
+    if (result.code() == Status.BAD_REQUEST.getStatusCode()) {
+      throw new TestRailException(
+          "Invalid or unknown test run id: " + testRailRunId, TestRailErrorStatus.BAD_REQUEST);
+    }
+    if (result.code() == Status.FORBIDDEN.getStatusCode()) {
+      throw new TestRailException(
+          "No access to TestRail project for testRailRunId: " + testRailRunId,
+          TestRailErrorStatus.ACCESS_DENIED);
+    }
+    throwForCommonErrorStatuses(
+        result, "Could not get TestRail test list for test run id: " + testRailRunId);
+  }
+
+  private static void debugLogPostResponse(
+      final int httpStatusCode, @NonNull final String methodName) {
     log.debug("Retrieved HTTP " + httpStatusCode + " from TestRail " + methodName + " request.");
   }
 
+  /** Makes a call that is safe to repeat, retrying transient failures */
   private <T> Response<T> makeCall(
+      @NonNull final String operation,
       Function<TestRailApi, CompletableFuture<Response<T>>> testRailAction)
       throws TestRailException {
+    return this.makeCall(operation, apiClient, testRailAction);
+  }
+
+  /** Makes a call that is safe to repeat through the given API, retrying transient failures */
+  private <T> Response<T> makeCall(
+      @NonNull final String operation,
+      final TestRailApi api,
+      Function<TestRailApi, CompletableFuture<Response<T>>> testRailAction)
+      throws TestRailException {
+    return this.retryPolicy.execute(
+        operation, countingAttempts(operation, () -> awaitResponse(testRailAction.apply(api))));
+  }
+
+  /**
+   * Makes a call that creates an object, only retrying it when it was not applied
+   *
+   * @param recheck Looks for the object after a failure that may or may not have created it
+   */
+  private <T> Response<T> makeWrite(
+      @NonNull final String operation,
+      Function<TestRailApi, CompletableFuture<Response<T>>> testRailAction,
+      TestRailRetryPolicy.Recheck<T> recheck)
+      throws TestRailException {
+    return this.retryPolicy.executeWrite(
+        operation,
+        countingAttempts(operation, () -> awaitResponse(testRailAction.apply(apiClient))),
+        recheck);
+  }
+
+  /** Reports every attempt after the first to the metrics listener */
+  private <T> TestRailRetryPolicy.Attempt<T> countingAttempts(
+      final String operation, final TestRailRetryPolicy.Attempt<T> attempt) {
+    final var attempts = new AtomicInteger();
+    return () -> {
+      final int number = attempts.incrementAndGet();
+      if (number > 1) {
+        this.metricsListener.onRetry(operation, number);
+      }
+      return attempt.call();
+    };
+  }
+
+  /**
+   * Waits for a pending TestRail API call, mapping communication failures to TestRailExceptions
+   *
+   * @param pendingCall The pending call
+   * @return The response
+   * @param <T> The type of the response body
+   * @throws TestRailException If the call could not be completed
+   */
+  static <T> Response<T> awaitResponse(@NonNull final CompletableFuture<Response<T>> pendingCall)
+      throws TestRailException {
     try {
-      return testRailAction.apply(apiClient).join();
+      return pendingCall.join();
     } catch (CompletionException e) {
-      if (e.getCause() instanceof SocketTimeoutException) {
-        throw new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT);
-      } else {
-        log.info("Encountered an error communicating with TestRail", e);
-        throw new TestRailException(TestRailErrorStatus.UNKNOWN_ERROR);
-      }
+      throw toTestRailException(e);
+    }
+  }
+
+  /**
+   * Maps a failure of a pending TestRail API call to a TestRailException
+   *
+   * @param error The failure, possibly wrapped in a CompletionException
+   * @return The matching TestRailException
+   */
+  static TestRailException toTestRailException(@NonNull final Throwable error) {
+    final var cause =
+        error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    if (cause instanceof TestRailException testRailException) {
+      return testRailException;
+    }
+    if (cause instanceof SocketTimeoutException) {
+      return new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT);
+    }
+    if (cause instanceof TestRailCircuitOpenException circuitOpen) {
+      return new TestRailException(circuitOpen.getMessage(), TestRailErrorStatus.MAINTENANCE);
     }
+    log.info("Encountered an error communicating with TestRail", error);
+    return new TestRailException(TestRailErrorStatus.UNKNOWN_ERROR);
   }
 }
@@ -17,29 +17,207 @@
 */
 package com.applause.auto.testrail.client;
 
+import com.applause.auto.testrail.client.cache.TestRailRunMembershipCache;
+import com.applause.auto.testrail.client.interceptors.CacheInvalidationInterceptor;
+import com.applause.auto.testrail.client.interceptors.CacheMaxAgeInterceptor;
+import com.applause.auto.testrail.client.interceptors.CircuitBreakerInterceptor;
 import com.applause.auto.testrail.client.interceptors.GenericErrorInterceptor;
-import com.applause.auto.testrail.client.interceptors.HeadersInterceptor;
-import com.applause.auto.testrail.client.interceptors.UrlInterceptor;
+import com.applause.auto.testrail.client.interceptors.JfrEventInterceptor;
+import com.applause.auto.testrail.client.interceptors.MetricsInterceptor;
+import com.applause.auto.testrail.client.interceptors.RateLimitInterceptor;
+import com.applause.auto.testrail.client.interceptors.RequestCompressionInterceptor;
+import com.applause.auto.testrail.client.interceptors.TestRailRequestInterceptor;
+import com.applause.auto.testrail.client.metrics.TestRailMetricsListener;
+import com.applause.auto.testrail.client.metrics.TestRailSlowCallRecorder;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
 import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import com.applause.auto.testrail.client.models.config.TestRailHttpOptions;
+import com.applause.auto.testrail.client.resilience.TestRailCircuitBreaker;
+import com.applause.auto.testrail.client.resilience.TestRailRateLimiter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.Hashing;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import lombok.AllArgsConstructor;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 import retrofit2.converter.scalars.ScalarsConverterFactory;
 
 /** A TestRail Client Factory for initializing TestRail API Clients from a base OkHttp Client */
-@AllArgsConstructor
 public class TestRailClientFactory {
-  private static final Gson gson =
+  static final Gson gson =
       new GsonBuilder()
           .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
           .create();
 
+  private static final Map<Path, Cache> HTTP_CACHES = new ConcurrentHashMap<>();
+
+  @Getter(value = AccessLevel.PACKAGE, onMethod_ = @VisibleForTesting)
   private final OkHttpClient baseHttpClient;
 
+  private final TestRailClientOptions options;
+  private final TestRailRateLimiter rateLimiter;
+
+  /** The circuit breaker shared by the clients of this factory. Listeners can be added to it. */
+  @Getter private final TestRailCircuitBreaker circuitBreaker;
+
+  /** Samples the error logs of every client of this factory */
+  private final GenericErrorInterceptor errorInterceptor;
+
+  /** Tracks which hosts accept compressed request bodies. Null unless compression is enabled. */
+  @Nullable private final RequestCompressionInterceptor compressionInterceptor;
+
+  /** Keeps the slow calls of every client. Null unless a slow call threshold is set. */
+  @Nullable private final TestRailSlowCallRecorder slowCallRecorder;
+
+  /**
+   * Creates a new factory using the default client options
+   *
+   * @param baseHttpClient The OkHttp client to derive the TestRail HTTP clients from
+   */
+  public TestRailClientFactory(@NonNull final OkHttpClient baseHttpClient) {
+    this(baseHttpClient, TestRailClientOptions.DEFAULTS);
+  }
+
+  /**
+   * Creates a new factory
+   *
+   * @param baseHttpClient The OkHttp client to derive the TestRail HTTP clients from
+   * @param options The tuning options applied to every client created by this factory
+   */
+  public TestRailClientFactory(
+      @NonNull final OkHttpClient baseHttpClient, @NonNull final TestRailClientOptions options) {
+    this.options = options;
+    this.rateLimiter =
+        TestRailRateLimiter.shared(
+            options.getRequestsPerMinute(), options.getRequestBurst(), options.getMaxRetryAfter());
+    this.circuitBreaker =
+        new TestRailCircuitBreaker(
+            options.getCircuitBreakerFailureThreshold(), options.getCircuitBreakerOpenDuration());
+    this.errorInterceptor =
+        new GenericErrorInterceptor(
+            Set.of(),
+            options.getErrorBodyMaxBytes(),
+            options.getErrorLogMaxBytes(),
+            options.getErrorLogInterval());
+    this.compressionInterceptor =
+        options.getRequestCompressionMinBytes() > 0
+            ? new RequestCompressionInterceptor(options.getRequestCompressionMinBytes())
+            : null;
+    this.slowCallRecorder =
+        options.getSlowCallThreshold() != null
+            ? new TestRailSlowCallRecorder(
+                options.getSlowCallThreshold(), options.getSlowCallCapacity())
+            : null;
+    this.baseHttpClient = tune(baseHttpClient, options);
+  }
+
+  /**
+   * Applies the connection settings to the base client. Only the settings that were set replace
+   * those of the base client. The tuned client's dispatcher and connection pool are shared by every
+   * client derived from it.
+   */
+  private static OkHttpClient tune(
+      final OkHttpClient baseHttpClient, final TestRailClientOptions options) {
+    final var httpOptions = options.getHttpOptions();
+    final var builder = baseHttpClient.newBuilder();
+    if (options.isVirtualThreads()
+        || httpOptions.getMaxRequests() != null
+        || httpOptions.getMaxRequestsPerHost() != null) {
+      // Retrofit completes the returned futures on the dispatcher threads, so with virtual threads
+      // the work chained onto them (like fetching the next page) runs on virtual threads as well
+      final var dispatcher =
+          options.isVirtualThreads()
+              ? new Dispatcher(TestRailExecutors.newVirtualThreadPerTaskExecutor())
+              : new Dispatcher();
+      final var baseDispatcher = baseHttpClient.dispatcher();
+      dispatcher.setMaxRequests(
+          Optional.ofNullable(httpOptions.getMaxRequests())
+              .orElse(baseDispatcher.getMaxRequests()));
+      dispatcher.setMaxRequestsPerHost(
+          Optional.ofNullable(httpOptions.getMaxRequestsPerHost())
+              .orElse(baseDispatcher.getMaxRequestsPerHost()));
+      builder.dispatcher(dispatcher);
+    }
+    if (httpOptions.getMaxIdleConnections() != null || httpOptions.getKeepAlive() != null) {
+      // the setting left unset takes the OkHttp default
+      builder.connectionPool(
+          new ConnectionPool(
+              Optional.ofNullable(httpOptions.getMaxIdleConnections()).orElse(5),
+              Optional.ofNullable(httpOptions.getKeepAlive())
+                  .orElse(Duration.ofMinutes(5))
+                  .toMillis(),
+              TimeUnit.MILLISECONDS));
+    }
+    if (httpOptions.getHttp2() != null) {
+      builder.protocols(
+          httpOptions.getHttp2()
+              ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+              : List.of(Protocol.HTTP_1_1));
+    }
+    Optional.ofNullable(httpOptions.getConnectTimeout()).ifPresent(builder::connectTimeout);
+    Optional.ofNullable(httpOptions.getReadTimeout()).ifPresent(builder::readTimeout);
+    Optional.ofNullable(httpOptions.getWriteTimeout()).ifPresent(builder::writeTimeout);
+    Optional.ofNullable(httpOptions.getCallTimeout()).ifPresent(builder::callTimeout);
+    if (httpOptions.getTlsSessionCacheSize() > 0 || httpOptions.getTlsSessionTimeout() != null) {
+      configureTlsSessions(builder, httpOptions);
+    }
+    return builder.build();
+  }
+
+  /** Uses a TLS context of its own, so its session cache settings don't leak into the JVM */
+  private static void configureTlsSessions(
+      final OkHttpClient.Builder builder, final TestRailHttpOptions httpOptions) {
+    try {
+      final var trustManagerFactory =
+          TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+      trustManagerFactory.init((KeyStore) null);
+      final var trustManager =
+          Arrays.stream(trustManagerFactory.getTrustManagers())
+              .filter(X509TrustManager.class::isInstance)
+              .map(X509TrustManager.class::cast)
+              .findFirst()
+              .orElseThrow(() -> new IllegalStateException("No default X509 trust manager"));
+      final var sslContext = SSLContext.getInstance("TLS");
+      sslContext.init(null, new TrustManager[] {trustManager}, null);
+      final var sessions = sslContext.getClientSessionContext();
+      if (httpOptions.getTlsSessionCacheSize() > 0) {
+        sessions.setSessionCacheSize(httpOptions.getTlsSessionCacheSize());
+      }
+      if (httpOptions.getTlsSessionTimeout() != null) {
+        sessions.setSessionTimeout((int) httpOptions.getTlsSessionTimeout().toSeconds());
+      }
+      builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Could not set up the TestRail TLS context", e);
+    }
+  }
+
   /**
    * Gets the base TestRail API for the provided config
    *
@@ -47,20 +225,82 @@ public class TestRailClientFactory {
    * @return The TestRail API Instance
    */
   public TestRailApi getTestRailApi(final TestRailConfig config) {
-    final var httpClient =
-        baseHttpClient
-            .newBuilder()
-            .addInterceptor(new HeadersInterceptor(config.getEmail(), config.getApiKey()))
-            .addInterceptor(new UrlInterceptor())
-            .addInterceptor(new GenericErrorInterceptor())
-            .build();
-    return new Retrofit.Builder()
-        .baseUrl(config.getUrl())
-        .client(httpClient)
-        .addConverterFactory(ScalarsConverterFactory.create())
-        .addConverterFactory(GsonConverterFactory.create(gson))
-        .build()
-        .create(TestRailApi.class);
+    final var builder = baseHttpClient.newBuilder();
+    final var cache = this.getHttpCache(config);
+    if (cache != null) {
+      builder
+          .cache(cache)
+          .addNetworkInterceptor(new CacheMaxAgeInterceptor(options.getHttpCacheMaxAges()));
+    }
+    if (options.getMetricsListener() != TestRailMetricsListener.NOOP) {
+      builder.addInterceptor(new MetricsInterceptor(options.getMetricsListener()));
+    }
+    builder
+        .addInterceptor(new JfrEventInterceptor())
+        // calls rejected by an open circuit fail before they wait for or use a rate limit token
+        .addInterceptor(new CircuitBreakerInterceptor(circuitBreaker))
+        .addInterceptor(new RateLimitInterceptor(rateLimiter))
+        .addInterceptor(new TestRailRequestInterceptor(config.getEmail(), config.getApiKey()))
+        .addInterceptor(errorInterceptor);
+    if (cache != null) {
+      builder.addInterceptor(new CacheInvalidationInterceptor(cache));
+    }
+    if (compressionInterceptor != null) {
+      builder.addInterceptor(compressionInterceptor);
+    }
+    if (slowCallRecorder != null) {
+      builder.eventListenerFactory(slowCallRecorder);
+    }
+    final var httpClient = builder.build();
+    final var api =
+        new Retrofit.Builder()
+            .baseUrl(config.getUrl())
+            .client(httpClient)
+            .addConverterFactory(ScalarsConverterFactory.create())
+            .addConverterFactory(GsonConverterFactory.create(gson))
+            .build()
+            .create(TestRailApi.class);
+    return options.isCoalesceConcurrentReads() ? TestRailRequestCoalescer.wrap(api) : api;
+  }
+
+  /**
+   * Stops the dispatcher threads and closes the idle connections of the base client. Only for
+   * factories owning their base client; the clients of the factory cannot be used afterwards.
+   */
+  void shutdown() {
+    baseHttpClient.dispatcher().executorService().shutdown();
+    baseHttpClient.connectionPool().evictAll();
+  }
+
+  /**
+   * Gets the recorder keeping the network timelines of the slow calls made by the clients of this
+   * factory
+   *
+   * @return The recorder, or empty if no slow call threshold is set
+   */
+  public Optional<TestRailSlowCallRecorder> getSlowCallRecorder() {
+    return Optional.ofNullable(slowCallRecorder);
+  }
+
+  /**
+   * Gets the HTTP cache for the TestRail URL and user of a config. OkHttp requires a single cache
+   * instance per directory, so the caches are shared by all factories in the JVM.
+   */
+  @Nullable
+  private Cache getHttpCache(final TestRailConfig config) {
+    final var cacheDirectory = options.getHttpCacheDirectory();
+    if (cacheDirectory == null) {
+      return null;
+    }
+    // cached responses are only visible to the user that fetched them
+    final var subdirectory =
+        Hashing.sha256()
+            .hashString(config.getUrl() + "\n" + config.getEmail(), StandardCharsets.UTF_8)
+            .toString()
+            .substring(0, 16);
+    return HTTP_CACHES.computeIfAbsent(
+        cacheDirectory.resolve(subdirectory).toAbsolutePath().normalize(),
+        directory -> new Cache(directory.toFile(), options.getHttpCacheMaxBytes()));
   }
 
   /**
@@ -71,7 +311,25 @@ public class TestRailClientFactory {
    */
   public TestRailClient getTestRailClient(final TestRailConfig config) {
     final var apiClient = this.getTestRailApi(config);
-    return new TestRailClient(apiClient);
+    // clients of the same TestRail instance share which cases each run holds, so concurrent
+    // uploaders to the same plan see each other's changes
+    return new TestRailClient(
+        apiClient,
+        options,
+        TestRailRunMembershipCache.shared(
+            config.getUrl(),
+            options.getRunMembershipCacheTtl(),
+            options.getRunMembershipCacheMaxRuns()));
+  }
+
+  /**
+   * Gets the asynchronous TestRail Client for the provided config
+   *
+   * @param config The TestRail Config
+   * @return The asynchronous TestRail Client Instance
+   */
+  public AsyncTestRailClient getAsyncTestRailClient(final TestRailConfig config) {
+    return new AsyncTestRailClient(this.getTestRailApi(config), options);
   }
 
   /**
@@ -0,0 +1,78 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.extern.slf4j.Slf4j;
+
+/** Creates the executors that run the HTTP calls of the TestRail clients */
+@UtilityClass
+@Slf4j
+public class TestRailExecutors {
+
+  /**
+   * Creates an executor that starts a new virtual thread for each task. The library targets Java
+   * 17, so the virtual thread executor is looked up at runtime. If the running JVM does not provide
+   * one, a cached pool of daemon platform threads is returned instead.
+   *
+   * @return The executor
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // Java 19 and 20 only offer virtual threads as a preview feature, in which case the call
+      // fails unless preview features are enabled
+      log.warn(
+          "Virtual threads are not available on Java {}, falling back to platform threads",
+          Runtime.version().feature());
+      log.debug("Virtual thread executor lookup failed", e);
+      return newPlatformThreadExecutor("testrail-client-%d");
+    }
+  }
+
+  /**
+   * Creates a cached pool of daemon platform threads
+   *
+   * @param nameFormat The thread name format, as used by {@link ThreadFactoryBuilder}
+   * @return The executor
+   */
+  public static ExecutorService newPlatformThreadExecutor(@NonNull final String nameFormat) {
+    return Executors.newCachedThreadPool(
+        new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build());
+  }
+
+  /**
+   * Checks whether the given thread is a virtual thread
+   *
+   * @param thread The thread to check
+   * @return true if the running JVM supports virtual threads and the thread is one
+   */
+  public static boolean isVirtual(@NonNull final Thread thread) {
+    try {
+      return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    } catch (ReflectiveOperationException e) {
+      return false;
+    }
+  }
+}
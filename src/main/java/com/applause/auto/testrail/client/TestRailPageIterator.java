@@ -0,0 +1,272 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.errors.UncheckedTestRailException;
+import com.applause.auto.testrail.client.models.testrail.PaginatedLinkDto;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * Lazily walks a paginated TestRail endpoint. Pages are only requested once the previous one has
+ * been consumed, and each page is decoded one item at a time straight off the response body, so
+ * memory use does not grow with the number of results.
+ *
+ * <p>A page that failed transiently is sent again, see {@link TestRailPageRetry}. Closing the
+ * iterator cancels the page request in flight and releases the response body.
+ *
+ * @param <T> The type of the paginated items
+ */
+@Slf4j
+class TestRailPageIterator<T> implements Iterator<T>, Closeable {
+  private final String operation;
+  private final IntFunction<CompletableFuture<Response<ResponseBody>>> pageRequest;
+  private final TestRailPageRetry pageRetry;
+  private final TestRailResponseValidator<ResponseBody> validator;
+  private final Gson gson;
+  private final Class<T> itemType;
+  private final String itemsField;
+  private final int pageSize;
+
+  private volatile CompletableFuture<Response<ResponseBody>> pendingPage;
+  private volatile boolean closed;
+  private ResponseBody pageBody;
+  private JsonReader reader;
+  private PaginatedLinkDto pageLinks;
+  private boolean inItems;
+  private int itemsInPage;
+  private int nextOffset;
+
+  /**
+   * Creates a new page iterator. No request is made until {@link #start()} is called.
+   *
+   * @param operation The name of the paginated read, for logging and metrics
+   * @param pageRequest Starts the request for the page at the given offset
+   * @param pageRetry Sends pages that failed transiently again
+   * @param validator Checks each page response, throwing if it was not successful
+   * @param gson The Gson instance used to decode the items
+   * @param itemType The type of the paginated items
+   * @param itemsField The name of the field holding the items in each page
+   * @param pageSize The number of items requested per page
+   */
+  TestRailPageIterator(
+      @NonNull final String operation,
+      @NonNull final IntFunction<CompletableFuture<Response<ResponseBody>>> pageRequest,
+      @NonNull final TestRailPageRetry pageRetry,
+      @NonNull final TestRailResponseValidator<ResponseBody> validator,
+      @NonNull final Gson gson,
+      @NonNull final Class<T> itemType,
+      @NonNull final String itemsField,
+      final int pageSize) {
+    this.operation = operation;
+    this.pageRequest = pageRequest;
+    this.pageRetry = pageRetry;
+    this.validator = validator;
+    this.gson = gson;
+    this.itemType = itemType;
+    this.itemsField = itemsField;
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * Fetches the first page, so errors such as an unknown project are reported up front
+   *
+   * @throws TestRailException If the first page could not be fetched
+   */
+  void start() throws TestRailException {
+    try {
+      this.openNextPage();
+    } catch (IOException e) {
+      this.close();
+      throw toTestRailException(e);
+    } catch (TestRailException | RuntimeException e) {
+      this.close();
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      while (!closed && reader != null) {
+        if (inItems && reader.hasNext()) {
+          return true;
+        }
+        if (inItems) {
+          reader.endArray();
+          inItems = false;
+        }
+        if (this.advanceToItems()) {
+          continue;
+        }
+        this.closePage();
+        if (this.isLastPage()) {
+          this.close();
+          return false;
+        }
+        this.openNextPage();
+      }
+      return false;
+    } catch (CancellationException e) {
+      // closed from another thread while waiting for a page
+      return false;
+    } catch (IOException e) {
+      if (closed) {
+        // the body was released from another thread
+        return false;
+      }
+      this.close();
+      throw new UncheckedTestRailException(toTestRailException(e));
+    } catch (TestRailException e) {
+      this.close();
+      throw new UncheckedTestRailException(e);
+    } catch (JsonParseException | IllegalStateException e) {
+      this.close();
+      throw new UncheckedTestRailException(
+          new TestRailException(
+              "Could not read TestRail page response", TestRailErrorStatus.UNKNOWN_ERROR, e));
+    }
+  }
+
+  @Override
+  public T next() {
+    if (!this.hasNext()) {
+      throw new NoSuchElementException();
+    }
+    try {
+      final T item = gson.fromJson(reader, itemType);
+      itemsInPage++;
+      return item;
+    } catch (JsonParseException e) {
+      this.close();
+      throw new UncheckedTestRailException(
+          new TestRailException(
+              "Could not read TestRail page response", TestRailErrorStatus.UNKNOWN_ERROR, e));
+    }
+  }
+
+  /** Cancels any page request in flight and releases the current response body */
+  @Override
+  public void close() {
+    closed = true;
+    final var pending = pendingPage;
+    if (pending != null) {
+      pending.cancel(true);
+    }
+    this.closePage();
+  }
+
+  private void openNextPage() throws TestRailException, IOException {
+    final var offset = nextOffset;
+    nextOffset += pageSize;
+    final Response<ResponseBody> response;
+    try {
+      response =
+          pageRetry.await(operation, this.requestPage(offset), () -> this.requestPage(offset));
+    } finally {
+      pendingPage = null;
+    }
+    validator.validate(response);
+    pageBody = response.body();
+    pageLinks = null;
+    itemsInPage = 0;
+    if (pageBody == null) {
+      return;
+    }
+    reader = gson.newJsonReader(pageBody.charStream());
+    reader.beginObject();
+    this.advanceToItems();
+  }
+
+  /**
+   * Sends the request for a page, keeping it as the pending page so {@link #close()} can cancel it
+   *
+   * @param offset The offset of the page
+   * @return The page request, already cancelled if the iterator was closed
+   */
+  private CompletableFuture<Response<ResponseBody>> requestPage(final int offset) {
+    final var request = pageRequest.apply(offset);
+    pendingPage = request;
+    if (closed) {
+      request.cancel(true);
+    }
+    return request;
+  }
+
+  /**
+   * Reads the fields of the page object until the items array is opened, picking up the pagination
+   * links on the way
+   *
+   * @return True if positioned inside the items array, false if the end of the page was reached
+   */
+  private boolean advanceToItems() throws IOException {
+    while (reader.hasNext()) {
+      final var name = reader.nextName();
+      if (itemsField.equals(name)) {
+        reader.beginArray();
+        inItems = true;
+        return true;
+      } else if ("_links".equals(name)) {
+        pageLinks = gson.fromJson(reader, PaginatedLinkDto.class);
+      } else {
+        reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return false;
+  }
+
+  private boolean isLastPage() {
+    return pageLinks == null
+        || pageLinks.next() == null
+        || itemsInPage <= 0
+        || itemsInPage < pageSize;
+  }
+
+  private void closePage() {
+    reader = null;
+    inItems = false;
+    if (pageBody != null) {
+      pageBody.close();
+      pageBody = null;
+    }
+  }
+
+  private static TestRailException toTestRailException(@NonNull final IOException e) {
+    if (e instanceof SocketTimeoutException) {
+      return new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT, e);
+    }
+    log.info("Encountered an error reading a TestRail page", e);
+    return new TestRailException(TestRailErrorStatus.UNKNOWN_ERROR, e);
+  }
+}
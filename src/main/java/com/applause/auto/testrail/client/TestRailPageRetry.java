@@ -0,0 +1,82 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.metrics.TestRailMetricsListener;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.NonNull;
+import retrofit2.Response;
+
+/**
+ * Waits for page requests of the paginated reads, sending a page again through the retry policy
+ * when it failed for a transient reason. Page reads are idempotent, so they are always safe to
+ * retry.
+ */
+final class TestRailPageRetry {
+  /** Makes a single attempt per page */
+  static final TestRailPageRetry DISABLED =
+      new TestRailPageRetry(TestRailRetryPolicy.DISABLED, TestRailMetricsListener.NOOP);
+
+  private final TestRailRetryPolicy retryPolicy;
+  private final TestRailMetricsListener metricsListener;
+
+  /**
+   * Creates a new page retry
+   *
+   * @param retryPolicy The policy deciding whether and when a page is requested again
+   * @param metricsListener Notified of every page attempt after the first
+   */
+  TestRailPageRetry(
+      @NonNull final TestRailRetryPolicy retryPolicy,
+      @NonNull final TestRailMetricsListener metricsListener) {
+    this.retryPolicy = retryPolicy;
+    this.metricsListener = metricsListener;
+  }
+
+  /**
+   * Waits for a page, requesting it again while it fails transiently
+   *
+   * @param operation The name of the paginated read, for logging and metrics
+   * @param firstAttempt The page request already in flight, possibly prefetched
+   * @param nextAttempt Sends the page request again
+   * @return The last response
+   * @param <P> The type of the page
+   * @throws TestRailException If the last attempt could not be completed
+   */
+  <P> Response<P> await(
+      @NonNull final String operation,
+      @NonNull final CompletableFuture<Response<P>> firstAttempt,
+      @NonNull final Supplier<CompletableFuture<Response<P>>> nextAttempt)
+      throws TestRailException {
+    final var attempts = new AtomicInteger();
+    return retryPolicy.execute(
+        operation,
+        () -> {
+          final int number = attempts.incrementAndGet();
+          if (number == 1) {
+            return TestRailClient.awaitResponse(firstAttempt);
+          }
+          metricsListener.onRetry(operation, number);
+          return TestRailClient.awaitResponse(nextAttempt.get());
+        });
+  }
+}
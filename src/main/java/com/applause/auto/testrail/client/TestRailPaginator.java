@@ -0,0 +1,281 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.interceptors.TestRailEndpoints;
+import com.applause.auto.testrail.client.jfr.TestRailPageEvent;
+import com.applause.auto.testrail.client.models.testrail.PaginatedBulkDto;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import retrofit2.Response;
+
+/**
+ * Reads the paginated TestRail endpoints. Keeps a window of page requests (offset, offset + limit,
+ * ...) in flight, so the round trips overlap instead of running back to back. Pages are always
+ * handed out in offset order. The blocking reads send a page that failed transiently again, see
+ * {@link TestRailPageRetry}.
+ */
+@Slf4j
+class TestRailPaginator {
+  private final int pageSize;
+  private final int prefetchWindow;
+  private final TestRailPageRetry pageRetry;
+
+  /**
+   * Creates a new paginator that makes a single attempt per page
+   *
+   * @param pageSize The number of items requested per page
+   * @param prefetchWindow The max number of page requests in flight at once
+   */
+  TestRailPaginator(final int pageSize, final int prefetchWindow) {
+    this(pageSize, prefetchWindow, TestRailPageRetry.DISABLED);
+  }
+
+  /**
+   * Creates a new paginator
+   *
+   * @param pageSize The number of items requested per page
+   * @param prefetchWindow The max number of page requests in flight at once
+   * @param pageRetry Sends pages that failed transiently again in the blocking reads
+   */
+  TestRailPaginator(
+      final int pageSize, final int prefetchWindow, @NonNull final TestRailPageRetry pageRetry) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be positive, was " + pageSize);
+    }
+    if (prefetchWindow < 1) {
+      throw new IllegalArgumentException(
+          "Page prefetch window must be positive, was " + prefetchWindow);
+    }
+    this.pageSize = pageSize;
+    this.prefetchWindow = prefetchWindow;
+    this.pageRetry = pageRetry;
+  }
+
+  /**
+   * Fetches every page of a paginated endpoint
+   *
+   * @param operation The name of the paginated read, for logging and metrics
+   * @param pageRequest Starts the request for the page at the given offset
+   * @param validator Checks each page response, throwing if it was not successful
+   * @return All items from all pages, in order
+   * @param <T> The type of the paginated items
+   * @param <P> The type of the page
+   * @throws TestRailException If any page request fails
+   */
+  <T, P extends PaginatedBulkDto<T>> List<T> fetchAll(
+      @NonNull final String operation,
+      @NonNull final IntFunction<CompletableFuture<Response<P>>> pageRequest,
+      @NonNull final TestRailResponseValidator<P> validator)
+      throws TestRailException {
+    final List<T> items = new ArrayList<>();
+    this.forEachPage(
+        operation,
+        pageRequest,
+        validator,
+        page -> {
+          if (page.items() != null) {
+            items.addAll(page.items());
+          }
+          return true;
+        });
+    return items;
+  }
+
+  /**
+   * Walks the pages of a paginated endpoint in order, until the last page is reached or the page
+   * consumer asks to stop. Page requests still in flight at that point are cancelled.
+   *
+   * @param operation The name of the paginated read, for logging and metrics
+   * @param pageRequest Starts the request for the page at the given offset
+   * @param validator Checks each page response, throwing if it was not successful
+   * @param pageConsumer Handles each page, returning false to stop the walk
+   * @param <P> The type of the page
+   * @throws TestRailException If any page request fails
+   */
+  <P extends PaginatedBulkDto<?>> void forEachPage(
+      @NonNull final String operation,
+      @NonNull final IntFunction<CompletableFuture<Response<P>>> pageRequest,
+      @NonNull final TestRailResponseValidator<P> validator,
+      @NonNull final Predicate<P> pageConsumer)
+      throws TestRailException {
+    final Deque<CompletableFuture<Response<P>>> inFlight = new ArrayDeque<>();
+    int nextOffset = 0;
+    int pageOffset = 0;
+    // The first page is requested on its own, so small results don't pay for a full window
+    int window = 1;
+    try {
+      while (true) {
+        while (inFlight.size() < window) {
+          inFlight.add(pageRequest.apply(nextOffset));
+          nextOffset += pageSize;
+        }
+        final var event = new TestRailPageEvent();
+        event.begin();
+        final int offset = pageOffset;
+        final var response =
+            pageRetry.await(operation, inFlight.poll(), () -> pageRequest.apply(offset));
+        validator.validate(response);
+        final var page = response.body();
+        event.end();
+        commit(event, response, pageOffset, page, inFlight.size());
+        pageOffset += pageSize;
+        if (page == null || !pageConsumer.test(page) || this.isLastPage(page)) {
+          return;
+        }
+        window = prefetchWindow;
+      }
+    } finally {
+      if (!inFlight.isEmpty()) {
+        log.trace("Cancelling {} page requests past the last page", inFlight.size());
+        inFlight.forEach(request -> request.cancel(true));
+      }
+    }
+  }
+
+  /**
+   * Asynchronously fetches every page of a paginated endpoint, keeping the same window of page
+   * requests in flight as {@link #fetchAll}. Pages are not sent again after a transient failure;
+   * the failure completes the returned future.
+   *
+   * @param pageRequest Starts the request for the page at the given offset
+   * @param validator Checks each page response, throwing if it was not successful
+   * @return A future completing with all items from all pages, in order, or failing with a
+   *     TestRailException if any page request fails
+   * @param <T> The type of the paginated items
+   * @param <P> The type of the page
+   */
+  <T, P extends PaginatedBulkDto<T>> CompletableFuture<List<T>> fetchAllAsync(
+      @NonNull final IntFunction<CompletableFuture<Response<P>>> pageRequest,
+      @NonNull final TestRailResponseValidator<P> validator) {
+    final List<T> items = new ArrayList<>();
+    return this.forEachPageAsync(
+            pageRequest,
+            validator,
+            page -> {
+              if (page.items() != null) {
+                items.addAll(page.items());
+              }
+              return true;
+            })
+        .thenApply(ignored -> items);
+  }
+
+  /**
+   * Asynchronously walks the pages of a paginated endpoint in order, like {@link #forEachPage},
+   * until the last page is reached or the page consumer asks to stop. Page requests still in flight
+   * at that point are cancelled.
+   *
+   * @param pageRequest Starts the request for the page at the given offset
+   * @param validator Checks each page response, throwing if it was not successful
+   * @param pageConsumer Handles each page, returning false to stop the walk
+   * @return A future completing once the walk stopped, or failing with a TestRailException if any
+   *     page request fails
+   * @param <P> The type of the page
+   */
+  <P extends PaginatedBulkDto<?>> CompletableFuture<Void> forEachPageAsync(
+      @NonNull final IntFunction<CompletableFuture<Response<P>>> pageRequest,
+      @NonNull final TestRailResponseValidator<P> validator,
+      @NonNull final Predicate<P> pageConsumer) {
+    final Deque<CompletableFuture<Response<P>>> inFlight = new ArrayDeque<>();
+    inFlight.add(pageRequest.apply(0));
+    return this.drainAsync(pageRequest, validator, pageConsumer, inFlight, pageSize)
+        .whenComplete((result, error) -> inFlight.forEach(request -> request.cancel(true)));
+  }
+
+  private <P extends PaginatedBulkDto<?>> CompletableFuture<Void> drainAsync(
+      @NonNull final IntFunction<CompletableFuture<Response<P>>> pageRequest,
+      @NonNull final TestRailResponseValidator<P> validator,
+      @NonNull final Predicate<P> pageConsumer,
+      @NonNull final Deque<CompletableFuture<Response<P>>> inFlight,
+      final int nextOffset) {
+    final int pageOffset = nextOffset - inFlight.size() * pageSize;
+    return inFlight
+        .poll()
+        .handle(
+            (response, error) -> {
+              if (error != null) {
+                throw new CompletionException(TestRailClient.toTestRailException(error));
+              }
+              try {
+                validator.validate(response);
+              } catch (TestRailException e) {
+                throw new CompletionException(e);
+              }
+              commit(
+                  new TestRailPageEvent(), response, pageOffset, response.body(), inFlight.size());
+              return response.body();
+            })
+        .thenCompose(
+            page -> {
+              if (page == null || !pageConsumer.test(page) || this.isLastPage(page)) {
+                return CompletableFuture.completedFuture(null);
+              }
+              int offset = nextOffset;
+              while (inFlight.size() < prefetchWindow) {
+                inFlight.add(pageRequest.apply(offset));
+                offset += pageSize;
+              }
+              return this.drainAsync(pageRequest, validator, pageConsumer, inFlight, offset);
+            });
+  }
+
+  /**
+   * Commits the event for a page, if Flight Recorder records it
+   *
+   * @param event The event, ended once the page was taken, or not timed at all
+   * @param response The page response
+   * @param offset The offset of the page
+   * @param page The page
+   * @param prefetched The number of page requests still in flight
+   */
+  private static void commit(
+      @NonNull final TestRailPageEvent event,
+      @NonNull final Response<?> response,
+      final int offset,
+      @Nullable final PaginatedBulkDto<?> page,
+      final int prefetched) {
+    if (!event.shouldCommit()) {
+      return;
+    }
+    event.path = TestRailEndpoints.endpoint(response.raw().request().url());
+    event.offset = offset;
+    if (page != null) {
+      event.items = page.items() != null ? page.items().size() : 0;
+    }
+    event.prefetched = prefetched;
+    event.commit();
+  }
+
+  private boolean isLastPage(@NonNull final PaginatedBulkDto<?> page) {
+    return page._links() == null
+        || page._links().next() == null
+        || page.size() <= 0
+        || page.size() < pageSize;
+  }
+}
@@ -22,11 +22,11 @@ import com.applause.auto.testrail.client.errors.TestRailException;
 import com.applause.auto.testrail.client.models.config.TestRailStatusMaps;
 import com.applause.auto.testrail.client.models.testrail.ProjectDto;
 import com.applause.auto.testrail.client.models.testrail.StatusDto;
-import com.applause.auto.testrail.client.models.testrail.TestCaseDto;
 import com.applause.auto.testrail.client.models.testrail.TestSuiteDto;
 import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -192,10 +192,14 @@ public class TestRailParamValidator {
   public void validateTestCaseIds(
       final long projectId, final long suiteId, @NonNull final Set<String> testRailCaseIds)
       throws TestRailException {
-    final ImmutableSet<Long> testCasesInTestRail =
-        this.testRailClient.getTestCasesForSuite(projectId, suiteId).stream()
-            .map(TestCaseDto::getId)
+    final ImmutableSet<Long> wellFormedCaseIds =
+        testRailCaseIds.stream()
+            .filter(Objects::nonNull)
+            .filter(TestRailUtil::validateTestRailCaseId)
+            .map(TestRailUtil::extractTestCaseId)
             .collect(ImmutableSet.toImmutableSet());
+    final Set<Long> unknownCaseIds =
+        this.testRailClient.findUnknownTestCaseIds(projectId, suiteId, wellFormedCaseIds);
     for (final String caseId : testRailCaseIds) {
       if (caseId == null) {
         continue;
@@ -208,7 +212,7 @@ public class TestRailParamValidator {
       // trim it
       long filteredTestCaseId = TestRailUtil.extractTestCaseId(caseId);
       // make sure case exists on testrail
-      if (!testCasesInTestRail.contains(filteredTestCaseId)) {
+      if (unknownCaseIds.contains(filteredTestCaseId)) {
         throw new TestRailException(
             "Test Case ID " + filteredTestCaseId + " has no matching case in Testrail",
             TestRailErrorStatus.CASE_ID);
@@ -0,0 +1,246 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+/**
+ * Coalesces concurrent identical reads. While a GET call is in flight, callers making the same call
+ * with the same arguments share its response instead of sending another request. Writes and
+ * streamed reads are always sent.
+ *
+ * <p>Every caller gets a future of its own. Cancelling it only detaches that caller; the shared
+ * call is cancelled once every caller has cancelled. The response bodies are the same objects for
+ * every caller, so they must be treated as read-only.
+ *
+ * <p>A joined call may have started before the caller did, so reads that must observe an earlier
+ * write, like the re-check of a failed write, go through {@link #uncoalesced(TestRailApi)}.
+ */
+@Slf4j
+final class TestRailRequestCoalescer implements InvocationHandler {
+  private final TestRailApi delegate;
+  private final Map<CallKey, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+  private TestRailRequestCoalescer(final TestRailApi delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Wraps a TestRail API so concurrent identical reads are only sent once
+   *
+   * @param delegate The API to send the calls through
+   * @return The coalescing API
+   */
+  static TestRailApi wrap(@NonNull final TestRailApi delegate) {
+    return (TestRailApi)
+        Proxy.newProxyInstance(
+            TestRailApi.class.getClassLoader(),
+            new Class<?>[] {TestRailApi.class},
+            new TestRailRequestCoalescer(delegate));
+  }
+
+  /**
+   * Gets the API a coalescing API sends its calls through, for reads that must not join a call
+   * started earlier
+   *
+   * @param api The API, coalescing or not
+   * @return The API without coalescing
+   */
+  static TestRailApi uncoalesced(@NonNull final TestRailApi api) {
+    if (Proxy.isProxyClass(api.getClass())
+        && Proxy.getInvocationHandler(api) instanceof TestRailRequestCoalescer coalescer) {
+      return coalescer.delegate;
+    }
+    return api;
+  }
+
+  @Override
+  public Object invoke(final Object proxy, final Method method, @Nullable final Object[] args)
+      throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      return switch (method.getName()) {
+        case "equals" -> proxy == args[0];
+        case "hashCode" -> System.identityHashCode(proxy);
+        default -> "TestRailRequestCoalescer(" + delegate + ")";
+      };
+    }
+    if (method.isDefault()) {
+      return InvocationHandler.invokeDefault(proxy, method, args);
+    }
+    if (!isCoalesced(method)) {
+      return this.send(method, args);
+    }
+    final var key = new CallKey(method, args == null ? List.of() : Arrays.asList(args));
+    while (true) {
+      final var shared = inFlight.get(key);
+      if (shared != null) {
+        final var joined = shared.join();
+        if (joined != null) {
+          log.trace("Joining the in-flight TestRail call {}", method.getName());
+          return joined;
+        }
+        // every caller of that call cancelled it, so it is about to go away
+        inFlight.remove(key, shared);
+        continue;
+      }
+      final var created = new InFlightCall(key);
+      final var joined = created.join();
+      if (inFlight.putIfAbsent(key, created) == null) {
+        created.send(method, args);
+        return joined;
+      }
+    }
+  }
+
+  private Object send(final Method method, @Nullable final Object[] args) throws Throwable {
+    try {
+      return method.invoke(delegate, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  private static boolean isCoalesced(final Method method) {
+    return method.isAnnotationPresent(GET.class)
+        && !method.isAnnotationPresent(Streaming.class)
+        && method.getReturnType() == CompletableFuture.class;
+  }
+
+  private record CallKey(Method method, List<Object> args) {}
+
+  /** A call shared by the callers that joined it, cancelled once all of them cancelled */
+  private final class InFlightCall {
+    private final CallKey key;
+    private final CompletableFuture<SharedResponse> response = new CompletableFuture<>();
+    private volatile CompletableFuture<?> call;
+    private int joiners;
+    private boolean abandoned;
+
+    InFlightCall(final CallKey key) {
+      this.key = key;
+    }
+
+    /**
+     * Adds a caller to the call
+     *
+     * @return The future of the caller, or null if the call was already abandoned
+     */
+    @Nullable
+    synchronized CompletableFuture<Response<?>> join() {
+      if (abandoned) {
+        return null;
+      }
+      joiners++;
+      final CompletableFuture<Response<?>> joined = response.thenApply(SharedResponse::toResponse);
+      joined.whenComplete(
+          (ignored, error) -> {
+            if (joined.isCancelled()) {
+              this.leave();
+            }
+          });
+      return joined;
+    }
+
+    /** Removes a caller that cancelled, cancelling the call if it was the last one */
+    private void leave() {
+      synchronized (this) {
+        if (--joiners > 0 || response.isDone()) {
+          return;
+        }
+        abandoned = true;
+      }
+      inFlight.remove(key, this);
+      final var pending = call;
+      if (pending != null) {
+        log.trace("Cancelling the TestRail call {}, no caller is waiting for it", key.method());
+        pending.cancel(true);
+      }
+    }
+
+    void send(final Method method, @Nullable final Object[] args) {
+      try {
+        @SuppressWarnings("unchecked")
+        final var pending =
+            (CompletableFuture<Response<?>>) TestRailRequestCoalescer.this.send(method, args);
+        call = pending;
+        pending.whenComplete(
+            (result, error) -> {
+              inFlight.remove(key, this);
+              if (error != null) {
+                response.completeExceptionally(error);
+                return;
+              }
+              try {
+                response.complete(SharedResponse.of(result));
+              } catch (IOException e) {
+                response.completeExceptionally(e);
+              }
+            });
+        synchronized (this) {
+          if (abandoned) {
+            pending.cancel(true);
+          }
+        }
+      } catch (Throwable e) {
+        inFlight.remove(key, this);
+        response.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * A response handed to several callers. The error body of a response can only be read once, so it
+   * is buffered, and every caller gets its own copy.
+   */
+  private record SharedResponse(
+      Response<?> response, @Nullable byte[] errorBody, @Nullable MediaType errorType) {
+
+    static SharedResponse of(final Response<?> response) throws IOException {
+      if (response.isSuccessful() || response.errorBody() == null) {
+        return new SharedResponse(response, null, null);
+      }
+      try (var errorBody = response.errorBody()) {
+        return new SharedResponse(response, errorBody.bytes(), errorBody.contentType());
+      }
+    }
+
+    Response<?> toResponse() {
+      if (errorBody == null) {
+        return response;
+      }
+      return Response.error(ResponseBody.create(errorBody, errorType), response.raw());
+    }
+  }
+}
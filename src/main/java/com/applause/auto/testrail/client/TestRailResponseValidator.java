@@ -0,0 +1,37 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import retrofit2.Response;
+
+/**
+ * Checks a TestRail API response, throwing if it was not successful
+ *
+ * @param <T> The type of the response body
+ */
+@FunctionalInterface
+interface TestRailResponseValidator<T> {
+  /**
+   * Validates the response
+   *
+   * @param response The response
+   * @throws TestRailException If the response is an error
+   */
+  void validate(Response<T> response) throws TestRailException;
+}
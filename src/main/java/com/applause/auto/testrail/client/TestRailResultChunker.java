@@ -0,0 +1,114 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import com.applause.auto.testrail.client.models.testrail.AddTestResultForCaseDto;
+import com.applause.auto.testrail.client.models.testrail.AddTestResultsForCaseDto;
+import com.google.common.collect.ImmutableMap;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+
+/**
+ * Splits the results for a run into add_results_for_cases requests that stay below a result count
+ * and a serialized body size
+ */
+final class TestRailResultChunker {
+  /** The size of the {"results":[]} wrapper around the results */
+  private static final int ENVELOPE_BYTES = 14;
+
+  private final int maxResults;
+  private final long maxBytes;
+
+  /**
+   * @param maxResults The maximum number of results per request
+   * @param maxBytes The maximum serialized request body size. A single result larger than this is
+   *     sent on its own.
+   */
+  TestRailResultChunker(final int maxResults, final long maxBytes) {
+    if (maxResults < 1) {
+      throw new IllegalArgumentException("maxResults must be at least 1, was " + maxResults);
+    }
+    this.maxResults = maxResults;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * Splits the results into chunks, keeping their iteration order
+   *
+   * @param results A map of caseId to status and comment
+   * @return The chunks, each one a map of caseId to status and comment
+   */
+  List<Map<Long, TestRailStatusComment>> split(
+      @NonNull final Map<Long, TestRailStatusComment> results) {
+    final List<Map<Long, TestRailStatusComment>> chunks = new ArrayList<>();
+    var current = new LinkedHashMap<Long, TestRailStatusComment>();
+    long currentBytes = ENVELOPE_BYTES;
+    for (final var result : results.entrySet()) {
+      final long resultBytes = serializedSize(result.getKey(), result.getValue());
+      // every result after the first one is preceded by a comma
+      if (!current.isEmpty()
+          && (current.size() >= maxResults || currentBytes + 1 + resultBytes > maxBytes)) {
+        chunks.add(ImmutableMap.copyOf(current));
+        current = new LinkedHashMap<>();
+        currentBytes = ENVELOPE_BYTES;
+      }
+      currentBytes += (current.isEmpty() ? 0 : 1) + resultBytes;
+      current.put(result.getKey(), result.getValue());
+    }
+    if (!current.isEmpty()) {
+      chunks.add(ImmutableMap.copyOf(current));
+    }
+    return chunks;
+  }
+
+  /**
+   * Builds the add_results_for_cases request body for a chunk
+   *
+   * @param results A map of caseId to status and comment
+   * @return The request body
+   */
+  static AddTestResultsForCaseDto toRequest(
+      @NonNull final Map<Long, TestRailStatusComment> results) {
+    final AddTestResultsForCaseDto testResults = new AddTestResultsForCaseDto();
+    for (Map.Entry<Long, TestRailStatusComment> result : results.entrySet()) {
+      testResults.add(toResult(result.getKey(), result.getValue()));
+    }
+    return testResults;
+  }
+
+  private static AddTestResultForCaseDto toResult(
+      final long caseId, final TestRailStatusComment statusComment) {
+    return AddTestResultForCaseDto.builder()
+        .caseId(caseId)
+        .statusId(statusComment.statusId())
+        .comment(statusComment.comment())
+        .build();
+  }
+
+  private static long serializedSize(final long caseId, final TestRailStatusComment result) {
+    return TestRailClientFactory.gson
+        .toJson(toResult(caseId, result))
+        .getBytes(StandardCharsets.UTF_8)
+        .length;
+  }
+}
@@ -18,22 +18,19 @@
 package com.applause.auto.testrail.client;
 
 import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.jfr.TestRailUploadPhaseEvent;
 import com.applause.auto.testrail.client.models.internal.TestRailRunsAndInvalidCases;
 import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
 import com.applause.auto.testrail.client.models.internal.TestRailValidateRequest;
 import com.applause.auto.testrail.client.models.testrail.PlanDto;
-import com.applause.auto.testrail.client.models.testrail.TestCaseDto;
-import com.applause.auto.testrail.client.models.testrail.TestDto;
 import com.applause.auto.testrail.client.models.testrail.TestRunDto;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Table;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.AllArgsConstructor;
 import lombok.NonNull;
@@ -49,7 +46,9 @@ public class TestRailResultLogger {
   /**
    * Executes the requests against TestRail. This will set up or verify that all the objects on
    * TestRail side, so we can post the results. All the initialization should be performed in
-   * resultsToLogByRunNameAndCaseId.
+   * resultsToLogByRunNameAndCaseId. Results that were uploaded, and results for invalid case ids,
+   * are removed from the table, so that only the results still to be logged remain in it if this
+   * throws.
    *
    * @param resultsToLogByRunNameAndCaseId Multi-key map of Results by runName and caseId
    * @param validateRequest the object with params required for posting to testrail. project, suite,
@@ -66,20 +65,34 @@ public class TestRailResultLogger {
         validateRequest.suiteId(),
         validateRequest.planId(),
         validateRequest.planName());
-    List<TestCaseDto> testCases =
-        this.testRailClient.getTestCasesForSuite(
-            validateRequest.projectId(), validateRequest.suiteId());
-
     log.trace("Verifying TestRail setup.");
     // Verify that all the plans / runs are set up correctly on TestRail's end
     final var runsAndInvalidCases =
-        this.verifyAndInitializeSetup(testCases, resultsToLogByRunNameAndCaseId, validateRequest);
+        this.verifyAndInitializeSetup(resultsToLogByRunNameAndCaseId, validateRequest);
 
+    TestRailException firstError = null;
     for (final var runEntry : runsAndInvalidCases.getRunDtosByName().entrySet()) {
       String runEntryKey = runEntry.getKey();
       Long runEntryValueId = runEntry.getValue().getId();
-      this.testRailClient.addResults(
-          runEntryValueId, resultsToLogByRunNameAndCaseId.row(runEntryKey));
+      final var resultsToLog = resultsToLogByRunNameAndCaseId.row(runEntryKey);
+      final var chunks =
+          phase(
+              TestRailUploadPhaseEvent.ADD_RESULTS,
+              runEntryKey,
+              resultsToLog.size(),
+              () ->
+                  this.testRailClient.addResultsInChunks(
+                      runEntryValueId, ImmutableMap.copyOf(resultsToLog)));
+      for (final var chunk : chunks) {
+        if (chunk.isSuccessful()) {
+          resultsToLog.keySet().removeAll(chunk.results().keySet());
+        } else if (firstError == null) {
+          firstError = chunk.error();
+        }
+      }
+    }
+    if (firstError != null) {
+      throw firstError;
     }
 
     // Let the caller know if there were some case ids we filtered out
@@ -88,7 +101,6 @@ public class TestRailResultLogger {
   }
 
   private TestRailRunsAndInvalidCases verifyAndInitializeSetup(
-      @NonNull final List<TestCaseDto> testCases,
       @NonNull final Table<String, Long, TestRailStatusComment> resultsToLogByRunNameAndCaseId,
       @NonNull final TestRailValidateRequest validateRequest)
       throws TestRailException {
@@ -99,43 +111,114 @@ public class TestRailResultLogger {
             + validateRequest.projectId()
             + " and suite "
             + validateRequest.suiteId());
-    // Collect the set of all case ids in the suite, and all the ones we are trying to add
-    final var caseIdsForSuite =
-        testCases.stream().map(TestCaseDto::getId).collect(Collectors.toSet());
+    // Check the case ids we are trying to add against the cached case ids of the suite
     final var invalidCaseIds =
-        this.filterOutBadCaseIds(caseIdsForSuite, resultsToLogByRunNameAndCaseId);
+        phase(
+            TestRailUploadPhaseEvent.SUITE_FETCH,
+            null,
+            resultsToLogByRunNameAndCaseId.size(),
+            () -> this.filterOutBadCaseIds(validateRequest, resultsToLogByRunNameAndCaseId));
     runsAndInvalidCases.setInvalidCaseIds(invalidCaseIds);
 
     // Verify Plan
     final PlanDto planDto =
-        this.verifyOrCreatePlan(
-            validateRequest.projectId(), validateRequest.planId(), validateRequest.planName());
+        phase(
+            TestRailUploadPhaseEvent.PLAN_VERIFY,
+            null,
+            resultsToLogByRunNameAndCaseId.size(),
+            () ->
+                this.verifyOrCreatePlan(
+                    validateRequest.projectId(),
+                    validateRequest.planId(),
+                    validateRequest.planName()));
 
     final Map<String, TestRunDto> runDtosByName = new HashMap<>();
 
     // Each driver gets mapped to a different run.
     for (final String runName : resultsToLogByRunNameAndCaseId.rowKeySet()) {
       // Verify Runs
+      final int runResults = resultsToLogByRunNameAndCaseId.row(runName).size();
       final TestRunDto runDto =
-          this.verifyOrCreateRun(validateRequest, resultsToLogByRunNameAndCaseId, planDto, runName);
+          phase(
+              TestRailUploadPhaseEvent.RUN_VERIFY,
+              runName,
+              runResults,
+              () ->
+                  this.verifyOrCreateRun(
+                      validateRequest, resultsToLogByRunNameAndCaseId, planDto, runName));
       runDtosByName.put(runName, runDto);
 
       // Verify Case Ids
-      this.verifyCaseIdsAreSetupForRun(
-          resultsToLogByRunNameAndCaseId, planDto.getId(), runDto, runName);
+      phase(
+          TestRailUploadPhaseEvent.MEMBERSHIP_CHECK,
+          runName,
+          runResults,
+          () -> {
+            this.verifyCaseIdsAreSetupForRun(
+                resultsToLogByRunNameAndCaseId, planDto.getId(), runDto, runName);
+            return null;
+          });
     }
     runsAndInvalidCases.setRunDtosByName(runDtosByName);
     return runsAndInvalidCases;
   }
 
+  /**
+   * Runs one phase of the upload, recording it as a {@link TestRailUploadPhaseEvent} while Flight
+   * Recorder records those
+   *
+   * @param phase The phase, one of the {@link TestRailUploadPhaseEvent} constants
+   * @param runName The run the phase works on, or null if it covers all runs
+   * @param results The number of results the phase works on
+   * @param body The phase itself
+   * @return The result of the phase
+   * @param <T> The type of the result
+   * @throws TestRailException If the phase fails
+   */
+  private static <T> T phase(
+      @NonNull final String phase,
+      @Nullable final String runName,
+      final int results,
+      @NonNull final Phase<T> body)
+      throws TestRailException {
+    final var event = new TestRailUploadPhaseEvent();
+    if (!event.isEnabled()) {
+      return body.run();
+    }
+    event.begin();
+    boolean failed = true;
+    try {
+      final T result = body.run();
+      failed = false;
+      return result;
+    } finally {
+      event.end();
+      if (event.shouldCommit()) {
+        event.phase = phase;
+        event.run = runName;
+        event.results = results;
+        event.failed = failed;
+        event.commit();
+      }
+    }
+  }
+
+  /** One phase of the upload */
+  @FunctionalInterface
+  private interface Phase<T> {
+    T run() throws TestRailException;
+  }
+
   private Set<Long> filterOutBadCaseIds(
-      @NonNull final Set<Long> caseIdsForSuite,
-      @NonNull final Table<String, Long, TestRailStatusComment> resultsToLogByRunNameAndCaseId) {
+      @NonNull final TestRailValidateRequest validateRequest,
+      @NonNull final Table<String, Long, TestRailStatusComment> resultsToLogByRunNameAndCaseId)
+      throws TestRailException {
     final var requestedCaseIds = resultsToLogByRunNameAndCaseId.columnKeySet();
 
     // Get a list of all requested case ids that do not belong to the given suite
-    final var invalidCaseIds = new HashSet<>(requestedCaseIds);
-    invalidCaseIds.removeAll(caseIdsForSuite);
+    final var invalidCaseIds =
+        this.testRailClient.findUnknownTestCaseIds(
+            validateRequest.projectId(), validateRequest.suiteId(), requestedCaseIds);
 
     // If they are empty, we don't need to do anything else.
     if (invalidCaseIds.isEmpty()) {
@@ -241,33 +324,17 @@ public class TestRailResultLogger {
       throws TestRailException {
     log.trace("Verifying caseIds are setup for run " + runName);
 
-    // Fetch all the TestResults for the given run
-    final var testResults = this.testRailClient.getTestResultsForRun(testRunDto.getId(), null);
+    // Add the cases of the results to the run, unless they are already part of it (Ex. retries).
+    // The client keeps the cases other uploaders added to the run in the meantime.
     final var resultsToLog = resultsToLogByRunNameAndCaseId.row(runName);
-
-    // Get a list of all existing case ids in the results
-    Set<Long> existingCaseIds =
-        testResults.stream().map(TestDto::getCaseId).collect(Collectors.toSet());
-
-    // Compare this to the results we are trying to log. In some cases, we have already added
-    // a case id to the plan (Ex. retries)
-    Set<Long> newCaseIds = new HashSet<>(resultsToLog.keySet());
-    newCaseIds.removeAll(existingCaseIds);
-
-    // if test case isn't part of run (and so isn't part of plan entry either), add it to plan entry
-    if (!newCaseIds.isEmpty()) {
+    final Set<Long> addedCaseIds =
+        this.testRailClient.addCasesToRun(planId, testRunDto, resultsToLog.keySet());
+    if (!addedCaseIds.isEmpty()) {
       log.debug(
-          "couldn't find matching test case IDs "
-              + StringUtils.join(newCaseIds, ", ")
-              + " in run "
-              + testRunDto.getId()
-              + ". Adding test cases to run");
-
-      // Add back the existing caseIds, so we don't remove results
-      newCaseIds.addAll(existingCaseIds);
-
-      // call update endpoint with existing case ID's and new ones
-      this.testRailClient.updateExistingPlanEntry(planId, testRunDto.getEntryId(), newCaseIds);
+          "Added test case IDs "
+              + StringUtils.join(addedCaseIds, ", ")
+              + " to run "
+              + testRunDto.getId());
     }
   }
 }
@@ -18,38 +18,152 @@
 package com.applause.auto.testrail.client;
 
 import com.applause.auto.testrail.client.enums.TestResultStatus;
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
 import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
 import com.applause.auto.testrail.client.models.config.TestRailConfig;
 import com.applause.auto.testrail.client.models.config.TestRailConfigExtended;
 import com.applause.auto.testrail.client.models.config.TestRailStatusMaps;
 import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
 import com.applause.auto.testrail.client.models.internal.TestRailValidateRequest;
 import com.applause.auto.testrail.client.models.testrail.StatusDto;
+import com.applause.auto.testrail.client.spool.TestRailResultSpool;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Table;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.ref.Cleaner;
 import java.net.Proxy;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
-import lombok.AccessLevel;
-import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
 import okhttp3.OkHttpClient;
 
-/** Handles uploading result to TestRail */
-@AllArgsConstructor(access = AccessLevel.PRIVATE)
-public class TestRailResultUploader {
-  @NonNull private final TestRailConfigExtended testRailConfigExtended;
-  @NonNull private final ProjectConfiguration projectConfiguration;
-  @NonNull private final TestRailResultLogger testRailResultLogger;
+/**
+ * Handles uploading result to TestRail. An uploader should be closed once it is no longer needed.
+ * One that was not closed releases its resources once it is garbage collected.
+ */
+@Slf4j
+public class TestRailResultUploader implements Closeable {
+  private final TestRailConfigExtended testRailConfigExtended;
+  private final ProjectConfiguration projectConfiguration;
+  private final TestRailResultLogger testRailResultLogger;
   private final long testRailPlanId;
-  @NonNull private final TestRailParamValidator paramValidator;
+  private final TestRailParamValidator paramValidator;
+  @Nullable private final TestRailResultSpool spool;
+  private final Resources resources;
+  private final Cleaner.Cleanable cleanable;
+
+  /** Releases the resources of uploaders that were not closed */
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  /** The factories of the open uploaders, guarded by itself */
+  private static final Map<FactoryKey, SharedFactory> FACTORIES = new HashMap<>();
+
+  private record FactoryKey(Proxy proxy, TestRailClientOptions options) {}
+
+  /** A factory and the number of open uploaders using it */
+  private static final class SharedFactory {
+    private final TestRailClientFactory factory;
+    private int uploaders;
+
+    SharedFactory(final TestRailClientFactory factory) {
+      this.factory = factory;
+    }
+  }
+
+  /**
+   * The resources of an uploader, released when it is closed or garbage collected. Must not
+   * reference the uploader, or it never becomes unreachable.
+   */
+  private static final class Resources implements Runnable {
+    private final FactoryKey factoryKey;
+    @Nullable private final TestRailResultSpool spool;
+    private final Supplier<TestRailBatchingResultWriter> writerFactory;
+
+    // guarded by this
+    private TestRailBatchingResultWriter batchingWriter;
+    private boolean released;
+
+    Resources(
+        final FactoryKey factoryKey,
+        @Nullable final TestRailResultSpool spool,
+        final Supplier<TestRailBatchingResultWriter> writerFactory) {
+      this.factoryKey = factoryKey;
+      this.spool = spool;
+      this.writerFactory = writerFactory;
+    }
+
+    /** Gets the batching writer, starting it on first use */
+    synchronized TestRailBatchingResultWriter batchingWriter() {
+      if (released) {
+        throw new IllegalStateException("The TestRail result uploader has been closed");
+      }
+      if (batchingWriter == null) {
+        batchingWriter = writerFactory.get();
+      }
+      return batchingWriter;
+    }
+
+    /** Gets the batching writer, if it was started */
+    @Nullable
+    synchronized TestRailBatchingResultWriter startedBatchingWriter() {
+      return batchingWriter;
+    }
+
+    @Override
+    public void run() {
+      final TestRailBatchingResultWriter writer;
+      synchronized (this) {
+        released = true;
+        writer = batchingWriter;
+      }
+      try {
+        if (writer != null) {
+          writer.close();
+        }
+      } finally {
+        if (spool != null) {
+          try {
+            spool.close();
+          } catch (IOException e) {
+            log.warn("Could not close the TestRail result spool", e);
+          }
+        }
+        releaseFactory(factoryKey);
+      }
+    }
+  }
+
+  private TestRailResultUploader(
+      final TestRailConfigExtended testRailConfigExtended,
+      final ProjectConfiguration projectConfiguration,
+      final TestRailResultLogger testRailResultLogger,
+      final long testRailPlanId,
+      final TestRailParamValidator paramValidator,
+      @Nullable final TestRailResultSpool spool,
+      final Resources resources) {
+    this.testRailConfigExtended = testRailConfigExtended;
+    this.projectConfiguration = projectConfiguration;
+    this.testRailResultLogger = testRailResultLogger;
+    this.testRailPlanId = testRailPlanId;
+    this.paramValidator = paramValidator;
+    this.spool = spool;
+    this.resources = resources;
+    this.cleanable = CLEANER.register(this, resources);
+  }
 
   /**
    * @param testRailConfig mostly credentials
@@ -66,14 +180,48 @@ public class TestRailResultUploader {
       @NonNull final ProjectConfiguration projectConfiguration,
       @Nullable final Proxy proxyConfig)
       throws TestRailException {
-    var httpClient =
-        new OkHttpClient.Builder()
-            .proxy(proxyConfig != null ? proxyConfig : Proxy.NO_PROXY)
-            .build();
+    return initialize(
+        testRailConfig, projectConfiguration, proxyConfig, TestRailClientOptions.DEFAULTS);
+  }
 
+  /**
+   * @param testRailConfig mostly credentials
+   * @param projectConfiguration project specific configuration
+   * @param proxyConfig the SDK proxy config, see {@link #initialize(TestRailConfig,
+   *     ProjectConfiguration, Proxy)}
+   * @param clientOptions tuning options for the TestRail client, such as the virtual thread mode
+   * @return The TestRailResultUploader
+   * @throws TestRailException if initialization fails
+   */
+  public static TestRailResultUploader initialize(
+      @NonNull final TestRailConfig testRailConfig,
+      @NonNull final ProjectConfiguration projectConfiguration,
+      @Nullable final Proxy proxyConfig,
+      @NonNull final TestRailClientOptions clientOptions)
+      throws TestRailException {
+    // uploaders with the same proxy and options share a factory, so they share its connection pool
+    // and dispatcher instead of each opening their own connections
+    final var factoryKey =
+        new FactoryKey(proxyConfig != null ? proxyConfig : Proxy.NO_PROXY, clientOptions);
+    final var factory = acquireFactory(factoryKey);
+    try {
+      return initialize(testRailConfig, projectConfiguration, clientOptions, factoryKey, factory);
+    } catch (TestRailException | RuntimeException e) {
+      releaseFactory(factoryKey);
+      throw e;
+    }
+  }
+
+  private static TestRailResultUploader initialize(
+      final TestRailConfig testRailConfig,
+      final ProjectConfiguration projectConfiguration,
+      final TestRailClientOptions clientOptions,
+      final FactoryKey factoryKey,
+      final TestRailClientFactory factory)
+      throws TestRailException {
     // testrail statuses are ints in their API, but strings in the SDK config file. We need to map
     // them over
-    final var client = new TestRailClientFactory(httpClient).getTestRailClient(testRailConfig);
+    final var client = factory.getTestRailClient(testRailConfig);
     var statusesFromTestRail = client.getCustomStatuses();
     var testRailConfigExtended =
         testRailConfig.toExtended(
@@ -99,9 +247,110 @@ public class TestRailResultUploader {
                 null,
                 projectConfiguration.testRailPlanName())
             .getId();
+    var spool = openSpool(projectConfiguration, clientOptions);
+    // results submitted one by one are collected and uploaded in the background. The writer and
+    // its thread are only started by the first submitted result.
+    var resources =
+        new Resources(
+            factoryKey,
+            spool,
+            () ->
+                new TestRailBatchingResultWriter(
+                    resultLogger,
+                    new TestRailValidateRequest(
+                        projectConfiguration.testRailProjectId(),
+                        projectConfiguration.testRailSuiteId(),
+                        projectConfiguration.testRailPlanName(),
+                        testRailPlanId,
+                        projectConfiguration.addAllTestsToPlan()),
+                    clientOptions.getResultBatchSize(),
+                    clientOptions.getResultBatchMaxLatency(),
+                    spool,
+                    clientOptions.getRetryPolicy()));
     // make instance of this class
-    return new TestRailResultUploader(
-        testRailConfigExtended, projectConfiguration, resultLogger, testRailPlanId, paramValidator);
+    var uploader =
+        new TestRailResultUploader(
+            testRailConfigExtended,
+            projectConfiguration,
+            resultLogger,
+            testRailPlanId,
+            paramValidator,
+            spool,
+            resources);
+    // results a previous run could not upload are sent again
+    if (spool != null && !spool.pending().isEmpty()) {
+      resources.batchingWriter().resubmit(spool.pending());
+    }
+    return uploader;
+  }
+
+  /** Gets the factory for a proxy and options, creating it for the first open uploader */
+  private static TestRailClientFactory acquireFactory(final FactoryKey key) {
+    synchronized (FACTORIES) {
+      final var shared =
+          FACTORIES.computeIfAbsent(
+              key,
+              ignored ->
+                  new SharedFactory(
+                      new TestRailClientFactory(
+                          new OkHttpClient.Builder().proxy(key.proxy()).build(), key.options())));
+      shared.uploaders++;
+      return shared.factory;
+    }
+  }
+
+  /** Gets the number of factories kept for open uploaders */
+  @VisibleForTesting
+  static int sharedFactoryCount() {
+    synchronized (FACTORIES) {
+      return FACTORIES.size();
+    }
+  }
+
+  /** Releases a factory, shutting it down once no open uploader uses it anymore */
+  private static void releaseFactory(final FactoryKey key) {
+    final SharedFactory unused;
+    synchronized (FACTORIES) {
+      final var shared = FACTORIES.get(key);
+      if (shared == null || --shared.uploaders > 0) {
+        return;
+      }
+      unused = FACTORIES.remove(key);
+    }
+    unused.factory.shutdown();
+  }
+
+  /**
+   * Opens a result spool of the project, suite and plan, if a spool directory is configured
+   *
+   * @throws TestRailException if the spool cannot be opened
+   */
+  @Nullable
+  private static TestRailResultSpool openSpool(
+      final ProjectConfiguration projectConfiguration, final TestRailClientOptions clientOptions)
+      throws TestRailException {
+    final var spoolDirectory = clientOptions.getResultSpoolDirectory();
+    if (spoolDirectory == null) {
+      return null;
+    }
+    final var directory =
+        spoolDirectory.resolve(
+            "project-%d-suite-%d-%s"
+                .formatted(
+                    projectConfiguration.testRailProjectId(),
+                    projectConfiguration.testRailSuiteId(),
+                    projectConfiguration.testRailPlanName().replaceAll("[^A-Za-z0-9._-]", "_")));
+    try {
+      // uploaders for the same plan running at the same time each spool to their own slot
+      return TestRailResultSpool.openAvailable(
+          directory, clientOptions.getResultSpoolSegmentBytes());
+    } catch (IOException e) {
+      throw new TestRailException(
+              "Could not open the TestRail result spool in " + directory,
+              TestRailErrorStatus.UNKNOWN_ERROR,
+              e)
+          .setRetryable(false);
+    }
   }
 
   private static TestRailStatusMaps getTestRailStatusMaps(
@@ -194,14 +443,25 @@ public class TestRailResultUploader {
     // upload results
     final Table<String, Long, TestRailStatusComment> resultsToLogByRunNameAndCaseId =
         HashBasedTable.create();
-    resultsToUpload.forEach(
-        result ->
-            resultsToLogByRunNameAndCaseId.put(
-                projectConfiguration.testRailRunName(),
-                TestRailUtil.extractTestCaseId(result.testCaseId()),
-                new TestRailStatusComment(
-                    testRailConfigExtended.getStatusMaps().getStatusMap().get(result.status()),
-                    result.resultComment())));
+    final Map<Long, Long> spoolEntryIdsByCaseId = new HashMap<>();
+    for (final var result : resultsToUpload) {
+      final var caseId = TestRailUtil.extractTestCaseId(result.testCaseId());
+      final var statusComment =
+          new TestRailStatusComment(
+              testRailConfigExtended.getStatusMaps().getStatusMap().get(result.status()),
+              result.resultComment());
+      resultsToLogByRunNameAndCaseId.put(
+          projectConfiguration.testRailRunName(), caseId, statusComment);
+      if (spool != null) {
+        final var replaced =
+            spoolEntryIdsByCaseId.put(
+                caseId,
+                spool.append(projectConfiguration.testRailRunName(), caseId, statusComment));
+        if (replaced != null) {
+          spool.acknowledge(List.of(replaced));
+        }
+      }
+    }
 
     var validateRequest =
         new TestRailValidateRequest(
@@ -210,8 +470,69 @@ public class TestRailResultUploader {
             projectConfiguration.testRailPlanName(),
             testRailPlanId,
             projectConfiguration.addAllTestsToPlan());
-    return ImmutableSet.copyOf(
-        testRailResultLogger.execute(resultsToLogByRunNameAndCaseId, validateRequest));
+    if (spool == null) {
+      return ImmutableSet.copyOf(
+          testRailResultLogger.execute(resultsToLogByRunNameAndCaseId, validateRequest));
+    }
+    spool.sync();
+    try {
+      return ImmutableSet.copyOf(
+          testRailResultLogger.execute(resultsToLogByRunNameAndCaseId, validateRequest));
+    } finally {
+      // the logger removes the uploaded results, and those of invalid case IDs, from the table
+      spool.acknowledge(
+          spoolEntryIdsByCaseId.entrySet().stream()
+              .filter(
+                  entry ->
+                      !resultsToLogByRunNameAndCaseId.contains(
+                          projectConfiguration.testRailRunName(), entry.getKey()))
+              .map(Map.Entry::getValue)
+              .toList());
+    }
+  }
+
+  /**
+   * Queues a single test result for upload without waiting on TestRail. Queued results are uploaded
+   * in batches from a background thread, see {@link TestRailBatchingResultWriter}. A later result
+   * for the same case replaces an earlier one that was not uploaded yet. Results for cases that are
+   * not part of the suite are dropped with a warning.
+   *
+   * @param result The result to upload
+   * @throws TestRailException if the test case ID is malformed
+   */
+  public void submitResult(@NonNull final UploadResultDto result) throws TestRailException {
+    if (!TestRailUtil.validateTestRailCaseId(result.testCaseId())) {
+      throw new TestRailException(
+              "Test case ID " + result.testCaseId() + " is invalid", TestRailErrorStatus.CASE_ID)
+          .setRetryable(false);
+    }
+    resources
+        .batchingWriter()
+        .submit(
+            projectConfiguration.testRailRunName(),
+            TestRailUtil.extractTestCaseId(result.testCaseId()),
+            new TestRailStatusComment(
+                testRailConfigExtended.getStatusMaps().getStatusMap().get(result.status()),
+                result.resultComment()));
+  }
+
+  /** Uploads all results queued by {@link #submitResult} and waits for the upload to finish */
+  public void flushResults() {
+    final var batchingWriter = resources.startedBatchingWriter();
+    if (batchingWriter != null) {
+      batchingWriter.flush();
+    }
+  }
+
+  /**
+   * Uploads the results still queued by {@link #submitResult} and stops the background upload.
+   * Results that could not be uploaded stay in the spool, if one is configured, and are uploaded by
+   * the next uploader initialized for the same project, suite and plan. The connections shared with
+   * other uploaders are released once the last of them is closed.
+   */
+  @Override
+  public void close() {
+    cleanable.clean();
   }
 
   /**
@@ -0,0 +1,336 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.cache;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.testrail.TestCaseDto;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the IDs of the test cases in each TestRail suite, so that validating and uploading a batch
+ * of results does not download the whole suite every time. IDs that were recently confirmed to be
+ * missing from a suite are remembered as well, so repeated lookups of the same bad ID do not force
+ * a sync of the suite.
+ *
+ * <p>A suite is downloaded in full on first use and again once its TTL has passed. In between, it
+ * is kept up to date by fetching only the cases updated since the newest case seen so far, either
+ * when a lookup misses or periodically in the background.
+ */
+@Slf4j
+public class TestRailCaseIdCache {
+  /** Runs the background syncs of all caches; its thread only exists while syncs are scheduled */
+  private static final ScheduledExecutorService SYNC_SCHEDULER =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("testrail-case-sync-%d")
+              .setDaemon(true)
+              .build());
+
+  private final Loader loader;
+  private final long ttlNanos;
+  private final Ticker ticker;
+  private final Cache<SuiteKey, SuiteCatalog> catalogs;
+  private final Cache<UnknownCaseKey, Boolean> unknownCaseIds;
+  private final Striped<Lock> suiteLocks = Striped.lock(16);
+
+  /** Loads the test cases of a suite from TestRail */
+  @FunctionalInterface
+  public interface Loader {
+    /**
+     * Loads the test cases of a suite. Calls for the same suite never overlap.
+     *
+     * @param projectId The TestRail project ID
+     * @param suiteId The TestRail suite ID
+     * @param updatedAfter Only load the cases updated after this UNIX timestamp, or null for all
+     * @return The matching test cases
+     * @throws TestRailException If TestRail could not be queried
+     */
+    List<TestCaseDto> load(long projectId, long suiteId, @Nullable Long updatedAfter)
+        throws TestRailException;
+  }
+
+  /**
+   * Creates a new cache
+   *
+   * @param loader Loads the test cases of a suite
+   * @param ttl How long the case IDs of a suite are used before the suite is downloaded in full
+   *     again
+   * @param maxSuites The maximum number of suites to keep; the least recently used one is evicted
+   * @param unknownCaseIdTtl How long an ID that is missing from a suite is remembered
+   * @param maxUnknownCaseIds The maximum number of missing IDs to remember
+   * @param syncInterval How often the cached suites are synced in the background, or zero to only
+   *     sync on demand
+   */
+  public TestRailCaseIdCache(
+      @NonNull final Loader loader,
+      @NonNull final Duration ttl,
+      final long maxSuites,
+      @NonNull final Duration unknownCaseIdTtl,
+      final long maxUnknownCaseIds,
+      @NonNull final Duration syncInterval) {
+    this(loader, ttl, maxSuites, unknownCaseIdTtl, maxUnknownCaseIds, Ticker.systemTicker());
+    if (!syncInterval.isZero() && !syncInterval.isNegative()) {
+      scheduleSync(new WeakReference<>(this), syncInterval);
+    }
+  }
+
+  @VisibleForTesting
+  TestRailCaseIdCache(
+      @NonNull final Loader loader,
+      @NonNull final Duration ttl,
+      final long maxSuites,
+      @NonNull final Duration unknownCaseIdTtl,
+      final long maxUnknownCaseIds,
+      @NonNull final Ticker ticker) {
+    this.loader = loader;
+    this.ttlNanos = ttl.toNanos();
+    this.ticker = ticker;
+    this.catalogs = CacheBuilder.newBuilder().maximumSize(maxSuites).build();
+    this.unknownCaseIds =
+        CacheBuilder.newBuilder()
+            .expireAfterWrite(unknownCaseIdTtl)
+            .maximumSize(maxUnknownCaseIds)
+            .ticker(ticker)
+            .build();
+  }
+
+  /**
+   * Gets the IDs of all test cases in a suite, loading them if they are not cached
+   *
+   * @param projectId The TestRail project ID
+   * @param suiteId The TestRail suite ID
+   * @return The IDs of all test cases in the suite
+   * @throws TestRailException If the case IDs could not be loaded
+   */
+  public Set<Long> getCaseIds(final long projectId, final long suiteId) throws TestRailException {
+    return this.current(new SuiteKey(projectId, suiteId)).caseIds();
+  }
+
+  /**
+   * Finds the case IDs that do not belong to a suite. If an ID is missing from the cached copy of
+   * the suite and was not already known to be missing, the cases updated since the copy was taken
+   * are fetched once, since the case may have been added in the meantime. IDs that are still
+   * missing afterwards are remembered as unknown.
+   *
+   * @param projectId The TestRail project ID
+   * @param suiteId The TestRail suite ID
+   * @param caseIds The case IDs to check
+   * @return The subset of caseIds that are not part of the suite
+   * @throws TestRailException If the case IDs could not be loaded
+   */
+  public Set<Long> findUnknownCaseIds(
+      final long projectId, final long suiteId, @NonNull final Collection<Long> caseIds)
+      throws TestRailException {
+    final var key = new SuiteKey(projectId, suiteId);
+    final long lookupStarted = this.ticker.read();
+    var catalog = this.current(key);
+    final var missing = missingFrom(catalog.caseIds(), caseIds);
+    final boolean hasUnconfirmedMiss =
+        missing.stream()
+            .anyMatch(
+                caseId ->
+                    this.unknownCaseIds.getIfPresent(new UnknownCaseKey(key, caseId)) == null);
+    if (!hasUnconfirmedMiss) {
+      return missing;
+    }
+
+    if (catalog.syncedAtNanos() - lookupStarted < 0) {
+      log.debug(
+          "Syncing case IDs of project [ {} ] suite [ {} ] to confirm missing cases",
+          projectId,
+          suiteId);
+      catalog = this.sync(key, catalog);
+    }
+    final var confirmedMissing = missingFrom(catalog.caseIds(), caseIds);
+    for (final long caseId : caseIds) {
+      final var unknownKey = new UnknownCaseKey(key, caseId);
+      if (confirmedMissing.contains(caseId)) {
+        this.unknownCaseIds.put(unknownKey, Boolean.TRUE);
+      } else {
+        this.unknownCaseIds.invalidate(unknownKey);
+      }
+    }
+    return confirmedMissing;
+  }
+
+  /**
+   * Drops the cached case IDs of a suite, along with the IDs remembered as missing from it
+   *
+   * @param projectId The TestRail project ID
+   * @param suiteId The TestRail suite ID
+   */
+  public void invalidate(final long projectId, final long suiteId) {
+    final var key = new SuiteKey(projectId, suiteId);
+    this.catalogs.invalidate(key);
+    this.unknownCaseIds.asMap().keySet().removeIf(unknownKey -> unknownKey.suite().equals(key));
+  }
+
+  /** Brings every cached suite up to date, downloading the ones past their TTL in full */
+  @VisibleForTesting
+  void syncAll() {
+    for (final var entry : this.catalogs.asMap().entrySet()) {
+      final var key = entry.getKey();
+      try {
+        this.sync(key, entry.getValue());
+      } catch (TestRailException e) {
+        log.warn(
+            "Background sync of project [ {} ] suite [ {} ] failed",
+            key.projectId(),
+            key.suiteId(),
+            e);
+      }
+    }
+  }
+
+  /** Gets the catalog of a suite, downloading it in full if it is missing or past its TTL */
+  private SuiteCatalog current(final SuiteKey key) throws TestRailException {
+    final var cached = this.catalogs.getIfPresent(key);
+    if (cached != null && !this.isExpired(cached)) {
+      return cached;
+    }
+    final var lock = this.suiteLocks.get(key);
+    lock.lock();
+    try {
+      final var latest = this.catalogs.getIfPresent(key);
+      if (latest != null && !this.isExpired(latest)) {
+        return latest;
+      }
+      return this.fullScan(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Brings the catalog of a suite up to date. If another thread synced the suite since the given
+   * catalog was read, its result is used instead of asking TestRail again.
+   */
+  private SuiteCatalog sync(final SuiteKey key, final SuiteCatalog seen) throws TestRailException {
+    final var lock = this.suiteLocks.get(key);
+    lock.lock();
+    try {
+      final var latest = this.catalogs.getIfPresent(key);
+      if (latest == null || this.isExpired(latest)) {
+        return this.fullScan(key);
+      }
+      if (latest != seen) {
+        return latest;
+      }
+      // Overlap by a second, in case cases were updated within the second of the last sync
+      final var updated =
+          this.load(key, Math.max(0, latest.updatedThrough() - 1), latest.updatedThrough());
+      final var caseIds =
+          ImmutableSet.<Long>builder().addAll(latest.caseIds()).addAll(updated.caseIds()).build();
+      final var synced =
+          new SuiteCatalog(
+              caseIds, updated.updatedThrough(), latest.fullScanAtNanos(), this.ticker.read());
+      this.catalogs.put(key, synced);
+      return synced;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private SuiteCatalog fullScan(final SuiteKey key) throws TestRailException {
+    final var loaded = this.load(key, null, 0);
+    this.catalogs.put(key, loaded);
+    return loaded;
+  }
+
+  private SuiteCatalog load(
+      final SuiteKey key, @Nullable final Long updatedAfter, final long previousUpdatedThrough)
+      throws TestRailException {
+    final var testCases = this.loader.load(key.projectId(), key.suiteId(), updatedAfter);
+    long updatedThrough = previousUpdatedThrough;
+    final var caseIds = ImmutableSet.<Long>builderWithExpectedSize(testCases.size());
+    for (final var testCase : testCases) {
+      caseIds.add(testCase.getId());
+      updatedThrough = Math.max(updatedThrough, testCase.getUpdatedOn());
+    }
+    final long now = this.ticker.read();
+    return new SuiteCatalog(caseIds.build(), updatedThrough, now, now);
+  }
+
+  private boolean isExpired(final SuiteCatalog catalog) {
+    return this.ticker.read() - catalog.fullScanAtNanos() >= this.ttlNanos;
+  }
+
+  private static ImmutableSet<Long> missingFrom(
+      final Set<Long> knownCaseIds, final Collection<Long> caseIds) {
+    return caseIds.stream()
+        .filter(caseId -> !knownCaseIds.contains(caseId))
+        .collect(ImmutableSet.toImmutableSet());
+  }
+
+  /**
+   * Syncs the cache at a fixed delay. Only a weak reference is held, so a cache that is no longer
+   * used can be collected, after which its task cancels itself.
+   */
+  private static void scheduleSync(
+      final WeakReference<TestRailCaseIdCache> cacheRef, final Duration interval) {
+    final var scheduled = new AtomicReference<ScheduledFuture<?>>();
+    scheduled.set(
+        SYNC_SCHEDULER.scheduleWithFixedDelay(
+            () -> {
+              final var cache = cacheRef.get();
+              if (cache == null) {
+                scheduled.get().cancel(false);
+                return;
+              }
+              cache.syncAll();
+            },
+            interval.toNanos(),
+            interval.toNanos(),
+            TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * The known case IDs of a suite
+   *
+   * @param caseIds The IDs of the cases in the suite
+   * @param updatedThrough The newest updated_on timestamp among the loaded cases
+   * @param fullScanAtNanos When the suite was last downloaded in full, per the ticker
+   * @param syncedAtNanos When the suite was last brought up to date, per the ticker
+   */
+  private record SuiteCatalog(
+      ImmutableSet<Long> caseIds, long updatedThrough, long fullScanAtNanos, long syncedAtNanos) {}
+
+  private record SuiteKey(long projectId, long suiteId) {}
+
+  private record UnknownCaseKey(SuiteKey suite, long caseId) {}
+}
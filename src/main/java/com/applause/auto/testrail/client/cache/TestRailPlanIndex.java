@@ -0,0 +1,75 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Optional;
+import lombok.NonNull;
+
+/**
+ * Remembers the IDs of open test plans by project and name, so looking up a plan that was already
+ * found or created does not have to page through the plans of the project again
+ */
+public class TestRailPlanIndex {
+  private final Cache<PlanKey, Long> planIds;
+
+  /**
+   * Creates a new index
+   *
+   * @param ttl How long a plan ID is remembered
+   * @param maxSize The maximum number of plan IDs to remember
+   */
+  public TestRailPlanIndex(@NonNull final Duration ttl, final long maxSize) {
+    this.planIds = CacheBuilder.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build();
+  }
+
+  /**
+   * Looks up the ID of an open plan
+   *
+   * @param projectId The TestRail project ID
+   * @param planName The plan name
+   * @return The plan ID, if it is known
+   */
+  public Optional<Long> find(final long projectId, @NonNull final String planName) {
+    return Optional.ofNullable(this.planIds.getIfPresent(new PlanKey(projectId, planName)));
+  }
+
+  /**
+   * Remembers the ID of an open plan
+   *
+   * @param projectId The TestRail project ID
+   * @param planName The plan name
+   * @param planId The plan ID
+   */
+  public void put(final long projectId, @NonNull final String planName, final long planId) {
+    this.planIds.put(new PlanKey(projectId, planName), planId);
+  }
+
+  /**
+   * Forgets a plan, for example because it was completed
+   *
+   * @param planId The plan ID
+   */
+  public void invalidatePlan(final long planId) {
+    this.planIds.asMap().values().removeIf(indexedPlanId -> indexedPlanId == planId);
+  }
+
+  private record PlanKey(long projectId, String planName) {}
+}
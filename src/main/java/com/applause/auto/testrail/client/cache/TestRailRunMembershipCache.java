@@ -0,0 +1,185 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.cache;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Striped;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.Lock;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+
+/**
+ * Caches which test cases are part of each TestRail run, so checking whether a run needs new cases
+ * does not have to page through all tests of the run on every upload. The cache is seeded from
+ * get_tests and written through whenever a client changes the cases of a plan entry.
+ *
+ * <p>Caches are shared through {@link #shared(String, Duration, long)}, so all clients in the JVM
+ * talking to the same TestRail instance see each other's changes, and can serialize their updates
+ * of a plan entry with {@link #lockEntry(String)}.
+ */
+public class TestRailRunMembershipCache {
+  private static final Map<Settings, TestRailRunMembershipCache> SHARED = new ConcurrentHashMap<>();
+
+  private final Cache<Long, ImmutableSet<Long>> caseIdsByRun;
+  private final Cache<String, ImmutableSet<Long>> runIdsByEntry;
+  private final Striped<Lock> entryLocks = Striped.lock(64);
+
+  /** Loads the case IDs of a run from TestRail */
+  @FunctionalInterface
+  public interface Loader {
+    /**
+     * Loads the case IDs of a run
+     *
+     * @return The IDs of the cases in the run
+     * @throws TestRailException If TestRail could not be queried
+     */
+    Set<Long> load() throws TestRailException;
+  }
+
+  /**
+   * Creates a new cache
+   *
+   * @param ttl How long the membership of a run is trusted before it is loaded again
+   * @param maxRuns The maximum number of runs to keep
+   */
+  public TestRailRunMembershipCache(@NonNull final Duration ttl, final long maxRuns) {
+    this.caseIdsByRun =
+        CacheBuilder.newBuilder().expireAfterWrite(ttl).maximumSize(maxRuns).build();
+    this.runIdsByEntry =
+        CacheBuilder.newBuilder().expireAfterWrite(ttl).maximumSize(maxRuns).build();
+  }
+
+  /**
+   * Gets the cache shared by every client in the JVM for a TestRail instance
+   *
+   * @param instanceUrl The URL of the TestRail instance
+   * @param ttl How long the membership of a run is trusted before it is loaded again
+   * @param maxRuns The maximum number of runs to keep
+   * @return The shared cache
+   */
+  public static TestRailRunMembershipCache shared(
+      @NonNull final String instanceUrl, @NonNull final Duration ttl, final long maxRuns) {
+    return SHARED.computeIfAbsent(
+        new Settings(instanceUrl, ttl, maxRuns),
+        settings -> new TestRailRunMembershipCache(settings.ttl(), settings.maxRuns()));
+  }
+
+  /**
+   * Gets the lock guarding the changes of a plan entry. A client holds it while reading the cases
+   * of the entry and replacing them, so concurrent updates do not drop each other's cases.
+   *
+   * @param entryId The plan entry ID
+   * @return The lock of the entry
+   */
+  public Lock lockEntry(@NonNull final String entryId) {
+    return this.entryLocks.get(entryId);
+  }
+
+  /**
+   * Gets the case IDs of a run, loading them if they are not cached
+   *
+   * @param runId The TestRail run ID
+   * @param entryId The ID of the plan entry containing the run, if known
+   * @param loader Loads the case IDs on a cache miss
+   * @return The IDs of the cases in the run
+   * @throws TestRailException If the case IDs could not be loaded
+   */
+  public Set<Long> getCaseIds(
+      final long runId, @Nullable final String entryId, @NonNull final Loader loader)
+      throws TestRailException {
+    if (entryId != null) {
+      this.addRunToEntry(entryId, runId);
+    }
+    try {
+      return this.caseIdsByRun.get(runId, () -> ImmutableSet.copyOf(loader.load()));
+    } catch (ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof TestRailException testRailException) {
+        throw testRailException;
+      }
+      throw new TestRailException(
+          "Could not load the tests of run " + runId, TestRailErrorStatus.UNKNOWN_ERROR, e);
+    }
+  }
+
+  /**
+   * Records the cases of a run after they were read from TestRail
+   *
+   * @param runId The TestRail run ID
+   * @param caseIds The IDs of the cases in the run
+   */
+  public void putRun(final long runId, @NonNull final Collection<Long> caseIds) {
+    this.caseIdsByRun.put(runId, ImmutableSet.copyOf(caseIds));
+  }
+
+  /**
+   * Records the cases of a plan entry after they were set on TestRail. Every run of the entry holds
+   * exactly these cases afterwards.
+   *
+   * @param entryId The plan entry ID
+   * @param runIds The IDs of the runs in the plan entry
+   * @param caseIds The case IDs the plan entry was set up with
+   */
+  public void putEntry(
+      @NonNull final String entryId,
+      @NonNull final Collection<Long> runIds,
+      @NonNull final Collection<Long> caseIds) {
+    final var cases = ImmutableSet.copyOf(caseIds);
+    for (final long runId : runIds) {
+      this.caseIdsByRun.put(runId, cases);
+      this.addRunToEntry(entryId, runId);
+    }
+  }
+
+  /**
+   * Forgets the cases of every known run in a plan entry, so they are loaded from TestRail again
+   *
+   * @param entryId The plan entry ID
+   */
+  public void invalidateEntry(@NonNull final String entryId) {
+    final var runIds = this.runIdsByEntry.getIfPresent(entryId);
+    if (runIds != null) {
+      this.caseIdsByRun.invalidateAll(runIds);
+    }
+    this.runIdsByEntry.invalidate(entryId);
+  }
+
+  private record Settings(String instanceUrl, Duration ttl, long maxRuns) {}
+
+  private void addRunToEntry(final String entryId, final long runId) {
+    this.runIdsByEntry
+        .asMap()
+        .merge(
+            entryId,
+            ImmutableSet.of(runId),
+            (known, added) ->
+                known.contains(runId)
+                    ? known
+                    : ImmutableSet.<Long>builder().addAll(known).addAll(added).build());
+  }
+}
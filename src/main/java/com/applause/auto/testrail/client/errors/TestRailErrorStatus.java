@@ -58,4 +58,20 @@ public enum TestRailErrorStatus {
   TestRailErrorStatus(final String message) {
     this.message = message;
   }
+
+  /**
+   * Classifies an unsuccessful TestRail response by its status code
+   *
+   * @param statusCode The HTTP status code
+   * @return The error status
+   */
+  public static TestRailErrorStatus fromHttpStatus(final int statusCode) {
+    return switch (statusCode) {
+      case 401 -> AUTHENTICATION_FAILED;
+      case 404 -> INVALID_ROUTE;
+      case 409 -> MAINTENANCE;
+      case 429 -> HIT_RATE_LIMIT;
+      default -> UNKNOWN_ERROR;
+    };
+  }
 }
@@ -0,0 +1,46 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.errors;
+
+import lombok.NonNull;
+
+/**
+ * Wraps a TestRailException where a checked exception can't be thrown, such as while consuming a
+ * lazily fetched stream of TestRail results
+ */
+public class UncheckedTestRailException extends RuntimeException {
+
+  /**
+   * Wraps the given TestRailException
+   *
+   * @param cause The TestRailException
+   */
+  public UncheckedTestRailException(@NonNull final TestRailException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  /**
+   * Gets the wrapped TestRailException
+   *
+   * @return The wrapped TestRailException
+   */
+  @Override
+  public synchronized TestRailException getCause() {
+    return (TestRailException) super.getCause();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Predicate;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * OkHttp Interceptor that evicts cached TestRail responses that a write may have changed, like the
+ * cached get_plan/{plan_id} after an add_plan_entry/{plan_id}. Writes addressed by run ID, like
+ * update_run_in_plan_entry/{run_id}, don't name their plan, so they evict every cached get_plan.
+ * Entries are evicted whatever the outcome of the write, since a failed write may still have been
+ * applied.
+ */
+@AllArgsConstructor
+@Slf4j
+public class CacheInvalidationInterceptor implements Interceptor {
+  /** The cached read that each write endpoint changes, keyed by the name of the write */
+  private static final Map<String, String> READ_BY_WRITE =
+      ImmutableMap.<String, String>builder()
+          .put("update_plan", "get_plan")
+          .put("close_plan", "get_plan")
+          .put("delete_plan", "get_plan")
+          .put("add_plan_entry", "get_plan")
+          .put("update_plan_entry", "get_plan")
+          .put("delete_plan_entry", "get_plan")
+          .put("add_run_to_plan_entry", "get_plan")
+          .put("update_suite", "get_suite")
+          .put("delete_suite", "get_suite")
+          .put("update_project", "get_project")
+          .put("delete_project", "get_project")
+          .build();
+
+  /** The cached read that each write endpoint changes, for writes not addressed by its ID */
+  private static final Map<String, String> ALL_READS_BY_WRITE =
+      ImmutableMap.<String, String>builder()
+          .put("update_run_in_plan_entry", "get_plan")
+          .put("delete_run_from_plan_entry", "get_plan")
+          .build();
+
+  private final Cache cache;
+
+  /**
+   * Intercepts the okhttp request and evicts the cached reads it changes
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    if ("GET".equals(request.method())) {
+      return chain.proceed(request);
+    }
+    try {
+      return chain.proceed(request);
+    } finally {
+      final var endpoint = TestRailEndpoints.endpoint(request.url());
+      if (endpoint != null) {
+        final var name = TestRailEndpoints.endpointName(endpoint);
+        final var read = READ_BY_WRITE.get(name);
+        if (read != null) {
+          final var readEndpoint = "/" + read + "/" + firstParameter(endpoint);
+          this.evict(readEndpoint, url -> url.endsWith(readEndpoint));
+        }
+        final var everyRead = ALL_READS_BY_WRITE.get(name);
+        if (everyRead != null) {
+          final var readPrefix = "/" + everyRead + "/";
+          this.evict(readPrefix, url -> url.contains(readPrefix));
+        }
+      }
+    }
+  }
+
+  private void evict(final String readEndpoint, final Predicate<String> matches) {
+    try {
+      final var urls = cache.urls();
+      while (urls.hasNext()) {
+        final var url = urls.next();
+        if (matches.test(url)) {
+          log.trace("Evicting cached TestRail response {}", url);
+          urls.remove();
+        }
+      }
+    } catch (IOException e) {
+      log.warn("Could not evict the cached TestRail response {}", readEndpoint, e);
+    }
+  }
+
+  private static String firstParameter(final String endpoint) {
+    final var parameters = endpoint.split("/");
+    return parameters.length > 1 ? parameters[1] : "";
+  }
+}
@@ -0,0 +1,68 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.google.common.net.HttpHeaders;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * OkHttp network interceptor that makes successful responses of TestRail metadata endpoints
+ * cacheable. TestRail does not send cache headers, so the max age is set per endpoint.
+ */
+@AllArgsConstructor
+@Slf4j
+public class CacheMaxAgeInterceptor implements Interceptor {
+  /** The max age by endpoint name, like get_statuses */
+  @NonNull private final Map<String, Duration> maxAgeByEndpoint;
+
+  /**
+   * Intercepts the okhttp response and sets its cache headers
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    final var response = chain.proceed(request);
+    if (!"GET".equals(request.method()) || !response.isSuccessful()) {
+      return response;
+    }
+    final var endpoint = TestRailEndpoints.endpoint(request.url());
+    final var maxAge =
+        endpoint == null ? null : maxAgeByEndpoint.get(TestRailEndpoints.endpointName(endpoint));
+    if (maxAge == null) {
+      return response;
+    }
+    log.trace("Caching TestRail {} for {}", endpoint, maxAge);
+    return response
+        .newBuilder()
+        .header(HttpHeaders.CACHE_CONTROL, "private, max-age=" + maxAge.toSeconds())
+        .removeHeader(HttpHeaders.PRAGMA)
+        .removeHeader(HttpHeaders.EXPIRES)
+        .build();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.applause.auto.testrail.client.resilience.TestRailCircuitBreaker;
+import com.applause.auto.testrail.client.resilience.TestRailCircuitOpenException;
+import java.io.IOException;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp Interceptor that fails calls fast while the circuit of their TestRail host is open, and
+ * probes the host with get_statuses before letting calls through again. Calls that fail because
+ * they were cancelled are not counted as failures.
+ */
+@AllArgsConstructor
+@Slf4j
+public class CircuitBreakerInterceptor implements Interceptor {
+  /** 409 is how TestRail signals maintenance, the others are gateway and server outages */
+  private static final Set<Integer> UNAVAILABLE_STATUS_CODES = Set.of(409, 502, 503, 504);
+
+  private final TestRailCircuitBreaker circuitBreaker;
+
+  /**
+   * Intercepts the okhttp request and applies the circuit breaker of its host
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails, or the circuit is open
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    final var host = request.url().host();
+    switch (circuitBreaker.acquire(host)) {
+      case REJECTED -> throw new TestRailCircuitOpenException(host);
+      case PROBE -> {
+        try {
+          this.send(chain, probeRequest(request), host).close();
+        } finally {
+          // a probe that ended without an outcome must not leave the circuit half-open
+          circuitBreaker.releaseProbe(host);
+        }
+        if (circuitBreaker.getState(host) != TestRailCircuitBreaker.State.CLOSED) {
+          throw new TestRailCircuitOpenException(host);
+        }
+      }
+      case ALLOWED -> {}
+    }
+    return this.send(chain, request, host);
+  }
+
+  private Response send(final Chain chain, final Request request, final String host)
+      throws IOException {
+    final Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException e) {
+      // cancelled calls, like prefetched pages past the last one, say nothing about the host
+      if (!chain.call().isCanceled()) {
+        circuitBreaker.recordFailure(host);
+      }
+      throw e;
+    }
+    if (UNAVAILABLE_STATUS_CODES.contains(response.code())) {
+      circuitBreaker.recordFailure(host);
+    } else {
+      circuitBreaker.recordSuccess(host);
+    }
+    return response;
+  }
+
+  /** A cheap read that only succeeds when TestRail is serving the API again */
+  private static Request probeRequest(final Request request) {
+    log.debug("Probing TestRail at {} with get_statuses", request.url().host());
+    return request
+        .newBuilder()
+        .url(request.url().newBuilder().encodedPath("/get_statuses").query(null).build())
+        .get()
+        .build();
+  }
+}
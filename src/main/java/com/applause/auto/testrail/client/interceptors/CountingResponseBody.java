@@ -0,0 +1,87 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+import lombok.NonNull;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+/**
+ * Counts the bytes read from a response body, and reports them once, when the body is read to the
+ * end or closed
+ */
+final class CountingResponseBody extends ResponseBody {
+  private final ResponseBody delegate;
+  private final BufferedSource source;
+
+  CountingResponseBody(final ResponseBody delegate, final LongConsumer report) {
+    this.delegate = delegate;
+    this.source =
+        Okio.buffer(
+            new ForwardingSource(delegate.source()) {
+              private final AtomicBoolean reported = new AtomicBoolean();
+              private long bytesRead;
+
+              @Override
+              public long read(@NonNull final Buffer sink, final long byteCount)
+                  throws IOException {
+                final long read = super.read(sink, byteCount);
+                if (read < 0) {
+                  this.report();
+                } else {
+                  bytesRead += read;
+                }
+                return read;
+              }
+
+              @Override
+              public void close() throws IOException {
+                this.report();
+                super.close();
+              }
+
+              private void report() {
+                if (reported.compareAndSet(false, true)) {
+                  report.accept(bytesRead);
+                }
+              }
+            });
+  }
+
+  @Override
+  public MediaType contentType() {
+    return delegate.contentType();
+  }
+
+  @Override
+  public long contentLength() {
+    return delegate.contentLength();
+  }
+
+  @Override
+  public @NonNull BufferedSource source() {
+    return source;
+  }
+}
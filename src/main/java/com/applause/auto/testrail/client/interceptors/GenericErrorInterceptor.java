@@ -17,22 +17,49 @@
 */
 package com.applause.auto.testrail.client.interceptors;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableSet;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import okhttp3.Interceptor;
 import okhttp3.Request;
+import okhttp3.ResponseBody;
 import org.apache.commons.lang3.StringUtils;
 
-/** A Generic OkHttp error interceptor for the TestRail API */
+/**
+ * A Generic OkHttp error interceptor for the TestRail API. Error bodies are read once, up to a byte
+ * budget, and the buffered copy replaces the response body so later error handling doesn't read the
+ * connection again. Each status code is logged at most once per log interval, with the number of
+ * responses skipped since the previous log.
+ */
 @Slf4j
 public class GenericErrorInterceptor implements Interceptor {
-  private static final Long BYTES_TO_PEEK = 20_000L;
+  /** The default number of error body bytes kept */
+  public static final long DEFAULT_MAX_BODY_BYTES = 65_536L;
+
+  /** The default number of error body bytes logged */
+  public static final int DEFAULT_MAX_LOGGED_BYTES = 2_048;
+
+  /** The default minimum time between two logs of the same status code */
+  public static final Duration DEFAULT_LOG_INTERVAL = Duration.ofSeconds(10);
+
   private static final Set<Integer> DEFAULT_STATUS_CODES_TO_EXCLUDE = ImmutableSet.of();
 
   private final Set<Integer> excludedStatusCodes;
+  private final long maxBodyBytes;
+  private final int maxLoggedBytes;
+  private final long logIntervalNanos;
+  private final Ticker ticker;
+  private final Map<Integer, LogSample> samples = new ConcurrentHashMap<>();
 
   /** Set up a new Error Interceptor using the default status codes */
   public GenericErrorInterceptor() {
@@ -45,9 +72,43 @@ public class GenericErrorInterceptor implements Interceptor {
    * @param excludedStatusCodes - The interceptor will not log any status codes in the set
    */
   public GenericErrorInterceptor(final @NonNull Set<Integer> excludedStatusCodes) {
+    this(
+        excludedStatusCodes,
+        DEFAULT_MAX_BODY_BYTES,
+        DEFAULT_MAX_LOGGED_BYTES,
+        DEFAULT_LOG_INTERVAL);
+  }
+
+  /**
+   * Set up a new Error Interceptor with a byte budget and log sampling
+   *
+   * @param excludedStatusCodes - The interceptor will not log any status codes in the set
+   * @param maxBodyBytes - The error body bytes kept for logging and error handling
+   * @param maxLoggedBytes - The error body bytes written to the log
+   * @param logInterval - The minimum time between two logs of the same status code
+   */
+  public GenericErrorInterceptor(
+      final @NonNull Set<Integer> excludedStatusCodes,
+      final long maxBodyBytes,
+      final int maxLoggedBytes,
+      final @NonNull Duration logInterval) {
+    this(excludedStatusCodes, maxBodyBytes, maxLoggedBytes, logInterval, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  GenericErrorInterceptor(
+      final @NonNull Set<Integer> excludedStatusCodes,
+      final long maxBodyBytes,
+      final int maxLoggedBytes,
+      final @NonNull Duration logInterval,
+      final @NonNull Ticker ticker) {
     log.trace(
         "Excluding Error statuses from reporting: " + StringUtils.join(excludedStatusCodes, ","));
     this.excludedStatusCodes = excludedStatusCodes;
+    this.maxBodyBytes = maxBodyBytes;
+    this.maxLoggedBytes = maxLoggedBytes;
+    this.logIntervalNanos = logInterval.toNanos();
+    this.ticker = ticker;
   }
 
   @NonNull
@@ -58,19 +119,75 @@ public class GenericErrorInterceptor implements Interceptor {
 
     if (!response.isSuccessful()) {
       log.trace("Http response not successful.");
+      final var contentType = response.body() == null ? null : response.body().contentType();
+      final var buffered = bufferBody(response);
       final int responseCode = response.code();
       if (!excludedStatusCodes.contains(responseCode)) {
-        log.info(
-            "Failed call with response status: '{}' to host: '{}' with path: '{}' and response body '{}'",
-            responseCode,
-            request.url().url().getHost(),
-            request.url().url().getPath(),
-            response.peekBody(BYTES_TO_PEEK).string());
+        final int skipped = sample(responseCode);
+        if (skipped >= 0) {
+          log.info(
+              "Failed call with response status: '{}' to host: '{}' with path: '{}' and response body '{}'{}",
+              responseCode,
+              request.url().host(),
+              request.url().encodedPath(),
+              truncate(buffered),
+              skipped > 0 ? " (" + skipped + " more not logged)" : "");
+        }
       }
 
-      return response;
+      return response.newBuilder().body(ResponseBody.create(buffered, contentType)).build();
     }
 
     return response;
   }
+
+  /**
+   * Decides whether a failed response with this status is logged
+   *
+   * @param responseCode The status code of the response
+   * @return The number of responses with this status that weren't logged since the last log, or -1
+   *     if this one isn't logged either
+   */
+  @VisibleForTesting
+  int sample(final int responseCode) {
+    final long now = ticker.read();
+    final var sample = samples.computeIfAbsent(responseCode, code -> new LogSample(now));
+    final long next = sample.nextLogNanos.get();
+    if (now - next < 0 || !sample.nextLogNanos.compareAndSet(next, now + logIntervalNanos)) {
+      sample.skipped.incrementAndGet();
+      return -1;
+    }
+    return sample.skipped.getAndSet(0);
+  }
+
+  /** Reads the error body once, keeping at most maxBodyBytes */
+  private byte[] bufferBody(final okhttp3.Response response) throws IOException {
+    try (var body = response.body()) {
+      if (body == null) {
+        return new byte[0];
+      }
+      final var source = body.source();
+      source.request(maxBodyBytes);
+      return source.getBuffer().readByteArray(Math.min(source.getBuffer().size(), maxBodyBytes));
+    }
+  }
+
+  private String truncate(final byte[] body) {
+    if (body.length <= maxLoggedBytes) {
+      return new String(body, StandardCharsets.UTF_8);
+    }
+    return new String(body, 0, maxLoggedBytes, StandardCharsets.UTF_8)
+        + "... ["
+        + (body.length - maxLoggedBytes)
+        + " more bytes]";
+  }
+
+  private static final class LogSample {
+    private final AtomicLong nextLogNanos;
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private LogSample(final long firstLogNanos) {
+      this.nextLogNanos = new AtomicLong(firstLogNanos);
+    }
+  }
 }
@@ -0,0 +1,89 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.applause.auto.testrail.client.jfr.TestRailCallEvent;
+import java.io.IOException;
+import lombok.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp Interceptor that emits a {@link TestRailCallEvent} for every call while Flight Recorder
+ * records it. Otherwise, it only checks whether the event is enabled.
+ */
+public class JfrEventInterceptor implements Interceptor {
+
+  /**
+   * Intercepts the okhttp request and records it as a Flight Recorder event
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    final var event = new TestRailCallEvent();
+    if (!event.isEnabled()) {
+      return chain.proceed(request);
+    }
+    event.begin();
+    final Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException e) {
+      commit(event, request, -1, 0);
+      throw e;
+    }
+    final var body = response.body();
+    if (body == null) {
+      commit(event, request, response.code(), 0);
+      return response;
+    }
+    return response
+        .newBuilder()
+        .body(
+            new CountingResponseBody(body, bytes -> commit(event, request, response.code(), bytes)))
+        .build();
+  }
+
+  private static void commit(
+      final TestRailCallEvent event,
+      final Request request,
+      final int status,
+      final long responseBytes) {
+    event.end();
+    if (!event.shouldCommit()) {
+      return;
+    }
+    final var path = TestRailEndpoints.endpoint(request.url());
+    event.path = path;
+    event.endpoint = path == null ? null : TestRailEndpoints.endpointName(path);
+    event.method = request.method();
+    event.status = status;
+    try {
+      event.requestBytes = request.body() != null ? request.body().contentLength() : 0;
+    } catch (IOException e) {
+      event.requestBytes = -1;
+    }
+    event.responseBytes = responseBytes;
+    event.commit();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.metrics.TestRailCallMetrics;
+import com.applause.auto.testrail.client.metrics.TestRailMetricsListener;
+import com.applause.auto.testrail.client.resilience.TestRailCircuitOpenException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.function.LongConsumer;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * OkHttp Interceptor that reports every call to a metrics listener. It runs first, so the latency
+ * includes rate limiting and circuit breaker rejections, as callers see them. A call is reported
+ * once its response body is read to the end or closed, with the number of body bytes read. Calls
+ * cancelled before a response arrived are not reported.
+ */
+@AllArgsConstructor
+public class MetricsInterceptor implements Interceptor {
+  private final TestRailMetricsListener listener;
+
+  /**
+   * Intercepts the okhttp request and reports its metrics
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    final long requestBytes = request.body() != null ? request.body().contentLength() : 0;
+    final long start = System.nanoTime();
+    final Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException e) {
+      // cancelled calls, like prefetched pages past the last one, are not reported as errors
+      if (!chain.call().isCanceled()) {
+        listener.onCall(
+            metrics(request, -1, System.nanoTime() - start, requestBytes, 0, classify(e)));
+      }
+      throw e;
+    }
+    final long latency = System.nanoTime() - start;
+    final var error =
+        response.isSuccessful() ? null : TestRailErrorStatus.fromHttpStatus(response.code());
+    final LongConsumer report =
+        responseBytes ->
+            listener.onCall(
+                metrics(request, response.code(), latency, requestBytes, responseBytes, error));
+    final var body = response.body();
+    if (body == null) {
+      report.accept(0);
+      return response;
+    }
+    return response.newBuilder().body(new CountingResponseBody(body, report)).build();
+  }
+
+  private static TestRailCallMetrics metrics(
+      final Request request,
+      final int statusCode,
+      final long latencyNanos,
+      final long requestBytes,
+      final long responseBytes,
+      final TestRailErrorStatus error) {
+    final var endpoint = TestRailEndpoints.endpoint(request.url());
+    return new TestRailCallMetrics(
+        endpoint == null ? "" : TestRailEndpoints.endpointName(endpoint),
+        request.method(),
+        statusCode,
+        latencyNanos,
+        requestBytes,
+        responseBytes,
+        error);
+  }
+
+  /** Classifies a failed call the way the client does */
+  private static TestRailErrorStatus classify(final IOException e) {
+    if (e instanceof SocketTimeoutException) {
+      return TestRailErrorStatus.SOCKET_TIMEOUT;
+    }
+    if (e instanceof TestRailCircuitOpenException) {
+      return TestRailErrorStatus.MAINTENANCE;
+    }
+    return TestRailErrorStatus.UNKNOWN_ERROR;
+  }
+}
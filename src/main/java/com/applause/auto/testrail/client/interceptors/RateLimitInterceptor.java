@@ -0,0 +1,58 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.applause.auto.testrail.client.resilience.TestRailRateLimiter;
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.core.Response.Status;
+import java.io.IOException;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * OkHttp Interceptor that waits for the rate limiter of the TestRail host before sending a request,
+ * and pauses the host when TestRail answers with 429 Too Many Requests and a Retry-After header
+ */
+@AllArgsConstructor
+@Slf4j
+public class RateLimitInterceptor implements Interceptor {
+  private final TestRailRateLimiter rateLimiter;
+
+  /**
+   * Intercepts the okhttp request and applies the rate limit of its host
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var host = chain.request().url().host();
+    rateLimiter.acquire(host);
+    final var response = chain.proceed(chain.request());
+    if (response.code() == Status.TOO_MANY_REQUESTS.getStatusCode()) {
+      TestRailRateLimiter.parseRetryAfter(response.header(HttpHeaders.RETRY_AFTER), Instant.now())
+          .ifPresent(pause -> rateLimiter.pause(host, pause));
+    }
+    return response;
+  }
+}
@@ -0,0 +1,139 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.core.Response.Status;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+
+/**
+ * OkHttp Interceptor that gzips request bodies above a size threshold. The first compressed request
+ * to a host acts as a probe: if the host rejects it with 400 or 415, the request is sent again
+ * uncompressed and the host is no longer sent compressed bodies. A host that accepted a compressed
+ * body only falls back on 415 Unsupported Media Type, since a 400 from it is a real error.
+ */
+@Slf4j
+public class RequestCompressionInterceptor implements Interceptor {
+  /** Whether a host accepts gzip request bodies */
+  public enum Capability {
+    /** No compressed request has been sent to the host yet */
+    UNKNOWN,
+    /** The host accepted a compressed request */
+    SUPPORTED,
+    /** The host rejected a compressed request */
+    UNSUPPORTED
+  }
+
+  private static final String GZIP = "gzip";
+
+  private final long minBytes;
+  private final Map<String, Capability> capabilities = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new interceptor
+   *
+   * @param minBytes The smallest request body to compress
+   */
+  public RequestCompressionInterceptor(final long minBytes) {
+    this.minBytes = minBytes;
+  }
+
+  /**
+   * Gets what is known about the gzip support of a host
+   *
+   * @param host The TestRail host
+   * @return The capability of the host
+   */
+  public Capability getCapability(@NonNull final String host) {
+    return capabilities.getOrDefault(host, Capability.UNKNOWN);
+  }
+
+  /**
+   * Intercepts the okhttp request and compresses its body when it is large enough
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    final var body = request.body();
+    final var host = request.url().host();
+    final var capability = getCapability(host);
+    if (body == null
+        || capability == Capability.UNSUPPORTED
+        || request.header(HttpHeaders.CONTENT_ENCODING) != null
+        || body.contentLength() < minBytes) {
+      return chain.proceed(request);
+    }
+    final var compressed = gzip(body);
+    if (compressed.contentLength() >= body.contentLength()) {
+      return chain.proceed(request);
+    }
+    final var response =
+        chain.proceed(
+            request
+                .newBuilder()
+                .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                .method(request.method(), compressed)
+                .build());
+    if (response.isSuccessful()) {
+      capabilities.putIfAbsent(host, Capability.SUPPORTED);
+      return response;
+    }
+    if (!isRejection(response.code(), capability)) {
+      return response;
+    }
+    response.close();
+    final var fallback = chain.proceed(request);
+    if (!isRejection(fallback.code(), Capability.UNKNOWN)) {
+      log.info(
+          "TestRail host {} rejected a gzip request body with {}, sending uncompressed bodies",
+          host,
+          response.code());
+      capabilities.put(host, Capability.UNSUPPORTED);
+    }
+    return fallback;
+  }
+
+  private static boolean isRejection(final int code, final Capability capability) {
+    return code == Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode()
+        || code == Status.BAD_REQUEST.getStatusCode() && capability == Capability.UNKNOWN;
+  }
+
+  /** Compresses the body up front, so the request keeps a Content-Length */
+  private static RequestBody gzip(final RequestBody body) throws IOException {
+    final var buffer = new Buffer();
+    try (BufferedSink sink = Okio.buffer(new GzipSink(buffer))) {
+      body.writeTo(sink);
+    }
+    return RequestBody.create(buffer.readByteString(), body.contentType());
+  }
+}
@@ -0,0 +1,60 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import okhttp3.HttpUrl;
+
+/**
+ * Reads the TestRail endpoint from request URLs, before and after {@link
+ * TestRailRequestInterceptor} moved the path into the index.php?/api/v2/ query.
+ */
+public final class TestRailEndpoints {
+  private static final String API_PREFIX = TestRailRequestInterceptor.BASE_QUERY_PATH + '/';
+
+  private TestRailEndpoints() {}
+
+  /**
+   * Gets the TestRail endpoint of a URL, with its path parameters, like get_plan/12
+   *
+   * @param url The request URL
+   * @return The endpoint, or null if the URL is not a TestRail API URL
+   */
+  @Nullable
+  public static String endpoint(@NonNull final HttpUrl url) {
+    final var query = url.encodedQuery();
+    if (query != null && query.startsWith(API_PREFIX)) {
+      final int end = query.indexOf('&');
+      return query.substring(API_PREFIX.length(), end < 0 ? query.length() : end);
+    }
+    final var path = url.encodedPath();
+    return path.length() > 1 ? path.substring(1) : null;
+  }
+
+  /**
+   * Strips the path parameters off an endpoint
+   *
+   * @param endpoint The endpoint, like get_plan/12
+   * @return The endpoint name, like get_plan
+   */
+  public static String endpointName(@NonNull final String endpoint) {
+    final int slash = endpoint.indexOf('/');
+    return slash < 0 ? endpoint : endpoint.substring(0, slash);
+  }
+}
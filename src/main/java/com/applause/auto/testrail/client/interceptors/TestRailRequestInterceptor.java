@@ -0,0 +1,75 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import com.google.common.net.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import java.io.IOException;
+import lombok.NonNull;
+import okhttp3.Credentials;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+/**
+ * OkHttp Interceptor that does the work of {@link HeadersInterceptor} and {@link UrlInterceptor} in
+ * one request rebuild. The authorization header is encoded once, when the interceptor is created,
+ * instead of on every request.
+ */
+public class TestRailRequestInterceptor implements Interceptor {
+  private static final String BASE_PATH = "/index.php";
+  static final String BASE_QUERY_PATH = "/api/v2";
+
+  private final String authorization;
+
+  /**
+   * Creates a new interceptor for a TestRail user
+   *
+   * @param userName The TestRail user email
+   * @param apiKey The TestRail api key
+   */
+  public TestRailRequestInterceptor(@NonNull final String userName, @NonNull final String apiKey) {
+    this.authorization = Credentials.basic(userName, apiKey);
+  }
+
+  /**
+   * Intercepts the okhttp request, adds common headers and moves the path into the query, as the
+   * TestRail api expects
+   *
+   * @param chain The Http Chain
+   * @return The response
+   * @throws IOException If I/O Fails
+   */
+  @Override
+  public @NonNull Response intercept(final Chain chain) throws IOException {
+    final var request = chain.request();
+    final var url = request.url();
+    final var query = url.encodedQuery();
+    final var routedQuery =
+        query == null
+            ? BASE_QUERY_PATH + url.encodedPath()
+            : BASE_QUERY_PATH + url.encodedPath() + '&' + query;
+    return chain.proceed(
+        request
+            .newBuilder()
+            .url(url.newBuilder().encodedPath(BASE_PATH).query(routedQuery).build())
+            .addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON)
+            .addHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON)
+            .addHeader(HttpHeaders.AUTHORIZATION, authorization)
+            .build());
+  }
+}
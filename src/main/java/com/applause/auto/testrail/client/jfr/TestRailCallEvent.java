@@ -0,0 +1,60 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Flight Recorder event for one HTTP call to TestRail, until its response body is consumed */
+@Name("com.applause.testrail.ApiCall")
+@Label("TestRail API Call")
+@Category({"Applause", "TestRail"})
+@Description("An HTTP call to the TestRail API, until its response body was read or closed")
+@StackTrace(false)
+public final class TestRailCallEvent extends Event {
+  /** The endpoint name, like get_cases */
+  @Label("Endpoint")
+  public String endpoint;
+
+  /** The endpoint with its path parameters, like get_cases/1 */
+  @Label("Path")
+  public String path;
+
+  /** The HTTP method */
+  @Label("Method")
+  public String method;
+
+  /** The HTTP status code, or -1 if no response was received */
+  @Label("Status")
+  public int status;
+
+  /** The size of the request body, or -1 if unknown */
+  @Label("Request Bytes")
+  @DataAmount
+  public long requestBytes;
+
+  /** The number of response body bytes read */
+  @Label("Response Bytes")
+  @DataAmount
+  public long responseBytes;
+}
@@ -0,0 +1,52 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Flight Recorder event for one page of a paginated TestRail endpoint, from the moment the client
+ * starts waiting for it until it was handled. Prefetched pages can arrive before the wait begins.
+ */
+@Name("com.applause.testrail.Page")
+@Label("TestRail Page")
+@Category({"Applause", "TestRail"})
+@Description("Waiting for and handling one page of a paginated TestRail endpoint")
+@StackTrace(false)
+public final class TestRailPageEvent extends Event {
+  /** The endpoint with its path parameters, like get_cases/1 */
+  @Label("Path")
+  public String path;
+
+  /** The offset of the page */
+  @Label("Offset")
+  public int offset;
+
+  /** The number of items in the page */
+  @Label("Items")
+  public int items;
+
+  /** The number of page requests still in flight when the page was taken */
+  @Label("Prefetched Pages")
+  public int prefetched;
+}
@@ -0,0 +1,64 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A Flight Recorder event for one phase of uploading results to TestRail */
+@Name("com.applause.testrail.UploadPhase")
+@Label("TestRail Upload Phase")
+@Category({"Applause", "TestRail"})
+@Description("One phase of uploading a batch of results to TestRail")
+@StackTrace(false)
+public final class TestRailUploadPhaseEvent extends Event {
+  /** Checking the case ids against the cases of the suite */
+  public static final String SUITE_FETCH = "suite fetch";
+
+  /** Finding or creating the plan */
+  public static final String PLAN_VERIFY = "plan verify";
+
+  /** Finding or creating the run */
+  public static final String RUN_VERIFY = "run verify";
+
+  /** Adding missing cases to the run */
+  public static final String MEMBERSHIP_CHECK = "membership check";
+
+  /** Uploading the results */
+  public static final String ADD_RESULTS = "addResults";
+
+  /** The phase, one of the constants of this class */
+  @Label("Phase")
+  public String phase;
+
+  /** The run the phase works on, or null for phases covering all runs */
+  @Label("Run")
+  public String run;
+
+  /** The number of results the phase works on */
+  @Label("Results")
+  public int results;
+
+  /** Whether the phase threw */
+  @Label("Failed")
+  public boolean failed;
+}
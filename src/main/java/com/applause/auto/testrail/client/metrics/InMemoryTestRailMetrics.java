@@ -0,0 +1,86 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.NonNull;
+
+/**
+ * A metrics listener that keeps counters and latency histograms per endpoint in memory. Call {@link
+ * #snapshot()} to read them, for example from a scheduled exporter.
+ */
+public class InMemoryTestRailMetrics implements TestRailMetricsListener {
+  private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> retries = new ConcurrentHashMap<>();
+
+  @Override
+  public void onCall(@NonNull final TestRailCallMetrics call) {
+    final var metrics = endpoints.computeIfAbsent(call.endpoint(), e -> new EndpointMetrics());
+    metrics.calls.increment();
+    metrics.latency.record(call.latencyNanos());
+    metrics.requestBytes.add(Math.max(0, call.requestBytes()));
+    metrics.responseBytes.add(call.responseBytes());
+    if (call.error() != null) {
+      metrics.errors.computeIfAbsent(call.error(), e -> new LongAdder()).increment();
+    }
+  }
+
+  @Override
+  public void onRetry(@NonNull final String operation, final int attempt) {
+    retries.computeIfAbsent(operation, o -> new LongAdder()).increment();
+  }
+
+  /**
+   * Copies the current metrics
+   *
+   * @return The snapshot
+   */
+  public TestRailMetricsSnapshot snapshot() {
+    final var endpointSnapshots = ImmutableMap.<String, TestRailMetricsSnapshot.Endpoint>builder();
+    endpoints.forEach(
+        (endpoint, metrics) ->
+            endpointSnapshots.put(
+                endpoint,
+                new TestRailMetricsSnapshot.Endpoint(
+                    metrics.calls.sum(),
+                    metrics.requestBytes.sum(),
+                    metrics.responseBytes.sum(),
+                    metrics.errors.entrySet().stream()
+                        .collect(
+                            ImmutableMap.toImmutableMap(
+                                Map.Entry::getKey, entry -> entry.getValue().sum())),
+                    metrics.latency.snapshot())));
+    return new TestRailMetricsSnapshot(
+        endpointSnapshots.build(),
+        retries.entrySet().stream()
+            .collect(
+                ImmutableMap.toImmutableMap(Map.Entry::getKey, entry -> entry.getValue().sum())));
+  }
+
+  private static final class EndpointMetrics {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    private final Map<TestRailErrorStatus, LongAdder> errors = new ConcurrentHashMap<>();
+    private final TestRailLatencyHistogram latency = new TestRailLatencyHistogram();
+  }
+}
@@ -0,0 +1,41 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import javax.annotation.Nullable;
+
+/**
+ * One HTTP call to TestRail, as seen by the client
+ *
+ * @param endpoint The endpoint name without its parameters, like get_cases
+ * @param method The HTTP method
+ * @param statusCode The HTTP status code, or -1 if no response was received
+ * @param latencyNanos The time until the response headers arrived, or the call failed
+ * @param requestBytes The size of the request body before compression, or -1 if unknown
+ * @param responseBytes The number of response body bytes read by the client
+ * @param error How the client classifies a failed call, or null if it succeeded
+ */
+public record TestRailCallMetrics(
+    String endpoint,
+    String method,
+    int statusCode,
+    long latencyNanos,
+    long requestBytes,
+    long responseBytes,
+    @Nullable TestRailErrorStatus error) {}
@@ -0,0 +1,93 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import java.time.Instant;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The network timeline of one HTTP call to TestRail. Time not covered by a span was spent in the
+ * client itself, like waiting for the rate limiter or a free connection.
+ *
+ * @param endpoint The endpoint with its path parameters, like get_cases/1
+ * @param method The HTTP method
+ * @param start When the call started
+ * @param durationNanos The time from the start of the call until it ended or failed
+ * @param spans The network phases of the call, in the order they started
+ * @param connectionReused Whether the call ran on a pooled connection, skipping DNS, connect and
+ *     TLS
+ * @param protocol The protocol of the connection, like h2, or null if none was acquired
+ * @param requestBytes The request body bytes sent
+ * @param responseBytes The response body bytes received
+ * @param error Why the call failed, or null if it completed
+ */
+public record TestRailCallTimeline(
+    String endpoint,
+    String method,
+    Instant start,
+    long durationNanos,
+    List<Span> spans,
+    boolean connectionReused,
+    @Nullable String protocol,
+    long requestBytes,
+    long responseBytes,
+    @Nullable String error) {
+
+  /** A network phase of a call */
+  public enum Phase {
+    /** Selecting the proxy for the URL */
+    PROXY_SELECT,
+    /** Resolving the host name */
+    DNS,
+    /** Opening the TCP connection, including the proxy tunnel and TLS */
+    CONNECT,
+    /** The TLS handshake */
+    TLS,
+    /** Writing the request headers */
+    REQUEST_HEADERS,
+    /** Writing the request body */
+    REQUEST_BODY,
+    /** Waiting for the server, from the end of the request until the response headers arrive */
+    SERVER_WAIT,
+    /** Reading the response headers */
+    RESPONSE_HEADERS,
+    /** Reading the response body */
+    RESPONSE_BODY
+  }
+
+  /**
+   * A network phase of a call
+   *
+   * @param phase The phase
+   * @param offsetNanos When the phase started, relative to the start of the call
+   * @param durationNanos How long the phase took
+   */
+  public record Span(Phase phase, long offsetNanos, long durationNanos) {}
+
+  /**
+   * Gets the total time spent in a phase. A phase can occur more than once, like when a call
+   * follows a redirect or retries on a new connection.
+   *
+   * @param phase The phase
+   * @return The sum of the durations of its spans
+   */
+  public long nanosIn(final Phase phase) {
+    return spans.stream().filter(s -> s.phase() == phase).mapToLong(Span::durationNanos).sum();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free latency histogram in the style of HdrHistogram. Values are counted in log-linear
+ * buckets: exact below 32, and 32 buckets per power of two above, which keeps every recorded value
+ * within about 3% of the value reported for it. Recording is a few atomic increments, so it can run
+ * on every call.
+ */
+public final class TestRailLatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder total = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a value. Negative values are recorded as zero.
+   *
+   * @param value The value, usually a latency in nanoseconds
+   */
+  public void record(final long value) {
+    final long clamped = Math.max(0, value);
+    counts.incrementAndGet(bucketOf(clamped));
+    total.increment();
+    sum.add(clamped);
+    max.accumulateAndGet(clamped, Math::max);
+  }
+
+  /**
+   * Copies the recorded values. Values recorded while the copy is taken may be left out.
+   *
+   * @return The snapshot
+   */
+  public Snapshot snapshot() {
+    final long[] copy = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      copy[i] = counts.get(i);
+    }
+    return new Snapshot(copy, total.sum(), sum.sum(), max.get());
+  }
+
+  static int bucketOf(final long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int shift = exponent - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  /** The highest value that falls in the bucket */
+  static long highestValueIn(final int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    final int shift = bucket / SUB_BUCKETS - 1;
+    final long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+
+  /** The values of a histogram at one point in time */
+  public static final class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    private Snapshot(final long[] counts, final long count, final long sum, final long max) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    /**
+     * @return The number of recorded values
+     */
+    public long getCount() {
+      return count;
+    }
+
+    /**
+     * @return The largest recorded value
+     */
+    public long getMax() {
+      return max;
+    }
+
+    /**
+     * @return The mean of the recorded values, or zero without values
+     */
+    public double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Gets the value below which the given share of the recorded values fall
+     *
+     * @param percentile The percentile, from 0 to 100
+     * @return The value, or zero without values
+     */
+    public long getValueAtPercentile(final double percentile) {
+      long recorded = 0;
+      for (final long bucketCount : counts) {
+        recorded += bucketCount;
+      }
+      if (recorded == 0) {
+        return 0;
+      }
+      final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * recorded));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank) {
+          return Math.min(highestValueIn(i), max);
+        }
+      }
+      return max;
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import lombok.NonNull;
+
+/**
+ * Receives the metrics of the TestRail clients created by a TestRailClientFactory. Implementations
+ * are called on the threads making the calls, so they must be thread safe and return quickly. See
+ * {@link InMemoryTestRailMetrics} for an implementation that can be exported to any monitoring
+ * system.
+ */
+public interface TestRailMetricsListener {
+  /** A listener that ignores all metrics */
+  TestRailMetricsListener NOOP = new TestRailMetricsListener() {};
+
+  /**
+   * Called when an HTTP call completes, once its response body is consumed or closed
+   *
+   * @param call The call
+   */
+  default void onCall(@NonNull final TestRailCallMetrics call) {}
+
+  /**
+   * Called before a client operation is attempted again by the retry policy
+   *
+   * @param operation The client operation, like getPlan
+   * @param attempt The number of the attempt about to be made, starting at 2
+   */
+  default void onRetry(@NonNull final String operation, final int attempt) {}
+}
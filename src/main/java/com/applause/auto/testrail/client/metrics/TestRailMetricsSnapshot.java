@@ -0,0 +1,47 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import java.util.Map;
+
+/**
+ * The metrics of {@link InMemoryTestRailMetrics} at one point in time
+ *
+ * @param endpoints The metrics of each endpoint, like get_cases, by endpoint name
+ * @param retriesByOperation The number of retries of each client operation, like getPlan
+ */
+public record TestRailMetricsSnapshot(
+    Map<String, Endpoint> endpoints, Map<String, Long> retriesByOperation) {
+
+  /**
+   * The metrics of one endpoint
+   *
+   * @param calls The number of calls
+   * @param requestBytes The request body bytes sent, before compression
+   * @param responseBytes The response body bytes read
+   * @param errors The number of failed calls by how the client classifies them
+   * @param latency The latency of the calls in nanoseconds
+   */
+  public record Endpoint(
+      long calls,
+      long requestBytes,
+      long responseBytes,
+      Map<TestRailErrorStatus, Long> errors,
+      TestRailLatencyHistogram.Snapshot latency) {}
+}
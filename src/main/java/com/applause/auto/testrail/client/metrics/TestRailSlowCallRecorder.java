@@ -0,0 +1,293 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import com.applause.auto.testrail.client.interceptors.TestRailEndpoints;
+import com.applause.auto.testrail.client.metrics.TestRailCallTimeline.Phase;
+import com.applause.auto.testrail.client.metrics.TestRailCallTimeline.Span;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Times the network phases of every HTTP call, like DNS, connect, TLS, waiting on the server and
+ * the body transfer, and keeps the timelines of the calls slower than a threshold. The last
+ * capacity slow calls are kept in a ring buffer and can be read at any time.
+ */
+public final class TestRailSlowCallRecorder implements EventListener.Factory {
+  private final long thresholdNanos;
+  private final TestRailCallTimeline[] slowCalls;
+  private long slowCallCount;
+
+  /**
+   * Creates a new recorder
+   *
+   * @param threshold Calls taking at least this long are kept
+   * @param capacity The number of slow calls kept. Older ones are dropped.
+   */
+  public TestRailSlowCallRecorder(@NonNull final Duration threshold, final int capacity) {
+    if (threshold.isNegative()) {
+      throw new IllegalArgumentException("Slow call threshold must not be negative");
+    }
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Slow call capacity must be positive, was " + capacity);
+    }
+    this.thresholdNanos = threshold.toNanos();
+    this.slowCalls = new TestRailCallTimeline[capacity];
+  }
+
+  @Override
+  public @NonNull EventListener create(@NonNull final Call call) {
+    return new Timer();
+  }
+
+  /**
+   * Gets the slow calls still in the ring buffer
+   *
+   * @return The slow calls, oldest first
+   */
+  public synchronized List<TestRailCallTimeline> getSlowCalls() {
+    final int size = (int) Math.min(slowCallCount, slowCalls.length);
+    final List<TestRailCallTimeline> calls = new ArrayList<>(size);
+    for (long i = slowCallCount - size; i < slowCallCount; i++) {
+      calls.add(slowCalls[(int) (i % slowCalls.length)]);
+    }
+    return calls;
+  }
+
+  /**
+   * Gets the number of slow calls seen so far, including the ones dropped from the ring buffer
+   *
+   * @return The number of slow calls
+   */
+  public synchronized long getSlowCallCount() {
+    return slowCallCount;
+  }
+
+  private synchronized void add(final TestRailCallTimeline timeline) {
+    slowCalls[(int) (slowCallCount++ % slowCalls.length)] = timeline;
+  }
+
+  /** Times the phases of one call. OkHttp reports the events of a call one after another. */
+  private final class Timer extends EventListener {
+    private final Map<Phase, Long> started = new EnumMap<>(Phase.class);
+    private final List<Span> spans = new ArrayList<>();
+    private Instant start;
+    private long startNanos;
+    private long requestEndNanos = -1;
+    private boolean connected;
+    @Nullable private Protocol protocol;
+    private long requestBytes;
+    private long responseBytes;
+
+    @Override
+    public void callStart(@NonNull final Call call) {
+      start = Instant.now();
+      startNanos = System.nanoTime();
+    }
+
+    @Override
+    public void proxySelectStart(@NonNull final Call call, @NonNull final HttpUrl url) {
+      begin(Phase.PROXY_SELECT);
+    }
+
+    @Override
+    public void proxySelectEnd(
+        @NonNull final Call call, @NonNull final HttpUrl url, @NonNull final List<Proxy> proxies) {
+      end(Phase.PROXY_SELECT);
+    }
+
+    @Override
+    public void dnsStart(@NonNull final Call call, @NonNull final String domainName) {
+      begin(Phase.DNS);
+    }
+
+    @Override
+    public void dnsEnd(
+        @NonNull final Call call,
+        @NonNull final String domainName,
+        @NonNull final List<InetAddress> addresses) {
+      end(Phase.DNS);
+    }
+
+    @Override
+    public void connectStart(
+        @NonNull final Call call,
+        @NonNull final InetSocketAddress address,
+        @NonNull final Proxy proxy) {
+      connected = true;
+      begin(Phase.CONNECT);
+    }
+
+    @Override
+    public void secureConnectStart(@NonNull final Call call) {
+      begin(Phase.TLS);
+    }
+
+    @Override
+    public void secureConnectEnd(@NonNull final Call call, @Nullable final Handshake handshake) {
+      end(Phase.TLS);
+    }
+
+    @Override
+    public void connectEnd(
+        @NonNull final Call call,
+        @NonNull final InetSocketAddress address,
+        @NonNull final Proxy proxy,
+        @Nullable final Protocol protocol) {
+      end(Phase.CONNECT);
+    }
+
+    @Override
+    public void connectFailed(
+        @NonNull final Call call,
+        @NonNull final InetSocketAddress address,
+        @NonNull final Proxy proxy,
+        @Nullable final Protocol protocol,
+        @NonNull final IOException ioe) {
+      end(Phase.TLS);
+      end(Phase.CONNECT);
+    }
+
+    @Override
+    public void connectionAcquired(@NonNull final Call call, @NonNull final Connection connection) {
+      protocol = connection.protocol();
+    }
+
+    @Override
+    public void requestHeadersStart(@NonNull final Call call) {
+      begin(Phase.REQUEST_HEADERS);
+    }
+
+    @Override
+    public void requestHeadersEnd(@NonNull final Call call, @NonNull final Request request) {
+      requestEndNanos = end(Phase.REQUEST_HEADERS);
+    }
+
+    @Override
+    public void requestBodyStart(@NonNull final Call call) {
+      begin(Phase.REQUEST_BODY);
+    }
+
+    @Override
+    public void requestBodyEnd(@NonNull final Call call, final long byteCount) {
+      requestEndNanos = end(Phase.REQUEST_BODY);
+      requestBytes += byteCount;
+    }
+
+    @Override
+    public void requestFailed(@NonNull final Call call, @NonNull final IOException ioe) {
+      end(Phase.REQUEST_HEADERS);
+      end(Phase.REQUEST_BODY);
+    }
+
+    @Override
+    public void responseHeadersStart(@NonNull final Call call) {
+      final long now = System.nanoTime();
+      if (requestEndNanos >= 0) {
+        spans.add(new Span(Phase.SERVER_WAIT, requestEndNanos - startNanos, now - requestEndNanos));
+        requestEndNanos = -1;
+      }
+      started.put(Phase.RESPONSE_HEADERS, now);
+    }
+
+    @Override
+    public void responseHeadersEnd(@NonNull final Call call, @NonNull final Response response) {
+      end(Phase.RESPONSE_HEADERS);
+    }
+
+    @Override
+    public void responseBodyStart(@NonNull final Call call) {
+      begin(Phase.RESPONSE_BODY);
+    }
+
+    @Override
+    public void responseBodyEnd(@NonNull final Call call, final long byteCount) {
+      end(Phase.RESPONSE_BODY);
+      responseBytes += byteCount;
+    }
+
+    @Override
+    public void responseFailed(@NonNull final Call call, @NonNull final IOException ioe) {
+      end(Phase.RESPONSE_HEADERS);
+      end(Phase.RESPONSE_BODY);
+    }
+
+    @Override
+    public void callEnd(@NonNull final Call call) {
+      finish(call, null);
+    }
+
+    @Override
+    public void callFailed(@NonNull final Call call, @NonNull final IOException ioe) {
+      finish(call, ioe.toString());
+    }
+
+    private void begin(final Phase phase) {
+      started.put(phase, System.nanoTime());
+    }
+
+    /** Ends a phase, if it was started. Returns the current time. */
+    private long end(final Phase phase) {
+      final long now = System.nanoTime();
+      final Long phaseStart = started.remove(phase);
+      if (phaseStart != null) {
+        spans.add(new Span(phase, phaseStart - startNanos, now - phaseStart));
+      }
+      return now;
+    }
+
+    private void finish(final Call call, @Nullable final String error) {
+      final long durationNanos = System.nanoTime() - startNanos;
+      if (start == null || durationNanos < thresholdNanos) {
+        return;
+      }
+      final var request = call.request();
+      add(
+          new TestRailCallTimeline(
+              TestRailEndpoints.endpoint(request.url()),
+              request.method(),
+              start,
+              durationNanos,
+              spans.stream().sorted(Comparator.comparingLong(Span::offsetNanos)).toList(),
+              protocol != null && !connected,
+              protocol == null ? null : protocol.toString(),
+              requestBytes,
+              responseBytes,
+              error));
+    }
+  }
+}
@@ -0,0 +1,237 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.models.config;
+
+import com.applause.auto.testrail.client.interceptors.GenericErrorInterceptor;
+import com.applause.auto.testrail.client.metrics.InMemoryTestRailMetrics;
+import com.applause.auto.testrail.client.metrics.TestRailMetricsListener;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NonNull;
+
+/** Tuning options for the TestRail clients created by the TestRailClientFactory */
+@Data
+@Builder(toBuilder = true)
+public class TestRailClientOptions {
+  /** The options used when none are provided */
+  public static final TestRailClientOptions DEFAULTS = TestRailClientOptions.builder().build();
+
+  /**
+   * The number of page requests kept in flight while reading a paginated endpoint. A value of 1
+   * fetches the pages one after another.
+   */
+  @Builder.Default private final int pagePrefetchWindow = 4;
+
+  /**
+   * Runs the HTTP calls, response callbacks and pagination work of the client on virtual threads
+   * instead of a pool of platform threads. Blocking callers then no longer tie up a platform thread
+   * per in-flight request. Virtual threads need Java 21 or newer; on older runtimes the client logs
+   * a warning and keeps using platform threads.
+   */
+  @Builder.Default private final boolean virtualThreads = false;
+
+  /**
+   * How long the case IDs of a suite are used before the whole suite is downloaded again. Between
+   * full downloads only the cases updated since the last sync are fetched, but deleted cases are
+   * only noticed by a full download.
+   */
+  @Builder.Default @NonNull private final Duration caseIdCacheTtl = Duration.ofMinutes(10);
+
+  /**
+   * How often the cached case IDs are brought up to date in the background, so new cases are seen
+   * without waiting for a lookup to miss. Suites past their TTL are downloaded again ahead of the
+   * next lookup. Zero disables the background sync.
+   */
+  @Builder.Default @NonNull private final Duration caseIdSyncInterval = Duration.ZERO;
+
+  /** The maximum number of suites whose case IDs are cached at once */
+  @Builder.Default private final long caseIdCacheMaxSuites = 32;
+
+  /**
+   * How long a case ID that was confirmed to be missing from a suite is remembered. Until it
+   * expires, results for that ID are rejected without asking TestRail again.
+   */
+  @Builder.Default @NonNull private final Duration unknownCaseIdTtl = Duration.ofMinutes(5);
+
+  /** The maximum number of missing case IDs that are remembered */
+  @Builder.Default private final long unknownCaseIdCacheMaxSize = 10_000;
+
+  /**
+   * Only plans created within this period are considered when looking up an existing plan by name.
+   * Zero considers plans of any age.
+   */
+  @Builder.Default @NonNull private final Duration planLookupMaxAge = Duration.ZERO;
+
+  /** How long the ID of a plan found by name is reused before the plans are searched again */
+  @Builder.Default @NonNull private final Duration planIndexTtl = Duration.ofMinutes(10);
+
+  /** The maximum number of plan IDs remembered by name */
+  @Builder.Default private final long planIndexMaxSize = 1_000;
+
+  /**
+   * How long the known cases of a run are trusted before its tests are fetched again. Changes made
+   * through the client are applied to the cached cases right away.
+   */
+  @Builder.Default @NonNull private final Duration runMembershipCacheTtl = Duration.ofMinutes(10);
+
+  /** The maximum number of runs whose cases are cached */
+  @Builder.Default private final long runMembershipCacheMaxRuns = 256;
+
+  /**
+   * The number of results submitted through {@code TestRailResultUploader.submitResult} that
+   * triggers an upload
+   */
+  @Builder.Default private final int resultBatchSize = 100;
+
+  /** The longest time a submitted result waits before it is uploaded */
+  @Builder.Default @NonNull private final Duration resultBatchMaxLatency = Duration.ofSeconds(5);
+
+  /** The maximum number of results sent in a single add_results_for_cases request */
+  @Builder.Default private final int resultChunkMaxResults = 250;
+
+  /**
+   * The maximum serialized size, in bytes, of a single add_results_for_cases request. A single
+   * result larger than this is sent on its own.
+   */
+  @Builder.Default private final long resultChunkMaxBytes = 524_288;
+
+  /** The maximum number of add_results_for_cases requests in flight for one run */
+  @Builder.Default private final int resultUploadConcurrency = 4;
+
+  /**
+   * The number of requests per minute sent to a TestRail host, shared by every client in the JVM
+   * with the same rate limit settings. Zero sends requests without a limit, but still pauses a host
+   * that answers with a Retry-After header.
+   */
+  @Builder.Default private final int requestsPerMinute = 0;
+
+  /** The number of requests that may be sent at once to a TestRail host that was idle */
+  @Builder.Default private final int requestBurst = 10;
+
+  /** The longest pause applied to a TestRail host for a single Retry-After header */
+  @Builder.Default @NonNull private final Duration maxRetryAfter = Duration.ofMinutes(5);
+
+  /**
+   * How the synchronous client retries calls that failed for a transient reason. Calls are not
+   * retried by default.
+   */
+  @Builder.Default @NonNull
+  private final TestRailRetryPolicy retryPolicy = TestRailRetryPolicy.DISABLED;
+
+  /**
+   * The number of consecutive maintenance responses, server errors or I/O failures after which
+   * calls to a TestRail host fail fast. Zero never stops sending calls.
+   */
+  @Builder.Default private final int circuitBreakerFailureThreshold = 0;
+
+  /** How long calls to an unavailable TestRail host fail fast before it is probed again */
+  @Builder.Default @NonNull
+  private final Duration circuitBreakerOpenDuration = Duration.ofSeconds(30);
+
+  /**
+   * The directory in which {@code TestRailResultUploader} spools results until TestRail accepted
+   * them. Uploaders running at the same time each use their own spool in it. Results left over by a
+   * previous run are uploaded on the next initialize, which fails if the spool cannot be opened.
+   * Null keeps the results in memory only.
+   */
+  @Nullable private final Path resultSpoolDirectory;
+
+  /** The size after which the result spool starts a new segment file */
+  @Builder.Default private final long resultSpoolSegmentBytes = 4 * 1024 * 1024;
+
+  /**
+   * Lets concurrent callers of the same read, like get_plan for the same plan, share one request
+   * and its response instead of each sending their own. The callers get the same response objects,
+   * which must not be modified.
+   */
+  @Builder.Default private final boolean coalesceConcurrentReads = true;
+
+  /**
+   * The directory of the HTTP cache for TestRail metadata reads, shared by every client in the JVM
+   * using it. Each TestRail URL and user gets its own subdirectory. The cache does not support
+   * being used by several processes at once, so each process needs a directory of its own. Null
+   * disables the cache.
+   */
+  @Nullable private final Path httpCacheDirectory;
+
+  /** The maximum size of the HTTP cache of each TestRail URL and user */
+  @Builder.Default private final long httpCacheMaxBytes = 50L * 1024 * 1024;
+
+  /**
+   * How long the responses of each read endpoint are cached. Writes through the client evict the
+   * cached reads they change, like get_plan after add_plan_entry.
+   */
+  @Builder.Default @NonNull
+  private final Map<String, Duration> httpCacheMaxAges =
+      Map.of(
+          "get_statuses", Duration.ofHours(1),
+          "get_project", Duration.ofMinutes(10),
+          "get_suite", Duration.ofMinutes(10),
+          "get_plan", Duration.ofMinutes(1));
+
+  /** The connection pool, dispatcher, timeout and protocol settings of the HTTP clients */
+  @Builder.Default @NonNull
+  private final TestRailHttpOptions httpOptions = TestRailHttpOptions.DEFAULTS;
+
+  /**
+   * Request bodies of at least this many bytes, like large add_results_for_cases uploads, are sent
+   * gzip compressed. Hosts that reject compressed bodies are sent uncompressed ones from then on.
+   * Zero disables compression.
+   */
+  @Builder.Default private final long requestCompressionMinBytes = 0;
+
+  /**
+   * The bytes of an error response body that are read. The rest is dropped, so large error pages
+   * aren't copied around during rate limit or maintenance storms.
+   */
+  @Builder.Default
+  private final long errorBodyMaxBytes = GenericErrorInterceptor.DEFAULT_MAX_BODY_BYTES;
+
+  /** The bytes of an error response body that are logged */
+  @Builder.Default
+  private final int errorLogMaxBytes = GenericErrorInterceptor.DEFAULT_MAX_LOGGED_BYTES;
+
+  /**
+   * The minimum time between two logs of failed responses with the same status code. Zero logs
+   * every failed response.
+   */
+  @Builder.Default @NonNull
+  private final Duration errorLogInterval = GenericErrorInterceptor.DEFAULT_LOG_INTERVAL;
+
+  /**
+   * Receives per-endpoint call counts, latencies, bytes and errors, and retries. Use {@link
+   * InMemoryTestRailMetrics} to collect them in memory for export.
+   */
+  @Builder.Default @NonNull
+  private final TestRailMetricsListener metricsListener = TestRailMetricsListener.NOOP;
+
+  /**
+   * Times the network phases of every call, and keeps the timelines of calls taking at least this
+   * long for {@link com.applause.auto.testrail.client.TestRailClientFactory#getSlowCallRecorder}.
+   * Null disables the timing. The timing replaces any event listener of the base OkHttp client.
+   */
+  @Nullable private final Duration slowCallThreshold;
+
+  /** The number of slow call timelines kept. Older ones are dropped. */
+  @Builder.Default private final int slowCallCapacity = 64;
+}
@@ -0,0 +1,80 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.models.config;
+
+import java.time.Duration;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Connection settings applied to every HTTP client created by the TestRailClientFactory. All the
+ * clients of a factory share one dispatcher and connection pool. Settings left null keep the value
+ * of the base OkHttp client, so the defaults change nothing about it.
+ */
+@Data
+@Builder(toBuilder = true)
+public class TestRailHttpOptions {
+  /** The options used when none are provided */
+  public static final TestRailHttpOptions DEFAULTS = TestRailHttpOptions.builder().build();
+
+  /** The maximum number of requests in flight across all TestRail hosts */
+  @Nullable private final Integer maxRequests;
+
+  /**
+   * The maximum number of requests in flight to a single TestRail host. Further requests are queued
+   * by the dispatcher.
+   */
+  @Nullable private final Integer maxRequestsPerHost;
+
+  /**
+   * The maximum number of idle connections kept open. Setting it, or the keep alive, gives the
+   * clients a connection pool of their own, using the OkHttp default for the other one.
+   */
+  @Nullable private final Integer maxIdleConnections;
+
+  /** How long an idle connection is kept open */
+  @Nullable private final Duration keepAlive;
+
+  /** The timeout for opening a connection */
+  @Nullable private final Duration connectTimeout;
+
+  /** The timeout between two reads of a response */
+  @Nullable private final Duration readTimeout;
+
+  /** The timeout between two writes of a request */
+  @Nullable private final Duration writeTimeout;
+
+  /** The timeout of a whole call, including redirects and retries by OkHttp */
+  @Nullable private final Duration callTimeout;
+
+  /**
+   * True negotiates HTTP/2 with TestRail hosts that support it, so concurrent requests share a
+   * single connection. False only uses HTTP/1.1.
+   */
+  @Nullable private final Boolean http2;
+
+  /**
+   * The number of TLS sessions kept for resumption, so new connections skip the full handshake.
+   * Zero keeps the settings of the platform.
+   */
+  @Builder.Default private final int tlsSessionCacheSize = 0;
+
+  /** How long a TLS session can be resumed. Null keeps the setting of the platform. */
+  @Nullable private final Duration tlsSessionTimeout;
+}
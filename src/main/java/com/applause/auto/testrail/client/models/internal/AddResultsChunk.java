@@ -0,0 +1,46 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.models.internal;
+
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.testrail.TestResultDto;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+
+/**
+ * The outcome of uploading one chunk of results with add_results_for_cases. A failed chunk can be
+ * uploaded again on its own, without resending the chunks that succeeded.
+ *
+ * @param results The results in the chunk, by case id
+ * @param createdResults The results created by TestRail, or null if the upload failed
+ * @param error Why the upload failed, or null if it succeeded
+ */
+public record AddResultsChunk(
+    @NonNull Map<Long, TestRailStatusComment> results,
+    @Nullable List<TestResultDto> createdResults,
+    @Nullable TestRailException error) {
+
+  /**
+   * @return true if TestRail accepted the chunk
+   */
+  public boolean isSuccessful() {
+    return error == null;
+  }
+}
@@ -29,4 +29,11 @@ import java.util.List;
  * @param cases The list of testcases
  */
 public record PaginatedBulkCaseDto(
-    int offset, int limit, int size, PaginatedLinkDto _links, List<TestCaseDto> cases) {}
+    int offset, int limit, int size, PaginatedLinkDto _links, List<TestCaseDto> cases)
+    implements PaginatedBulkDto<TestCaseDto> {
+
+  @Override
+  public List<TestCaseDto> items() {
+    return cases;
+  }
+}
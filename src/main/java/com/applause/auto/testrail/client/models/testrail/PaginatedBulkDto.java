@@ -0,0 +1,49 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.models.testrail;
+
+import java.util.List;
+
+/**
+ * A single page of results returned by one of the paginated TestRail endpoints
+ *
+ * @param <T> The type of the items in the page
+ */
+public interface PaginatedBulkDto<T> {
+
+  /**
+   * Gets the number of items in this page
+   *
+   * @return The size of the page
+   */
+  int size();
+
+  /**
+   * Gets the pagination links for this page
+   *
+   * @return The pagination links
+   */
+  PaginatedLinkDto _links();
+
+  /**
+   * Gets the items in this page
+   *
+   * @return The items in this page
+   */
+  List<T> items();
+}
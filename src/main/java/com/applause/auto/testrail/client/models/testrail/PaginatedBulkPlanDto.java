@@ -29,4 +29,11 @@ import java.util.List;
  * @param plans The list of test plans
  */
 public record PaginatedBulkPlanDto(
-    int offset, int limit, int size, PaginatedLinkDto _links, List<PlanDto> plans) {}
+    int offset, int limit, int size, PaginatedLinkDto _links, List<PlanDto> plans)
+    implements PaginatedBulkDto<PlanDto> {
+
+  @Override
+  public List<PlanDto> items() {
+    return plans;
+  }
+}
@@ -29,4 +29,11 @@ import java.util.List;
  * @param tests The tests in this page
  */
 public record PaginatedBulkTestDto(
-    int offset, int limit, int size, PaginatedLinkDto _links, List<TestDto> tests) {}
+    int offset, int limit, int size, PaginatedLinkDto _links, List<TestDto> tests)
+    implements PaginatedBulkDto<TestDto> {
+
+  @Override
+  public List<TestDto> items() {
+    return tests;
+  }
+}
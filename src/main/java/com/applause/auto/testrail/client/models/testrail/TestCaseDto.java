@@ -26,4 +26,10 @@ public class TestCaseDto {
 
   /** The title of the test case */
   private String title;
+
+  /** When the test case was created, as a UNIX timestamp */
+  private long createdOn;
+
+  /** When the test case was last updated, as a UNIX timestamp */
+  private long updatedOn;
 }
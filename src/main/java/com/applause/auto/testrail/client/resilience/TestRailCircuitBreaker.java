@@ -0,0 +1,257 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tracks the health of TestRail hosts. After a number of consecutive failures the circuit of a host
+ * opens and calls to it fail fast. Once the open period is over, a single probe call is let through
+ * (half-open). The circuit closes when the probe succeeds, and opens again when it fails.
+ */
+@Slf4j
+public class TestRailCircuitBreaker {
+  private final int failureThreshold;
+  private final long openNanos;
+  private final Ticker ticker;
+  private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+  /** The states of the circuit of a host */
+  public enum State {
+    /** Calls are sent normally */
+    CLOSED,
+    /** Calls fail fast */
+    OPEN,
+    /** A probe call is in flight, other calls fail fast */
+    HALF_OPEN
+  }
+
+  /** Notified when the circuit of a host changes its state */
+  @FunctionalInterface
+  public interface Listener {
+    /**
+     * Called after the circuit of a host changed its state
+     *
+     * @param host The TestRail host
+     * @param from The previous state
+     * @param to The new state
+     */
+    void onStateChange(@NonNull String host, @NonNull State from, @NonNull State to);
+  }
+
+  /** What a caller may do with its call */
+  public enum Permit {
+    /** Send the call */
+    ALLOWED,
+    /** Send a probe before the call, and report its outcome */
+    PROBE,
+    /** Fail the call without sending it */
+    REJECTED
+  }
+
+  /**
+   * Creates a new circuit breaker
+   *
+   * @param failureThreshold The number of consecutive failures that opens the circuit of a host.
+   *     Zero or less never opens it.
+   * @param openDuration How long a circuit stays open before a probe is sent
+   */
+  public TestRailCircuitBreaker(final int failureThreshold, @NonNull final Duration openDuration) {
+    this(failureThreshold, openDuration, Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  TestRailCircuitBreaker(
+      final int failureThreshold,
+      @NonNull final Duration openDuration,
+      @NonNull final Ticker ticker) {
+    this.failureThreshold = failureThreshold;
+    this.openNanos = openDuration.toNanos();
+    this.ticker = ticker;
+  }
+
+  /**
+   * @return false if the circuits never open
+   */
+  public boolean isEnabled() {
+    return failureThreshold > 0;
+  }
+
+  /**
+   * Registers a listener for state changes
+   *
+   * @param listener The listener
+   */
+  public void addListener(@NonNull final Listener listener) {
+    this.listeners.add(listener);
+  }
+
+  /**
+   * Gets the state of the circuit of a host
+   *
+   * @param host The TestRail host
+   * @return The state
+   */
+  public State getState(@NonNull final String host) {
+    final var circuit = this.circuits.get(host);
+    return circuit == null ? State.CLOSED : circuit.state();
+  }
+
+  /**
+   * Decides whether a call to the host may be sent
+   *
+   * @param host The TestRail host
+   * @return The permit for the call
+   */
+  public Permit acquire(@NonNull final String host) {
+    if (!isEnabled()) {
+      return Permit.ALLOWED;
+    }
+    return this.circuit(host).acquire(ticker.read());
+  }
+
+  /**
+   * Records a successful call, or a successful probe
+   *
+   * @param host The TestRail host
+   */
+  public void recordSuccess(@NonNull final String host) {
+    if (isEnabled()) {
+      this.circuit(host).recordSuccess();
+    }
+  }
+
+  /**
+   * Records a call, or probe, that failed because TestRail is unavailable
+   *
+   * @param host The TestRail host
+   */
+  public void recordFailure(@NonNull final String host) {
+    if (isEnabled()) {
+      this.circuit(host).recordFailure(ticker.read());
+    }
+  }
+
+  /**
+   * Ends a probe that completed without an outcome, for example because its call was cancelled. The
+   * circuit opens again, and the next call sends another probe. Does nothing unless a probe is in
+   * flight.
+   *
+   * @param host The TestRail host
+   */
+  public void releaseProbe(@NonNull final String host) {
+    if (isEnabled()) {
+      this.circuit(host).releaseProbe();
+    }
+  }
+
+  private HostCircuit circuit(final String host) {
+    return this.circuits.computeIfAbsent(host, HostCircuit::new);
+  }
+
+  private void notifyListeners(final String host, final State from, final State to) {
+    log.info("TestRail circuit for {} changed from {} to {}", host, from, to);
+    for (final var listener : listeners) {
+      try {
+        listener.onStateChange(host, from, to);
+      } catch (RuntimeException e) {
+        log.warn("TestRail circuit breaker listener failed", e);
+      }
+    }
+  }
+
+  /** The circuit of a single host */
+  private final class HostCircuit {
+    private final String host;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    HostCircuit(final String host) {
+      this.host = host;
+    }
+
+    synchronized State state() {
+      return state;
+    }
+
+    Permit acquire(final long nowNanos) {
+      final State previous;
+      synchronized (this) {
+        if (state == State.CLOSED) {
+          return Permit.ALLOWED;
+        }
+        if (state == State.HALF_OPEN || nowNanos - openedAtNanos < openNanos) {
+          return Permit.REJECTED;
+        }
+        previous = state;
+        state = State.HALF_OPEN;
+      }
+      notifyListeners(host, previous, State.HALF_OPEN);
+      return Permit.PROBE;
+    }
+
+    void recordSuccess() {
+      final State previous;
+      synchronized (this) {
+        consecutiveFailures = 0;
+        if (state == State.CLOSED) {
+          return;
+        }
+        previous = state;
+        state = State.CLOSED;
+      }
+      notifyListeners(host, previous, State.CLOSED);
+    }
+
+    void releaseProbe() {
+      synchronized (this) {
+        if (state != State.HALF_OPEN) {
+          return;
+        }
+        // the open period is already over, so the next acquire probes right away
+        state = State.OPEN;
+      }
+      notifyListeners(host, State.HALF_OPEN, State.OPEN);
+    }
+
+    void recordFailure(final long nowNanos) {
+      final State previous;
+      synchronized (this) {
+        consecutiveFailures++;
+        if (state == State.OPEN
+            || (state == State.CLOSED && consecutiveFailures < failureThreshold)) {
+          return;
+        }
+        previous = state;
+        state = State.OPEN;
+        openedAtNanos = nowNanos;
+      }
+      notifyListeners(host, previous, State.OPEN);
+    }
+  }
+}
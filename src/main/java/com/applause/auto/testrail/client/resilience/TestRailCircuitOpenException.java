@@ -0,0 +1,38 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import java.io.IOException;
+import lombok.Getter;
+import lombok.NonNull;
+
+/** Thrown instead of sending a call while the circuit of its TestRail host is open */
+@Getter
+public class TestRailCircuitOpenException extends IOException {
+  private final String host;
+
+  /**
+   * Creates a new exception
+   *
+   * @param host The TestRail host whose circuit is open
+   */
+  public TestRailCircuitOpenException(@NonNull final String host) {
+    super("TestRail at " + host + " is unavailable, the call was not sent");
+    this.host = host;
+  }
+}
@@ -0,0 +1,214 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Schedules the requests sent to TestRail hosts with a token bucket per host, and pauses every
+ * request to a host after it answered with a Retry-After header.
+ *
+ * <p>Limiters are shared through {@link #shared(int, int, Duration)}, so all clients in the JVM
+ * with the same settings draw from the same buckets instead of competing for the rate limit of a
+ * TestRail instance.
+ */
+@Slf4j
+public class TestRailRateLimiter {
+  private static final Map<Settings, TestRailRateLimiter> SHARED = new ConcurrentHashMap<>();
+
+  private final int requestsPerMinute;
+  private final int burst;
+  private final long maxPauseNanos;
+  private final Ticker ticker;
+  private final Sleeper sleeper;
+  private final Map<String, HostBucket> buckets = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new limiter that is not shared with other clients
+   *
+   * @param requestsPerMinute The number of requests per minute allowed per host. Zero or less only
+   *     honors Retry-After pauses.
+   * @param burst The number of requests that may be sent at once after a host was idle
+   * @param maxPause The longest pause applied for a single Retry-After header
+   */
+  public TestRailRateLimiter(
+      final int requestsPerMinute, final int burst, @NonNull final Duration maxPause) {
+    this(requestsPerMinute, burst, maxPause, Ticker.systemTicker(), TimeUnit.NANOSECONDS::sleep);
+  }
+
+  @VisibleForTesting
+  TestRailRateLimiter(
+      final int requestsPerMinute,
+      final int burst,
+      @NonNull final Duration maxPause,
+      @NonNull final Ticker ticker,
+      @NonNull final Sleeper sleeper) {
+    this.requestsPerMinute = requestsPerMinute;
+    this.burst = Math.max(1, burst);
+    this.maxPauseNanos = maxPause.toNanos();
+    this.ticker = ticker;
+    this.sleeper = sleeper;
+  }
+
+  /**
+   * Gets the limiter shared by every client in the JVM with the same settings
+   *
+   * @param requestsPerMinute The number of requests per minute allowed per host. Zero or less only
+   *     honors Retry-After pauses.
+   * @param burst The number of requests that may be sent at once after a host was idle
+   * @param maxPause The longest pause applied for a single Retry-After header
+   * @return The shared limiter
+   */
+  public static TestRailRateLimiter shared(
+      final int requestsPerMinute, final int burst, @NonNull final Duration maxPause) {
+    return SHARED.computeIfAbsent(
+        new Settings(Math.max(0, requestsPerMinute), Math.max(1, burst), maxPause),
+        settings ->
+            new TestRailRateLimiter(
+                settings.requestsPerMinute(), settings.burst(), settings.maxPause()));
+  }
+
+  /**
+   * Blocks until a request may be sent to the host
+   *
+   * @param host The TestRail host
+   * @throws InterruptedIOException If the thread is interrupted while waiting
+   */
+  public void acquire(@NonNull final String host) throws InterruptedIOException {
+    final var bucket = this.buckets.computeIfAbsent(host, ignored -> new HostBucket());
+    long waitNanos;
+    while ((waitNanos = bucket.tryAcquire(ticker.read())) > 0) {
+      log.trace("Waiting {} ms before sending a request to {}", waitNanos / 1_000_000, host);
+      try {
+        sleeper.sleep(waitNanos);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the TestRail rate limit");
+      }
+    }
+  }
+
+  /**
+   * Pauses all requests to a host
+   *
+   * @param host The TestRail host
+   * @param pause How long to pause. Pauses longer than the configured maximum are shortened.
+   */
+  public void pause(@NonNull final String host, @NonNull final Duration pause) {
+    // compare before converting, very long pauses do not fit into a long of nanoseconds
+    final long pauseNanos =
+        pause.isNegative()
+            ? 0
+            : pause.compareTo(Duration.ofNanos(maxPauseNanos)) > 0
+                ? maxPauseNanos
+                : pause.toNanos();
+    log.info(
+        "TestRail host {} is rate limited, pausing requests for {} ms",
+        host,
+        pauseNanos / 1_000_000);
+    this.buckets
+        .computeIfAbsent(host, ignored -> new HostBucket())
+        .pauseUntil(ticker.read() + pauseNanos);
+  }
+
+  /**
+   * Parses a Retry-After header, given either in seconds or as an HTTP date
+   *
+   * @param retryAfter The header value
+   * @param now The current time, used for HTTP dates
+   * @return The delay, if the header could be parsed. The delay is not capped, see {@link
+   *     #pause(String, Duration)}.
+   */
+  public static Optional<Duration> parseRetryAfter(
+      @Nullable final String retryAfter, @NonNull final Instant now) {
+    if (StringUtils.isBlank(retryAfter)) {
+      return Optional.empty();
+    }
+    final var value = retryAfter.trim();
+    if (StringUtils.isNumeric(value)) {
+      try {
+        return Optional.of(Duration.ofSeconds(Long.parseLong(value)));
+      } catch (NumberFormatException e) {
+        log.debug("Ignoring out of range Retry-After header: {}", value);
+        return Optional.empty();
+      }
+    }
+    try {
+      final var date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+      return Optional.of(date.isAfter(now) ? Duration.between(now, date) : Duration.ZERO);
+    } catch (DateTimeParseException e) {
+      log.debug("Ignoring unparseable Retry-After header: {}", value);
+      return Optional.empty();
+    }
+  }
+
+  private record Settings(int requestsPerMinute, int burst, Duration maxPause) {}
+
+  /** The token bucket of a single host */
+  private final class HostBucket {
+    private double tokens = burst;
+    private long refilledAtNanos = ticker.read();
+    private long pausedUntilNanos = refilledAtNanos;
+
+    /**
+     * Takes a token if one is available
+     *
+     * @return zero if a token was taken, otherwise how long to wait before trying again
+     */
+    synchronized long tryAcquire(final long nowNanos) {
+      if (nowNanos - pausedUntilNanos < 0) {
+        return pausedUntilNanos - nowNanos;
+      }
+      if (requestsPerMinute <= 0) {
+        return 0;
+      }
+      final double tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+      tokens = Math.min(burst, tokens + (nowNanos - refilledAtNanos) * tokensPerNano);
+      refilledAtNanos = nowNanos;
+      if (tokens >= 1) {
+        tokens -= 1;
+        return 0;
+      }
+      return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+
+    synchronized void pauseUntil(final long untilNanos) {
+      if (untilNanos - pausedUntilNanos > 0) {
+        pausedUntilNanos = untilNanos;
+      }
+      // start again from an empty bucket, so the paused requests do not all resume at once
+      tokens = 0;
+      refilledAtNanos = untilNanos;
+    }
+  }
+}
@@ -0,0 +1,257 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import retrofit2.Response;
+
+/**
+ * Retries TestRail calls that failed for a transient reason, waiting an exponentially growing,
+ * fully jittered delay between the attempts.
+ *
+ * <p>Reads are always safe to retry. A write is only retried when TestRail rejected it before
+ * applying it (409 maintenance or 429 rate limit), or when a re-check shows that it was not
+ * applied. A write that may have been applied, and cannot be re-checked, is not retried.
+ */
+@Getter
+@Slf4j
+public final class TestRailRetryPolicy {
+  /** A policy that makes a single attempt */
+  public static final TestRailRetryPolicy DISABLED =
+      TestRailRetryPolicy.builder().maxAttempts(1).build();
+
+  /** Status codes of responses that are worth another attempt */
+  private static final Set<Integer> TRANSIENT_STATUS_CODES =
+      ImmutableSet.of(408, 409, 429, 500, 502, 503, 504);
+
+  /** Status codes of responses to writes that TestRail rejected without applying them */
+  private static final Set<Integer> NOT_APPLIED_STATUS_CODES = ImmutableSet.of(409, 429);
+
+  /** The maximum number of attempts, including the first one */
+  private final int maxAttempts;
+
+  /** The upper bound of the delay before the second attempt. It doubles for every attempt. */
+  @NonNull private final Duration initialBackoff;
+
+  /** The upper bound of the delay between two attempts */
+  @NonNull private final Duration maxBackoff;
+
+  /** The total time after which no further attempt is started */
+  @NonNull private final Duration maxElapsed;
+
+  @Getter(lombok.AccessLevel.NONE)
+  private final Ticker ticker;
+
+  @Getter(lombok.AccessLevel.NONE)
+  private final Sleeper sleeper;
+
+  @Getter(lombok.AccessLevel.NONE)
+  private final LongUnaryOperator jitter;
+
+  @Builder(toBuilder = true)
+  private TestRailRetryPolicy(
+      @Nullable final Integer maxAttempts,
+      @Nullable final Duration initialBackoff,
+      @Nullable final Duration maxBackoff,
+      @Nullable final Duration maxElapsed) {
+    this(
+        maxAttempts != null ? maxAttempts : 4,
+        initialBackoff != null ? initialBackoff : Duration.ofMillis(500),
+        maxBackoff != null ? maxBackoff : Duration.ofSeconds(30),
+        maxElapsed != null ? maxElapsed : Duration.ofMinutes(2),
+        Ticker.systemTicker(),
+        TimeUnit.NANOSECONDS::sleep,
+        bound -> ThreadLocalRandom.current().nextLong(bound + 1));
+  }
+
+  @VisibleForTesting
+  TestRailRetryPolicy(
+      final int maxAttempts,
+      @NonNull final Duration initialBackoff,
+      @NonNull final Duration maxBackoff,
+      @NonNull final Duration maxElapsed,
+      @NonNull final Ticker ticker,
+      @NonNull final Sleeper sleeper,
+      @NonNull final LongUnaryOperator jitter) {
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.initialBackoff = initialBackoff;
+    this.maxBackoff = maxBackoff;
+    this.maxElapsed = maxElapsed;
+    this.ticker = ticker;
+    this.sleeper = sleeper;
+    this.jitter = jitter;
+  }
+
+  /** A single attempt of a TestRail call */
+  @FunctionalInterface
+  public interface Attempt<T> {
+    /**
+     * Makes the call
+     *
+     * @return The TestRail response
+     * @throws TestRailException If the call could not be completed
+     */
+    Response<T> call() throws TestRailException;
+  }
+
+  /** Checks whether a write that failed ambiguously was applied by TestRail after all */
+  @FunctionalInterface
+  public interface Recheck<T> {
+    /**
+     * Looks for the result of the write
+     *
+     * @return The created object, if the write was applied
+     * @throws TestRailException If TestRail could not be queried
+     */
+    Optional<T> findApplied() throws TestRailException;
+  }
+
+  /**
+   * Makes an idempotent call, retrying transient failures
+   *
+   * @param operation The name of the call, for logging
+   * @param attempt The call
+   * @return The last response
+   * @param <T> The type of the response body
+   * @throws TestRailException If the last attempt could not be completed
+   */
+  public <T> Response<T> execute(@NonNull final String operation, @NonNull final Attempt<T> attempt)
+      throws TestRailException {
+    return this.run(operation, attempt, null);
+  }
+
+  /**
+   * Makes a call that must not be applied twice, retrying only when TestRail rejected it or the
+   * re-check shows it was not applied
+   *
+   * @param operation The name of the call, for logging
+   * @param attempt The call
+   * @param recheck Looks for the result of the call after an ambiguous failure
+   * @return The last response, or a successful response holding the result found by the re-check
+   * @param <T> The type of the response body
+   * @throws TestRailException If the last attempt could not be completed
+   */
+  public <T> Response<T> executeWrite(
+      @NonNull final String operation,
+      @NonNull final Attempt<T> attempt,
+      @NonNull final Recheck<T> recheck)
+      throws TestRailException {
+    return this.run(operation, attempt, recheck);
+  }
+
+  private <T> Response<T> run(
+      final String operation, final Attempt<T> attempt, @Nullable final Recheck<T> recheck)
+      throws TestRailException {
+    final long startNanos = ticker.read();
+    for (int attemptNumber = 1; ; attemptNumber++) {
+      Response<T> response = null;
+      TestRailException failure = null;
+      try {
+        response = attempt.call();
+        if (!TRANSIENT_STATUS_CODES.contains(response.code())) {
+          return response;
+        }
+      } catch (TestRailException e) {
+        if (!isTransient(e)) {
+          throw e;
+        }
+        failure = e;
+      }
+
+      final long delayNanos = this.backoffNanos(attemptNumber);
+      final boolean budgetLeft = ticker.read() - startNanos + delayNanos < maxElapsed.toNanos();
+      if (attemptNumber >= maxAttempts || !budgetLeft) {
+        return returnOrThrow(response, failure);
+      }
+      final boolean notApplied =
+          response != null && NOT_APPLIED_STATUS_CODES.contains(response.code());
+
+      log.info(
+          "TestRail {} attempt {} of {} failed with {}, retrying in {} ms",
+          operation,
+          attemptNumber,
+          maxAttempts,
+          response != null ? "HTTP " + response.code() : failure.getStatus(),
+          TimeUnit.NANOSECONDS.toMillis(delayNanos));
+      if (!this.sleep(delayNanos)) {
+        return returnOrThrow(response, failure);
+      }
+
+      if (recheck != null && !notApplied) {
+        final var applied = recheck.findApplied();
+        if (applied.isPresent()) {
+          log.info("TestRail {} was applied despite the failed response", operation);
+          return Response.success(applied.get());
+        }
+      }
+    }
+  }
+
+  /**
+   * Picks the delay after an attempt: a random duration between zero and the exponential backoff
+   *
+   * @param attemptNumber The number of the attempt that failed, starting at 1
+   * @return The delay in nanoseconds
+   */
+  public long backoffNanos(final int attemptNumber) {
+    final long ceiling =
+        Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attemptNumber - 1, 30));
+    return jitter.applyAsLong(Math.max(0, ceiling));
+  }
+
+  private static boolean isTransient(final TestRailException e) {
+    return e.isRetryable()
+        && (e.getStatus() == TestRailErrorStatus.SOCKET_TIMEOUT
+            || e.getStatus() == TestRailErrorStatus.UNKNOWN_ERROR);
+  }
+
+  /** Waits between two attempts, returning false if the thread was interrupted */
+  private boolean sleep(final long delayNanos) {
+    try {
+      sleeper.sleep(delayNanos);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static <T> Response<T> returnOrThrow(
+      @Nullable final Response<T> response, @Nullable final TestRailException failure)
+      throws TestRailException {
+    if (response != null) {
+      return response;
+    }
+    throw failure;
+  }
+}
@@ -0,0 +1,32 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.spool;
+
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import lombok.NonNull;
+
+/**
+ * A result kept in the spool until TestRail acknowledged it
+ *
+ * @param entryId The ID of the spool entry, used to acknowledge it
+ * @param runName The name of the run the result is reported to
+ * @param caseId The TestRail case ID
+ * @param result The status, already mapped to the TestRail status ID, and comment
+ */
+public record SpooledResult(
+    long entryId, @NonNull String runName, long caseId, @NonNull TestRailStatusComment result) {}
@@ -0,0 +1,496 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.spool;
+
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A crash-safe, append-only log of the results that were not acknowledged by TestRail yet.
+ *
+ * <p>Results are appended to the active segment file before they are uploaded, and an
+ * acknowledgement record is appended once TestRail accepted them. Appends go to the OS page cache
+ * only, so they survive a crash of the JVM, and {@link #sync()} forces them to disk before an
+ * upload. Every record carries its length and a CRC32, so a record torn by a crash is detected and
+ * discarded when the spool is opened again.
+ *
+ * <p>Once the active segment reaches the segment size a new one is started. Sealed segments are
+ * deleted as soon as all their results, and those of every older segment, were acknowledged.
+ * Opening the spool compacts it: the unacknowledged results are rewritten to a fresh segment, and
+ * the old segments are deleted.
+ *
+ * <p>The spool directory is locked while it is open, so only one uploader uses it at a time. See
+ * {@link #openAvailable(Path, long)} for uploaders that run concurrently.
+ */
+@Slf4j
+public class TestRailResultSpool implements Closeable {
+  private static final String SLOT_PREFIX = "slot-";
+  private static final String SEGMENT_PREFIX = "segment-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final byte RESULT_RECORD = 1;
+  private static final byte ACK_RECORD = 2;
+
+  /** The length and CRC written before every record */
+  private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final FileChannel lockChannel;
+  private final FileLock lock;
+
+  // guarded by this
+  private final Map<Long, Entry> pending = new LinkedHashMap<>();
+  private final TreeMap<Long, Integer> liveResultsBySegment = new TreeMap<>();
+  private long nextEntryId = 1;
+  private long activeSegment;
+  private FileChannel activeChannel;
+  private boolean closed;
+
+  private TestRailResultSpool(
+      final Path directory,
+      final long segmentBytes,
+      final FileChannel lockChannel,
+      final FileLock lock) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.lockChannel = lockChannel;
+    this.lock = lock;
+  }
+
+  /**
+   * Opens the spool in a directory, recovering the results that were not acknowledged
+   *
+   * @param directory The spool directory, created if missing
+   * @param segmentBytes The size after which a new segment file is started
+   * @return The open spool
+   * @throws IOException If the spool cannot be read, or is used by another uploader
+   */
+  public static TestRailResultSpool open(@NonNull final Path directory, final long segmentBytes)
+      throws IOException {
+    final var spool = tryOpen(directory, segmentBytes);
+    if (spool == null) {
+      throw new IOException("TestRail result spool " + directory + " is used by another uploader");
+    }
+    return spool;
+  }
+
+  /**
+   * Opens the first spool in a numbered sub-directory of a directory that no other uploader uses,
+   * recovering the results that were not acknowledged. Concurrent uploaders each get their own
+   * spool. The unacknowledged results of the other sub-directories no uploader uses are moved into
+   * the opened spool, so the next uploader replays the results of every uploader that stopped
+   * before uploading them.
+   *
+   * @param directory The parent directory of the spools, created if missing
+   * @param segmentBytes The size after which a new segment file is started
+   * @return The open spool
+   * @throws IOException If the spool cannot be read
+   */
+  public static TestRailResultSpool openAvailable(
+      @NonNull final Path directory, final long segmentBytes) throws IOException {
+    for (int slot = 0; ; slot++) {
+      final var spool = tryOpen(directory.resolve(SLOT_PREFIX + slot), segmentBytes);
+      if (spool == null) {
+        continue;
+      }
+      try {
+        spool.adoptIdleSlots(directory);
+      } catch (IOException | RuntimeException e) {
+        spool.close();
+        throw e;
+      }
+      return spool;
+    }
+  }
+
+  /** Moves the unacknowledged results of the sibling slots no other uploader holds into this one */
+  private void adoptIdleSlots(final Path parent) throws IOException {
+    final List<Path> slots;
+    try (Stream<Path> files = Files.list(parent)) {
+      slots =
+          files
+              .filter(file -> file.getFileName().toString().startsWith(SLOT_PREFIX))
+              .filter(file -> Files.isDirectory(file) && !file.equals(directory))
+              .sorted()
+              .toList();
+    }
+    for (final var slot : slots) {
+      try (var idle = tryOpen(slot, segmentBytes)) {
+        if (idle == null || idle.pending().isEmpty()) {
+          continue;
+        }
+        final var results = idle.pending();
+        for (final var result : results) {
+          this.append(result.runName(), result.caseId(), result.result());
+        }
+        // the results are on disk here before they are acknowledged in the idle slot
+        this.sync();
+        idle.acknowledge(results.stream().map(SpooledResult::entryId).toList());
+        log.info("Moved {} unacknowledged TestRail results from {}", results.size(), slot);
+      }
+    }
+  }
+
+  /** Opens the spool in a directory, or returns null if another uploader holds its lock */
+  @Nullable
+  private static TestRailResultSpool tryOpen(final Path directory, final long segmentBytes)
+      throws IOException {
+    Files.createDirectories(directory);
+    final var lockChannel =
+        FileChannel.open(
+            directory.resolve("spool.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    FileLock lock;
+    try {
+      lock = lockChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      // held by another spool in this JVM
+      lock = null;
+    } catch (IOException | RuntimeException e) {
+      lockChannel.close();
+      throw e;
+    }
+    if (lock == null) {
+      lockChannel.close();
+      return null;
+    }
+    final var spool = new TestRailResultSpool(directory, segmentBytes, lockChannel, lock);
+    try {
+      spool.recover();
+    } catch (IOException | RuntimeException e) {
+      spool.close();
+      throw e;
+    }
+    return spool;
+  }
+
+  /**
+   * Appends a result
+   *
+   * @param runName The name of the run the result is reported to
+   * @param caseId The TestRail case ID
+   * @param result The status and comment
+   * @return The ID of the entry, used to acknowledge it
+   * @throws UncheckedIOException If the result could not be written
+   */
+  public synchronized long append(
+      @NonNull final String runName,
+      final long caseId,
+      @NonNull final TestRailStatusComment result) {
+    this.ensureOpen();
+    final var spooled = new SpooledResult(nextEntryId++, runName, caseId, result);
+    try {
+      this.rotateIfFull();
+      this.write(encodeResult(spooled));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not spool a TestRail result", e);
+    }
+    this.track(spooled, activeSegment);
+    return spooled.entryId();
+  }
+
+  /**
+   * Marks results as accepted by TestRail, so they are not replayed
+   *
+   * @param entryIds The IDs of the entries
+   * @throws UncheckedIOException If the acknowledgement could not be written
+   */
+  public synchronized void acknowledge(@NonNull final Collection<Long> entryIds) {
+    this.ensureOpen();
+    final var acknowledged = entryIds.stream().filter(pending::containsKey).toList();
+    if (acknowledged.isEmpty()) {
+      return;
+    }
+    try {
+      this.write(encodeAck(acknowledged));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not acknowledge spooled TestRail results", e);
+    }
+    acknowledged.forEach(this::untrack);
+    this.deleteAcknowledgedSegments();
+  }
+
+  /**
+   * Forces the spooled records to disk
+   *
+   * @throws UncheckedIOException If the records could not be forced to disk
+   */
+  public synchronized void sync() {
+    this.ensureOpen();
+    try {
+      activeChannel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not sync the TestRail result spool", e);
+    }
+  }
+
+  /**
+   * @return The results that were not acknowledged yet, in the order they were appended
+   */
+  public synchronized List<SpooledResult> pending() {
+    return pending.values().stream().map(Entry::result).toList();
+  }
+
+  /**
+   * @return The directory of the spool
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try (lockChannel) {
+      if (activeChannel != null) {
+        activeChannel.force(false);
+        activeChannel.close();
+      }
+    } finally {
+      if (lock.isValid()) {
+        lock.release();
+      }
+    }
+  }
+
+  /** Reads the existing segments, then compacts the unacknowledged results into a new segment */
+  private synchronized void recover() throws IOException {
+    final List<Path> segments;
+    try (Stream<Path> files = Files.list(directory)) {
+      segments =
+          files
+              .filter(file -> file.getFileName().toString().startsWith(SEGMENT_PREFIX))
+              .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+              .sorted()
+              .toList();
+    }
+    final Map<Long, SpooledResult> recovered = new LinkedHashMap<>();
+    for (final var segment : segments) {
+      readSegment(segment, recovered);
+      activeSegment = Math.max(activeSegment, segmentNumber(segment));
+    }
+    activeSegment++;
+    this.activeChannel = openSegment(activeSegment);
+    for (final var result : recovered.values()) {
+      this.write(encodeResult(result));
+      this.track(result, activeSegment);
+      nextEntryId = Math.max(nextEntryId, result.entryId() + 1);
+    }
+    activeChannel.force(false);
+    for (final var segment : segments) {
+      Files.delete(segment);
+    }
+    if (!recovered.isEmpty()) {
+      log.info("Recovered {} unacknowledged TestRail results from {}", recovered.size(), directory);
+    }
+  }
+
+  private void readSegment(final Path segment, final Map<Long, SpooledResult> recovered)
+      throws IOException {
+    final var bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+    while (bytes.remaining() >= RECORD_HEADER_BYTES) {
+      final int length = bytes.getInt();
+      final int crc = bytes.getInt();
+      if (length <= 0 || length > bytes.remaining()) {
+        log.warn("Discarding a torn record at the end of TestRail spool segment {}", segment);
+        return;
+      }
+      final var record = new byte[length];
+      bytes.get(record);
+      if (crc != checksum(record)) {
+        log.warn("Discarding the rest of TestRail spool segment {}: bad checksum", segment);
+        return;
+      }
+      decode(record, recovered);
+    }
+  }
+
+  private static void decode(final byte[] record, final Map<Long, SpooledResult> recovered)
+      throws IOException {
+    try (var in = new DataInputStream(new ByteArrayInputStream(record))) {
+      final byte type = in.readByte();
+      if (type == RESULT_RECORD) {
+        final long entryId = in.readLong();
+        final var runName = readString(in);
+        final long caseId = in.readLong();
+        final int statusId = in.readInt();
+        final var comment = readString(in);
+        recovered.put(
+            entryId,
+            new SpooledResult(
+                entryId, runName, caseId, new TestRailStatusComment(statusId, comment)));
+      } else if (type == ACK_RECORD) {
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+          recovered.remove(in.readLong());
+        }
+      } else {
+        throw new IOException("Unknown TestRail spool record type " + type);
+      }
+    }
+  }
+
+  private static byte[] encodeResult(final SpooledResult result) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeByte(RESULT_RECORD);
+      out.writeLong(result.entryId());
+      writeString(out, result.runName());
+      out.writeLong(result.caseId());
+      out.writeInt(result.result().statusId());
+      writeString(out, result.result().comment());
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] encodeAck(final List<Long> entryIds) throws IOException {
+    final var bytes = new ByteArrayOutputStream();
+    try (var out = new DataOutputStream(bytes)) {
+      out.writeByte(ACK_RECORD);
+      out.writeInt(entryIds.size());
+      for (final long entryId : entryIds) {
+        out.writeLong(entryId);
+      }
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeString(final DataOutputStream out, final String value)
+      throws IOException {
+    final var utf8 = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
+  }
+
+  private static String readString(final DataInputStream in) throws IOException {
+    final var utf8 = new byte[in.readInt()];
+    in.readFully(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  private static int checksum(final byte[] record) {
+    final var crc = new CRC32();
+    crc.update(record);
+    return (int) crc.getValue();
+  }
+
+  private void write(final byte[] record) throws IOException {
+    final var buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + record.length);
+    buffer.putInt(record.length).putInt(checksum(record)).put(record).flip();
+    while (buffer.hasRemaining()) {
+      activeChannel.write(buffer);
+    }
+  }
+
+  private void rotateIfFull() throws IOException {
+    if (activeChannel.size() < segmentBytes) {
+      return;
+    }
+    activeChannel.force(false);
+    activeChannel.close();
+    activeSegment++;
+    activeChannel = openSegment(activeSegment);
+    log.debug("Started TestRail spool segment {} in {}", activeSegment, directory);
+    this.deleteAcknowledgedSegments();
+  }
+
+  private FileChannel openSegment(final long segment) throws IOException {
+    liveResultsBySegment.putIfAbsent(segment, 0);
+    return FileChannel.open(
+        segmentPath(segment),
+        StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+  }
+
+  private Path segmentPath(final long segment) {
+    return directory.resolve(SEGMENT_PREFIX + "%020d".formatted(segment) + SEGMENT_SUFFIX);
+  }
+
+  private static long segmentNumber(final Path segment) {
+    final var name = segment.getFileName().toString();
+    return Long.parseLong(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  private void track(final SpooledResult result, final long segment) {
+    pending.put(result.entryId(), new Entry(result, segment));
+    liveResultsBySegment.merge(segment, 1, Integer::sum);
+  }
+
+  private void untrack(final long entryId) {
+    final var entry = pending.remove(entryId);
+    if (entry != null) {
+      liveResultsBySegment.merge(entry.segment(), -1, Integer::sum);
+    }
+  }
+
+  /**
+   * Deletes the oldest sealed segments whose results were all acknowledged. A segment is only
+   * deleted together with every older one, since its acknowledgements may refer to their results.
+   */
+  private void deleteAcknowledgedSegments() {
+    while (!liveResultsBySegment.isEmpty()) {
+      final var oldest = liveResultsBySegment.firstEntry();
+      if (oldest.getKey() >= activeSegment || oldest.getValue() > 0) {
+        return;
+      }
+      liveResultsBySegment.pollFirstEntry();
+      try {
+        Files.deleteIfExists(segmentPath(oldest.getKey()));
+      } catch (IOException e) {
+        log.warn("Could not delete TestRail spool segment {}", oldest.getKey(), e);
+        return;
+      }
+    }
+  }
+
+  private void ensureOpen() {
+    if (closed) {
+      throw new IllegalStateException("The TestRail result spool has been closed");
+    }
+  }
+
+  private record Entry(SpooledResult result, long segment) {}
+}
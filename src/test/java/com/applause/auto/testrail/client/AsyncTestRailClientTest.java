@@ -0,0 +1,201 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.testrail.*;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Response;
+
+public class AsyncTestRailClientTest {
+  private TestRailApi testRailApi;
+  private AsyncTestRailClient client;
+
+  @BeforeEach
+  public void setup() {
+    testRailApi = mock(TestRailApi.class);
+    client = new AsyncTestRailClient(testRailApi);
+  }
+
+  private static <T> CompletableFuture<Response<T>> errorResponse(final int code) {
+    return CompletableFuture.completedFuture(
+        Response.error(code, ResponseBody.create("{}", MediaType.get("application/json"))));
+  }
+
+  private static TestRailErrorStatus failureStatus(final CompletableFuture<?> future) {
+    final var error = assertThrows(CompletionException.class, future::join);
+    final var cause = assertInstanceOf(TestRailException.class, error.getCause());
+    return cause.getStatus();
+  }
+
+  @Test
+  public void testGetTestPlanSuccess() {
+    final var plan = PlanDto.builder().id(1L).build();
+    when(testRailApi.getPlan(anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(Response.success(plan)));
+    assertEquals(plan, client.getTestPlan(1L).toCompletableFuture().join());
+  }
+
+  @Test
+  public void testGetTestPlanFailures() {
+    when(testRailApi.getPlan(anyLong())).thenReturn(errorResponse(409));
+    assertEquals(
+        TestRailErrorStatus.MAINTENANCE,
+        failureStatus(client.getTestPlan(1L).toCompletableFuture()));
+    when(testRailApi.getPlan(anyLong())).thenReturn(errorResponse(429));
+    assertEquals(
+        TestRailErrorStatus.HIT_RATE_LIMIT,
+        failureStatus(client.getTestPlan(1L).toCompletableFuture()));
+    when(testRailApi.getPlan(anyLong())).thenReturn(errorResponse(400));
+    assertEquals(
+        TestRailErrorStatus.BAD_REQUEST,
+        failureStatus(client.getTestPlan(1L).toCompletableFuture()));
+    when(testRailApi.getPlan(anyLong())).thenReturn(errorResponse(403));
+    assertEquals(
+        TestRailErrorStatus.ACCESS_DENIED,
+        failureStatus(client.getTestPlan(1L).toCompletableFuture()));
+  }
+
+  @Test
+  public void testSocketTimeoutException() {
+    when(testRailApi.getStatuses())
+        .thenReturn(CompletableFuture.failedFuture(new SocketTimeoutException()));
+    assertEquals(
+        TestRailErrorStatus.SOCKET_TIMEOUT,
+        failureStatus(client.getCustomStatuses().toCompletableFuture()));
+  }
+
+  @Test
+  public void testCreatePlanEntryRequiresCaseIds() {
+    assertEquals(
+        TestRailErrorStatus.BAD_REQUEST,
+        failureStatus(
+            client
+                .createNewPlanEntry("run name", 0L, 0L, false, Collections.emptySet())
+                .toCompletableFuture()));
+    verifyNoInteractions(testRailApi);
+  }
+
+  @Test
+  public void testGetTestResultsForRunReadsAllPages() {
+    when(testRailApi.getTests(anyLong(), any(), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              final int offset = invocation.getArgument(2);
+              final int limit = invocation.getArgument(3);
+              final int size = offset < 500 ? limit : 10;
+              final var tests =
+                  Collections.nCopies(size, TestDto.builder().caseId((long) offset).build());
+              final var links = new PaginatedLinkDto(size == limit ? "next" : null, null);
+              return CompletableFuture.completedFuture(
+                  Response.success(new PaginatedBulkTestDto(offset, limit, size, links, tests)));
+            });
+    final List<TestDto> tests = client.getTestResultsForRun(1L, null).toCompletableFuture().join();
+    assertEquals(510, tests.size());
+    assertEquals(0L, tests.get(0).getCaseId());
+    assertEquals(500L, tests.get(509).getCaseId());
+  }
+
+  private long findPlanId(final String planName) {
+    return client
+        .findExistingTestPlan(1L, planName)
+        .toCompletableFuture()
+        .join()
+        .orElseThrow()
+        .getId();
+  }
+
+  @Test
+  public void testFindExistingTestPlanStopsAtFirstMatchAndIndexesIt() {
+    final int totalPlans = 5_000;
+    when(testRailApi.getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              final int offset = invocation.getArgument(3);
+              final int limit = invocation.getArgument(4);
+              final List<PlanDto> plans = new ArrayList<>();
+              for (long id = offset; id < Math.min(offset + limit, totalPlans); id++) {
+                // plans are listed newest first; 300 is the newest open plan named "target"
+                final boolean isTarget = id == 290 || id == 300 || id == 900;
+                plans.add(
+                    PlanDto.builder()
+                        .id(id)
+                        .name(isTarget ? "target" : "plan " + id)
+                        .createdOn(totalPlans - id)
+                        .isCompleted(id == 290)
+                        .build());
+              }
+              final var links =
+                  new PaginatedLinkDto(offset + limit < totalPlans ? "next" : null, null);
+              return CompletableFuture.completedFuture(
+                  Response.success(
+                      new PaginatedBulkPlanDto(offset, limit, plans.size(), links, plans)));
+            });
+
+    assertEquals(300L, findPlanId("target"));
+    // the walk stops at the matching page, so no pages beyond the prefetch window are requested
+    verify(testRailApi, never()).getPlansForProject(anyLong(), any(), any(), eq(1250), anyInt());
+
+    // the second lookup reads the indexed plan by ID instead of searching
+    clearInvocations(testRailApi);
+    final var indexedPlan =
+        PlanDto.builder().id(300L).name("target").projectId(1L).isCompleted(false).build();
+    when(testRailApi.getPlan(anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(Response.success(indexedPlan)));
+    assertEquals(300L, findPlanId("target"));
+    verify(testRailApi).getPlan(300L);
+    verify(testRailApi, never()).getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt());
+
+    // once the indexed plan was completed, it is searched for again
+    clearInvocations(testRailApi);
+    when(testRailApi.getPlan(anyLong()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                Response.success(
+                    PlanDto.builder()
+                        .id(300L)
+                        .name("target")
+                        .projectId(1L)
+                        .isCompleted(true)
+                        .build())));
+    assertEquals(300L, findPlanId("target"));
+    verify(testRailApi, atLeastOnce())
+        .getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt());
+
+    // a deleted plan is searched for again as well
+    clearInvocations(testRailApi);
+    when(testRailApi.getPlan(anyLong())).thenReturn(errorResponse(400));
+    assertEquals(300L, findPlanId("target"));
+    verify(testRailApi, atLeastOnce())
+        .getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt());
+  }
+}
@@ -0,0 +1,211 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import com.applause.auto.testrail.client.models.internal.TestRailValidateRequest;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import com.applause.auto.testrail.client.spool.SpooledResult;
+import com.applause.auto.testrail.client.spool.TestRailResultSpool;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestRailBatchingResultWriterTest {
+  private static final TestRailValidateRequest VALIDATE_REQUEST =
+      new TestRailValidateRequest(1L, 2L, "plan", 3L, false);
+  private static final TestRailStatusComment PASSED = new TestRailStatusComment(1, "passed");
+  private static final TestRailStatusComment FAILED = new TestRailStatusComment(5, "failed");
+
+  private TestRailResultLogger resultLogger;
+  private final List<Table<String, Long, TestRailStatusComment>> uploads =
+      new CopyOnWriteArrayList<>();
+
+  @SneakyThrows
+  @BeforeEach
+  public void setup() {
+    uploads.clear();
+    resultLogger = mock(TestRailResultLogger.class);
+    when(resultLogger.execute(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              uploads.add(HashBasedTable.create(invocation.getArgument(0)));
+              return Set.of();
+            });
+  }
+
+  @SneakyThrows
+  @Test
+  public void testBatchSizeTriggersUpload() {
+    try (var writer =
+        new TestRailBatchingResultWriter(resultLogger, VALIDATE_REQUEST, 3, Duration.ofHours(1))) {
+      writer.submit("run", 1L, PASSED);
+      writer.submit("run", 2L, PASSED);
+      writer.submit("other run", 3L, PASSED);
+
+      verify(resultLogger, timeout(5_000)).execute(any(), any());
+      assertEquals(1, uploads.size());
+      assertEquals(Set.of("run", "other run"), uploads.get(0).rowKeySet());
+      assertEquals(3, uploads.get(0).size());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testMaxLatencyTriggersUpload() {
+    try (var writer =
+        new TestRailBatchingResultWriter(
+            resultLogger, VALIDATE_REQUEST, 100, Duration.ofMillis(50))) {
+      writer.submit("run", 1L, PASSED);
+      verify(resultLogger, timeout(5_000)).execute(any(), any());
+      assertEquals(1, uploads.get(0).size());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testLaterResultReplacesEarlierOne() {
+    try (var writer =
+        new TestRailBatchingResultWriter(
+            resultLogger, VALIDATE_REQUEST, 100, Duration.ofHours(1))) {
+      writer.submit("run", 1L, FAILED);
+      writer.submit("run", 1L, PASSED);
+      writer.flush();
+
+      assertEquals(1, uploads.size());
+      assertEquals(PASSED, uploads.get(0).get("run", 1L));
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRetryableFailureIsRequeued() {
+    doThrow(new TestRailException(TestRailErrorStatus.MAINTENANCE))
+        .doAnswer(
+            invocation -> {
+              uploads.add(HashBasedTable.create(invocation.getArgument(0)));
+              return Set.of();
+            })
+        .when(resultLogger)
+        .execute(any(), any());
+    try (var writer =
+        new TestRailBatchingResultWriter(
+            resultLogger, VALIDATE_REQUEST, 100, Duration.ofHours(1))) {
+      writer.submit("run", 1L, FAILED);
+      writer.submit("run", 2L, FAILED);
+      writer.flush();
+      assertEquals(0, uploads.size());
+
+      // the newer result for case 1 wins over the requeued one
+      writer.submit("run", 1L, PASSED);
+      writer.flush();
+      assertEquals(1, uploads.size());
+      assertEquals(PASSED, uploads.get(0).get("run", 1L));
+      assertEquals(FAILED, uploads.get(0).get("run", 2L));
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testCloseUploadsPendingResultsAndGivesUp() {
+    doThrow(new TestRailException(TestRailErrorStatus.MAINTENANCE))
+        .when(resultLogger)
+        .execute(any(), any());
+    final var writer =
+        new TestRailBatchingResultWriter(resultLogger, VALIDATE_REQUEST, 100, Duration.ofHours(1));
+    writer.submit("run", 1L, PASSED);
+    writer.close();
+
+    verify(resultLogger, times(TestRailBatchingResultWriter.MAX_ATTEMPTS)).execute(any(), any());
+    assertThrows(IllegalStateException.class, () -> writer.submit("run", 2L, PASSED));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testCloseWaitsTheRetryBackoffBetweenAttempts() {
+    doThrow(new TestRailException(TestRailErrorStatus.MAINTENANCE))
+        .when(resultLogger)
+        .execute(any(), any());
+    final var retryPolicy = mock(TestRailRetryPolicy.class);
+    when(retryPolicy.backoffNanos(anyInt())).thenReturn(0L);
+    final var writer =
+        new TestRailBatchingResultWriter(
+            resultLogger, VALIDATE_REQUEST, 100, Duration.ofHours(1), null, retryPolicy);
+    writer.submit("run", 1L, PASSED);
+    writer.close();
+
+    verify(resultLogger, times(TestRailBatchingResultWriter.MAX_ATTEMPTS)).execute(any(), any());
+    final var inOrder = inOrder(retryPolicy);
+    for (int attempt = 1; attempt < TestRailBatchingResultWriter.MAX_ATTEMPTS; attempt++) {
+      inOrder.verify(retryPolicy).backoffNanos(attempt);
+    }
+    inOrder.verifyNoMoreInteractions();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testSpooledResultsAreAcknowledgedOnceUploaded(@TempDir final Path spoolDirectory) {
+    try (var spool = TestRailResultSpool.open(spoolDirectory, 1024 * 1024)) {
+      doThrow(new TestRailException(TestRailErrorStatus.MAINTENANCE))
+          .when(resultLogger)
+          .execute(any(), any());
+      try (var writer =
+          new TestRailBatchingResultWriter(
+              resultLogger, VALIDATE_REQUEST, 100, Duration.ofHours(1), spool)) {
+        writer.submit("run", 1L, FAILED);
+        writer.submit("run", 1L, PASSED);
+        writer.submit("run", 2L, PASSED);
+      }
+      // the results were dropped from memory, but not from the spool
+      assertEquals(
+          List.of(PASSED, PASSED), spool.pending().stream().map(SpooledResult::result).toList());
+
+      this.setup();
+      try (var writer =
+          new TestRailBatchingResultWriter(
+              resultLogger, VALIDATE_REQUEST, 100, Duration.ofHours(1), spool)) {
+        writer.resubmit(spool.pending());
+      }
+      assertEquals(2, uploads.get(0).size());
+      assertTrue(spool.pending().isEmpty());
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailHttpOptions;
+import java.time.Duration;
+import java.util.List;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.junit.jupiter.api.Test;
+
+public class TestRailClientFactoryTest {
+
+  @Test
+  public void testHttpOptionsAreApplied() {
+    final var base = new OkHttpClient.Builder().readTimeout(Duration.ofSeconds(42)).build();
+    final var factory =
+        new TestRailClientFactory(
+            base,
+            TestRailClientOptions.builder()
+                .httpOptions(
+                    TestRailHttpOptions.builder()
+                        .maxRequests(20)
+                        .maxRequestsPerHost(8)
+                        .maxIdleConnections(4)
+                        .connectTimeout(Duration.ofSeconds(3))
+                        .callTimeout(Duration.ofMinutes(1))
+                        .http2(false)
+                        .tlsSessionCacheSize(32)
+                        .build())
+                .build());
+    final var client = factory.getBaseHttpClient();
+
+    assertEquals(20, client.dispatcher().getMaxRequests());
+    assertEquals(8, client.dispatcher().getMaxRequestsPerHost());
+    assertEquals(3_000, client.connectTimeoutMillis());
+    assertEquals(60_000, client.callTimeoutMillis());
+    assertEquals(42_000, client.readTimeoutMillis(), "unset timeouts keep the base value");
+    assertEquals(List.of(Protocol.HTTP_1_1), client.protocols());
+    assertNotSame(base.dispatcher(), client.dispatcher());
+    assertNotSame(base.connectionPool(), client.connectionPool());
+    assertNotSame(base.sslSocketFactory(), client.sslSocketFactory());
+  }
+
+  @Test
+  public void testDefaultsKeepTheBaseClientSettings() {
+    final var dispatcher = new Dispatcher();
+    dispatcher.setMaxRequestsPerHost(3);
+    final var connectionPool = new ConnectionPool();
+    final var base =
+        new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(connectionPool)
+            .protocols(List.of(Protocol.HTTP_1_1))
+            .build();
+    final var client = new TestRailClientFactory(base).getBaseHttpClient();
+
+    assertSame(dispatcher, client.dispatcher());
+    assertSame(connectionPool, client.connectionPool());
+    assertEquals(List.of(Protocol.HTTP_1_1), client.protocols());
+    final var derived = client.newBuilder().build();
+    assertSame(client.dispatcher(), derived.dispatcher());
+    assertSame(client.connectionPool(), derived.connectionPool());
+  }
+
+  @Test
+  public void testUnsetDispatcherLimitsKeepTheBaseValues() {
+    final var base = new OkHttpClient.Builder().dispatcher(new Dispatcher()).build();
+    base.dispatcher().setMaxRequests(7);
+    final var client =
+        new TestRailClientFactory(
+                base,
+                TestRailClientOptions.builder()
+                    .httpOptions(TestRailHttpOptions.builder().maxRequestsPerHost(2).build())
+                    .build())
+            .getBaseHttpClient();
+
+    assertNotSame(base.dispatcher(), client.dispatcher());
+    assertEquals(7, client.dispatcher().getMaxRequests());
+    assertEquals(2, client.dispatcher().getMaxRequestsPerHost());
+  }
+}
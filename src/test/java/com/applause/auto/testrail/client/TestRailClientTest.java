@@ -22,17 +22,27 @@ import static org.mockito.Mockito.*;
 
 import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
 import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
 import com.applause.auto.testrail.client.models.testrail.*;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
 import jakarta.ws.rs.core.Response.Status;
 import java.net.SocketTimeoutException;
+import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import lombok.SneakyThrows;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
 import retrofit2.Response;
 
 @SuppressWarnings({"unchecked", "rawtypes"})
@@ -410,6 +420,254 @@ public class TestRailClientTest {
     }
   }
 
+  @SneakyThrows
+  @Test
+  public void testGetTestCasesForSuiteKeepsPageOrder() {
+    final int totalCases = 1_100;
+    when(testRailApi.getCasesForSuite(anyLong(), anyLong(), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              final int offset = invocation.getArgument(2);
+              final int limit = invocation.getArgument(3);
+              final List<TestCaseDto> cases = new ArrayList<>();
+              for (long id = offset; id < Math.min(offset + limit, totalCases); id++) {
+                final var testCase = new TestCaseDto();
+                testCase.setId(id);
+                cases.add(testCase);
+              }
+              final var links =
+                  new PaginatedLinkDto(offset + limit < totalCases ? "next" : null, null);
+              final var page = new PaginatedBulkCaseDto(offset, limit, cases.size(), links, cases);
+              // later pages complete first, so the results would be out of order if we didn't wait
+              return CompletableFuture.supplyAsync(
+                  () -> Response.success(page),
+                  CompletableFuture.delayedExecutor(
+                      Math.max(0, totalCases - offset) / 20, TimeUnit.MILLISECONDS));
+            });
+
+    final var cases = client.getTestCasesForSuite(0L, 0L);
+
+    assertEquals(totalCases, cases.size());
+    for (int i = 0; i < totalCases; i++) {
+      assertEquals(i, cases.get(i).getId());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testStreamTestCasesForSuiteFetchesPagesOnDemand() {
+    final int totalCases = 1_000;
+    when(testRailApi.streamCasesForSuite(anyLong(), anyLong(), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              final int offset = invocation.getArgument(2);
+              final int limit = invocation.getArgument(3);
+              final var end = Math.min(offset + limit, totalCases);
+              final var cases =
+                  LongStream.range(offset, end)
+                      .mapToObj(id -> "{\"id\":" + id + ",\"title\":\"case " + id + "\"}")
+                      .collect(Collectors.joining(","));
+              final var next =
+                  end < totalCases ? "\"/api/v2/get_cases/0&offset=" + end + "\"" : null;
+              final var json =
+                  "{\"offset\":%d,\"limit\":%d,\"size\":%d,\"_links\":{\"next\":%s,\"prev\":null},\"cases\":[%s]}"
+                      .formatted(offset, limit, end - offset, next, cases);
+              return CompletableFuture.completedFuture(
+                  Response.success(ResponseBody.create(json, MediaType.get("application/json"))));
+            });
+
+    // stopping early only fetches the pages that were needed
+    try (var cases = client.streamTestCasesForSuite(0L, 0L)) {
+      assertEquals(
+          LongStream.range(0, 300).boxed().toList(),
+          cases.limit(300).map(TestCaseDto::getId).toList());
+    }
+    verify(testRailApi, times(2)).streamCasesForSuite(anyLong(), anyLong(), anyInt(), anyInt());
+
+    try (var cases = client.streamTestCasesForSuite(0L, 0L)) {
+      assertEquals(totalCases, cases.count());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testFindExistingTestPlanStopsAtFirstMatchAndIndexesIt() {
+    final int totalPlans = 5_000;
+    when(testRailApi.getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt()))
+        .thenAnswer(
+            invocation -> {
+              final int offset = invocation.getArgument(3);
+              final int limit = invocation.getArgument(4);
+              final List<PlanDto> plans = new ArrayList<>();
+              for (long id = offset; id < Math.min(offset + limit, totalPlans); id++) {
+                // plans are listed newest first; 300 is the newest open plan named "target"
+                final boolean isTarget = id == 290 || id == 300 || id == 900;
+                plans.add(
+                    PlanDto.builder()
+                        .id(id)
+                        .name(isTarget ? "target" : "plan " + id)
+                        .createdOn(totalPlans - id)
+                        .isCompleted(id == 290)
+                        .build());
+              }
+              final var links =
+                  new PaginatedLinkDto(offset + limit < totalPlans ? "next" : null, null);
+              return CompletableFuture.completedFuture(
+                  Response.success(
+                      new PaginatedBulkPlanDto(offset, limit, plans.size(), links, plans)));
+            });
+
+    assertEquals(300L, client.findExistingTestPlan(1L, "target").orElseThrow().getId());
+    verify(testRailApi, atLeastOnce()).getPlansForProject(eq(1L), eq(0), isNull(), eq(0), eq(250));
+    // the walk stops at the matching page, so no pages beyond the prefetch window are requested
+    verify(testRailApi, never()).getPlansForProject(anyLong(), any(), any(), eq(1250), anyInt());
+
+    // the second lookup reads the indexed plan by ID instead of searching
+    clearInvocations(testRailApi);
+    when(testRailApi.getPlan(anyLong())).thenReturn(mockFuture);
+    setResponseCode(Status.OK);
+    final var indexedPlan =
+        PlanDto.builder().id(300L).name("target").projectId(1L).isCompleted(false).build();
+    setResponseBody(indexedPlan);
+    assertEquals(indexedPlan, client.findExistingTestPlan(1L, "target").orElseThrow());
+    verify(testRailApi).getPlan(300L);
+    verify(testRailApi, never()).getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt());
+
+    // once the indexed plan was completed, it is searched for again
+    clearInvocations(testRailApi);
+    setResponseBody(
+        PlanDto.builder().id(300L).name("target").projectId(1L).isCompleted(true).build());
+    client.findExistingTestPlan(1L, "target");
+    verify(testRailApi, atLeastOnce())
+        .getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt());
+
+    // a deleted plan is searched for again as well
+    clearInvocations(testRailApi);
+    setResponseCode(Status.BAD_REQUEST);
+    assertEquals(300L, client.findExistingTestPlan(1L, "target").orElseThrow().getId());
+    verify(testRailApi).getPlan(300L);
+    verify(testRailApi, atLeastOnce())
+        .getPlansForProject(anyLong(), any(), any(), anyInt(), anyInt());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRunMembershipIsCachedAndWrittenThrough() {
+    final var run = TestRunDto.builder().id(7L).entryId("entry").build();
+    final var tests =
+        List.of(TestDto.builder().caseId(1L).build(), TestDto.builder().caseId(2L).build());
+    when(testRailApi.getTests(anyLong(), any(), anyInt(), anyInt()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                Response.success(
+                    new PaginatedBulkTestDto(0, 250, 2, new PaginatedLinkDto(null, null), tests))));
+
+    assertEquals(Set.of(1L, 2L), client.getCaseIdsInRun(run));
+    assertEquals(Set.of(1L, 2L), client.getCaseIdsInRun(run));
+    verify(testRailApi, times(1)).getTests(anyLong(), any(), anyInt(), anyInt());
+
+    // a successful update is applied to the cached cases without reading the run again
+    setResponseCode(Status.OK);
+    setResponseBody(PlanEntryDto.builder().id("entry").runs(List.of(run)).build());
+    client.updateExistingPlanEntry(0L, "entry", Set.of(1L, 2L, 3L));
+    assertEquals(Set.of(1L, 2L, 3L), client.getCaseIdsInRun(run));
+    verify(testRailApi, times(1)).getTests(anyLong(), any(), anyInt(), anyInt());
+
+    // a rejected update drops the cached cases of the entry
+    setResponseCode(Status.BAD_REQUEST);
+    assertThrows(
+        TestRailException.class, () -> client.updateExistingPlanEntry(0L, "entry", Set.of(4L)));
+    assertEquals(Set.of(1L, 2L), client.getCaseIdsInRun(run));
+    verify(testRailApi, times(2)).getTests(anyLong(), any(), anyInt(), anyInt());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testAddCasesToRunKeepsCasesAddedByOthers() {
+    final var run = TestRunDto.builder().id(7L).entryId("entry").build();
+    when(testRailApi.getTests(anyLong(), any(), anyInt(), anyInt()))
+        .thenReturn(testsPage(1L, 2L))
+        .thenReturn(testsPage(1L, 2L, 5L));
+    setResponseCode(Status.OK);
+    setResponseBody(PlanEntryDto.builder().id("entry").runs(List.of(run)).build());
+
+    // the cached cases are stale, case 5 was added by another uploader
+    assertEquals(Set.of(1L, 2L), client.getCaseIdsInRun(run));
+    assertEquals(Set.of(3L), client.addCasesToRun(0L, run, Set.of(1L, 3L)));
+    verify(testRailApi)
+        .updatePlanEntry(
+            0L, "entry", UpdatePlanEntryDto.builder().caseIds(Set.of(1L, 2L, 3L, 5L)).build());
+    assertEquals(Set.of(1L, 2L, 3L, 5L), client.getCaseIdsInRun(run));
+
+    // cases already in the run are not written again
+    assertEquals(Set.of(), client.addCasesToRun(0L, run, Set.of(5L)));
+    verify(testRailApi, times(1)).updatePlanEntry(anyLong(), anyString(), any());
+  }
+
+  private static CompletableFuture<Response<PaginatedBulkTestDto>> testsPage(
+      final Long... caseIds) {
+    final var tests =
+        Arrays.stream(caseIds).map(caseId -> TestDto.builder().caseId(caseId).build()).toList();
+    return CompletableFuture.completedFuture(
+        Response.success(
+            new PaginatedBulkTestDto(
+                0, 250, tests.size(), new PaginatedLinkDto(null, null), tests)));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testAddResultsReportsEachChunk() {
+    final var chunkedClient =
+        new TestRailClient(
+            testRailApi,
+            TestRailClientOptions.builder()
+                .resultChunkMaxResults(2)
+                .resultUploadConcurrency(2)
+                .build());
+    doAnswer(
+            invocation -> {
+              final AddTestResultsForCaseDto dto = invocation.getArgument(1);
+              final var caseIds =
+                  dto.getResults().stream().map(AddTestResultForCaseDto::getCaseId).toList();
+              if (caseIds.contains(3L)) {
+                return CompletableFuture.completedFuture(
+                    Response.error(
+                        Status.TOO_MANY_REQUESTS.getStatusCode(),
+                        ResponseBody.create("", MediaType.get("application/json"))));
+              }
+              return CompletableFuture.completedFuture(
+                  Response.success(
+                      caseIds.stream()
+                          .map(caseId -> TestResultDto.builder().id(caseId).build())
+                          .toList()));
+            })
+        .when(testRailApi)
+        .addResultsForCases(anyLong(), any());
+    final var results = new LinkedHashMap<Long, TestRailStatusComment>();
+    LongStream.rangeClosed(1, 5)
+        .forEach(caseId -> results.put(caseId, new TestRailStatusComment(1, "comment")));
+
+    final var chunks = chunkedClient.addResultsInChunks(10L, results);
+
+    assertEquals(3, chunks.size());
+    assertEquals(Set.of(1L, 2L), chunks.get(0).results().keySet());
+    assertTrue(chunks.get(0).isSuccessful());
+    assertEquals(2, chunks.get(0).createdResults().size());
+    assertEquals(Set.of(3L, 4L), chunks.get(1).results().keySet());
+    assertFalse(chunks.get(1).isSuccessful());
+    assertEquals(TestRailErrorStatus.HIT_RATE_LIMIT, chunks.get(1).error().getStatus());
+    assertEquals(Set.of(5L), chunks.get(2).results().keySet());
+    assertTrue(chunks.get(2).isSuccessful());
+    verify(testRailApi, times(3)).addResultsForCases(eq(10L), any());
+
+    // the failed chunk is retried on its own
+    final var retried = chunkedClient.addResultsInChunks(10L, Map.of(4L, results.get(4L)));
+    assertTrue(retried.get(0).isSuccessful());
+    final var error =
+        assertThrows(TestRailException.class, () -> chunkedClient.addResults(10L, results));
+    assertEquals(TestRailErrorStatus.HIT_RATE_LIMIT, error.getStatus());
+  }
+
   @SneakyThrows
   @Test
   public void testRetrieveStatusesFromTestRailsSuccess() {
@@ -456,4 +714,38 @@ public class TestRailClientTest {
       assertEquals(e.getStatus(), TestRailErrorStatus.SOCKET_TIMEOUT);
     }
   }
+
+  @SneakyThrows
+  @Test
+  // joining the earlier read would block the re-check for good
+  @Timeout(value = 10, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+  public void testWriteRecheckDoesNotJoinAnEarlierCoalescedRead() {
+    final var delegate = mock(TestRailApi.class);
+    final var entry =
+        PlanEntryDto.builder().id("entry").name("run").suiteId(2L).runs(List.of()).build();
+    final var earlierCall = new CompletableFuture<Response<PlanDto>>();
+    when(delegate.getPlan(1L))
+        .thenReturn(earlierCall)
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                Response.success(PlanDto.builder().id(1L).entries(List.of(entry)).build())));
+    when(delegate.addPlanEntry(anyLong(), any()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                Response.error(500, ResponseBody.create("{}", MediaType.get("application/json")))));
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+    final var recheckingClient =
+        new TestRailClient(
+            api,
+            TestRailClientOptions.builder()
+                .retryPolicy(
+                    TestRailRetryPolicy.builder().initialBackoff(Duration.ofMillis(1)).build())
+                .build());
+
+    // a read of the plan started before the write, so it cannot show the new entry
+    final var earlierRead = api.getPlan(1L);
+    assertEquals(entry, recheckingClient.createNewPlanEntry("run", 2L, 1L, false, Set.of(3L)));
+    verify(delegate, times(1)).addPlanEntry(anyLong(), any());
+    assertFalse(earlierRead.isDone());
+  }
 }
@@ -0,0 +1,57 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+public class TestRailExecutorsTest {
+
+  @Test
+  public void testVirtualThreadExecutorMatchesRuntime() throws Exception {
+    final var executor = TestRailExecutors.newVirtualThreadPerTaskExecutor();
+    try {
+      final boolean ranOnVirtualThread =
+          executor.submit(() -> TestRailExecutors.isVirtual(Thread.currentThread())).get();
+      assertEquals(
+          Runtime.version().feature() >= 21,
+          ranOnVirtualThread,
+          "virtual threads should be used exactly when the runtime supports them");
+    } finally {
+      executor.shutdown();
+      assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  public void testPlatformThreadExecutorUsesDaemonThreads() throws Exception {
+    final var executor = TestRailExecutors.newPlatformThreadExecutor("testrail-test-%d");
+    try {
+      final var thread = executor.submit(Thread::currentThread).get();
+      assertTrue(thread.isDaemon(), "pool threads should not keep the JVM alive");
+      assertTrue(thread.getName().startsWith("testrail-test-"));
+      assertFalse(TestRailExecutors.isVirtual(thread));
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import java.nio.file.Path;
+import java.util.Set;
+import lombok.SneakyThrows;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestRailHttpCacheTest {
+  private static final String PLAN =
+      "{\"id\":5,\"name\":\"plan\",\"is_completed\":false,\"entries\":[]}";
+  private static final String ENTRY =
+      "{\"id\":\"entry\",\"name\":\"run\",\"suite_id\":2,\"runs\":[]}";
+
+  private final MockWebServer server = new MockWebServer();
+  @TempDir Path cacheDirectory;
+  private TestRailClient client;
+
+  @SneakyThrows
+  @BeforeEach
+  public void setup() {
+    server.start();
+    final var config =
+        TestRailConfig.builder()
+            .url(server.url("/").toString())
+            .email("user@example.com")
+            .apiKey("key")
+            .build();
+    client =
+        new TestRailClientFactory(
+                new OkHttpClient(),
+                TestRailClientOptions.builder().httpCacheDirectory(cacheDirectory).build())
+            .getTestRailClient(config);
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void tearDown() {
+    server.shutdown();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testMetadataReadsAreCachedUntilAWriteChangesThem() {
+    server.enqueue(new MockResponse().setBody(PLAN));
+    server.enqueue(new MockResponse().setBody(ENTRY));
+    server.enqueue(new MockResponse().setBody(PLAN));
+
+    assertEquals(5L, client.getTestPlan(5L).getId());
+    assertEquals(5L, client.getTestPlan(5L).getId());
+    assertEquals(1, server.getRequestCount());
+    assertTrue(server.takeRequest().getRequestUrl().toString().contains("/api/v2/get_plan/5"));
+
+    // the new entry evicts the cached plan
+    client.createNewPlanEntry("run", 2L, 5L, false, Set.of(1L));
+    assertTrue(server.takeRequest().getRequestUrl().toString().contains("add_plan_entry/5"));
+    assertEquals(5L, client.getTestPlan(5L).getId());
+    assertEquals(3, server.getRequestCount());
+    assertTrue(server.takeRequest().getRequestUrl().toString().contains("/api/v2/get_plan/5"));
+  }
+}
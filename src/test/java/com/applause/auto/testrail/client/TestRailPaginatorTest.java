@@ -0,0 +1,111 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import com.applause.auto.testrail.client.models.testrail.TestDto;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.SneakyThrows;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRailPaginatorTest {
+  private final MockWebServer server = new MockWebServer();
+  private TestRailClient client;
+
+  @SneakyThrows
+  @BeforeEach
+  public void setup() {
+    server.start();
+    final var config =
+        TestRailConfig.builder()
+            .url(server.url("/").toString())
+            .email("user@example.com")
+            .apiKey("key")
+            .build();
+    // pages are fetched one after another, so the server answers them in order
+    final var options =
+        TestRailClientOptions.builder()
+            .pagePrefetchWindow(1)
+            .retryPolicy(
+                TestRailRetryPolicy.builder()
+                    .maxAttempts(3)
+                    .initialBackoff(Duration.ofMillis(1))
+                    .build())
+            .build();
+    client = new TestRailClientFactory(new OkHttpClient(), options).getTestRailClient(config);
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void tearDown() {
+    server.shutdown();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRateLimitedPageIsRequestedAgain() {
+    server.enqueue(new MockResponse().setBody(testsPage(0, TestRailClient.TESTRAIL_PAGE_LIMIT)));
+    server.enqueue(new MockResponse().setResponseCode(429));
+    server.enqueue(new MockResponse().setBody(testsPage(250, 3)));
+
+    assertEquals(253, client.getTestResultsForRun(1L, null).size());
+    assertEquals(3, server.getRequestCount());
+    assertTrue(server.takeRequest().getRequestUrl().toString().contains("offset=0"));
+    assertTrue(server.takeRequest().getRequestUrl().toString().contains("offset=250"));
+    assertTrue(server.takeRequest().getRequestUrl().toString().contains("offset=250"));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRateLimitedStreamedPageIsRequestedAgain() {
+    server.enqueue(new MockResponse().setBody(testsPage(0, TestRailClient.TESTRAIL_PAGE_LIMIT)));
+    server.enqueue(new MockResponse().setResponseCode(429));
+    server.enqueue(new MockResponse().setBody(testsPage(250, 3)));
+
+    try (var tests = client.streamTestsForRun(1L, null)) {
+      assertEquals(253, tests.map(TestDto::getId).distinct().count());
+    }
+    assertEquals(3, server.getRequestCount());
+  }
+
+  /** Builds a get_tests page, linking to a next page when it is full */
+  private static String testsPage(final int offset, final int size) {
+    final var tests =
+        IntStream.range(offset, offset + size)
+            .mapToObj(id -> "{\"id\":" + id + ",\"case_id\":" + id + "}")
+            .collect(Collectors.joining(","));
+    final var next =
+        size == TestRailClient.TESTRAIL_PAGE_LIMIT
+            ? "\"/api/v2/get_tests/1&offset=" + (offset + size) + "\""
+            : "null";
+    return ("{\"offset\":%d,\"limit\":250,\"size\":%d,"
+            + "\"_links\":{\"next\":%s,\"prev\":null},\"tests\":[%s]}")
+        .formatted(offset, size, next, tests);
+  }
+}
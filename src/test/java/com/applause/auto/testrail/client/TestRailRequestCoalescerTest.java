@@ -0,0 +1,136 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.applause.auto.testrail.client.models.testrail.AddPlanDto;
+import com.applause.auto.testrail.client.models.testrail.PlanDto;
+import java.util.concurrent.CompletableFuture;
+import lombok.SneakyThrows;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+import retrofit2.Response;
+
+public class TestRailRequestCoalescerTest {
+
+  @Test
+  public void testConcurrentIdenticalReadsShareOneCall() {
+    final var delegate = mock(TestRailApi.class);
+    final var pendingCall = new CompletableFuture<Response<PlanDto>>();
+    when(delegate.getPlan(1L)).thenReturn(pendingCall);
+    when(delegate.getPlan(2L)).thenReturn(new CompletableFuture<>());
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+
+    final var first = api.getPlan(1L);
+    final var second = api.getPlan(1L);
+    api.getPlan(2L);
+    verify(delegate, times(1)).getPlan(1L);
+    verify(delegate, times(1)).getPlan(2L);
+
+    final var plan = PlanDto.builder().id(1L).build();
+    pendingCall.complete(Response.success(plan));
+    assertSame(plan, first.join().body());
+    assertSame(plan, second.join().body());
+
+    // once the call completed, the next read is sent again
+    when(delegate.getPlan(1L))
+        .thenReturn(CompletableFuture.completedFuture(Response.success(plan)));
+    api.getPlan(1L).join();
+    verify(delegate, times(2)).getPlan(1L);
+  }
+
+  @SneakyThrows
+  @Test
+  public void testEveryCallerCanReadTheErrorBody() {
+    final var delegate = mock(TestRailApi.class);
+    final var pendingCall = new CompletableFuture<Response<PlanDto>>();
+    when(delegate.getPlan(1L)).thenReturn(pendingCall);
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+
+    final var first = api.getPlan(1L);
+    final var second = api.getPlan(1L);
+    pendingCall.complete(
+        Response.error(
+            409,
+            ResponseBody.create("{\"error\":\"maintenance\"}", MediaType.get("application/json"))));
+
+    assertEquals("{\"error\":\"maintenance\"}", first.join().errorBody().string());
+    assertEquals("{\"error\":\"maintenance\"}", second.join().errorBody().string());
+    assertEquals(409, second.join().code());
+  }
+
+  @Test
+  public void testCallIsCancelledOnceTheLastCallerCancels() {
+    final var delegate = mock(TestRailApi.class);
+    final var pendingCall = new CompletableFuture<Response<PlanDto>>();
+    when(delegate.getPlan(1L)).thenReturn(pendingCall);
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+
+    final var first = api.getPlan(1L);
+    final var second = api.getPlan(1L);
+    first.cancel(true);
+    assertFalse(pendingCall.isCancelled());
+    second.cancel(true);
+    assertTrue(pendingCall.isCancelled());
+
+    // a cancelled call is not joined again
+    when(delegate.getPlan(1L)).thenReturn(new CompletableFuture<>());
+    assertFalse(api.getPlan(1L).isDone());
+    verify(delegate, times(2)).getPlan(1L);
+  }
+
+  @Test
+  public void testCallerThatDidNotCancelStillGetsTheResponse() {
+    final var delegate = mock(TestRailApi.class);
+    final var pendingCall = new CompletableFuture<Response<PlanDto>>();
+    when(delegate.getPlan(1L)).thenReturn(pendingCall);
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+
+    final var first = api.getPlan(1L);
+    final var second = api.getPlan(1L);
+    second.cancel(true);
+
+    final var plan = PlanDto.builder().id(1L).build();
+    pendingCall.complete(Response.success(plan));
+    assertSame(plan, first.join().body());
+    assertTrue(second.isCancelled());
+  }
+
+  @Test
+  public void testWritesAreNotCoalesced() {
+    final var delegate = mock(TestRailApi.class);
+    final var dto = AddPlanDto.builder().name("plan").build();
+    when(delegate.addPlan(1L, dto)).thenReturn(new CompletableFuture<>());
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+
+    api.addPlan(1L, dto);
+    api.addPlan(1L, dto);
+    verify(delegate, times(2)).addPlan(1L, dto);
+  }
+
+  @Test
+  public void testUncoalescedSendsToTheDelegate() {
+    final var delegate = mock(TestRailApi.class);
+    final var api = TestRailRequestCoalescer.wrap(delegate);
+    assertSame(delegate, TestRailRequestCoalescer.uncoalesced(api));
+    assertSame(delegate, TestRailRequestCoalescer.uncoalesced(delegate));
+  }
+}
@@ -0,0 +1,73 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+public class TestRailResultChunkerTest {
+
+  private static Map<Long, TestRailStatusComment> results(final int count, final String comment) {
+    final var results = new LinkedHashMap<Long, TestRailStatusComment>();
+    LongStream.rangeClosed(1, count)
+        .forEach(caseId -> results.put(caseId, new TestRailStatusComment(1, comment)));
+    return results;
+  }
+
+  @Test
+  public void testSplitsByResultCount() {
+    final var chunks = new TestRailResultChunker(100, Long.MAX_VALUE).split(results(250, "ok"));
+
+    assertEquals(List.of(100, 100, 50), chunks.stream().map(Map::size).toList());
+    assertEquals(1L, chunks.get(0).keySet().iterator().next());
+    assertEquals(201L, chunks.get(2).keySet().iterator().next());
+  }
+
+  @Test
+  public void testSplitsBySerializedSize() {
+    final long maxBytes = 16 * 1024;
+    final var results = results(40, "x".repeat(1024));
+    final var chunks = new TestRailResultChunker(250, maxBytes).split(results);
+
+    assertTrue(chunks.size() > 1);
+    assertEquals(40, chunks.stream().mapToInt(Map::size).sum());
+    for (final var chunk : chunks) {
+      final var body =
+          TestRailClientFactory.gson
+              .toJson(TestRailResultChunker.toRequest(chunk))
+              .getBytes(StandardCharsets.UTF_8);
+      assertTrue(body.length <= maxBytes, "chunk of " + body.length + " bytes");
+    }
+  }
+
+  @Test
+  public void testOversizedResultIsSentAlone() {
+    final var results = results(3, "x".repeat(4096));
+    final var chunks = new TestRailResultChunker(250, 1024).split(results);
+
+    assertEquals(List.of(1, 1, 1), chunks.stream().map(Map::size).toList());
+    assertTrue(new TestRailResultChunker(250, 1024).split(Map.of()).isEmpty());
+  }
+}
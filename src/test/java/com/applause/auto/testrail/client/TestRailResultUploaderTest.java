@@ -0,0 +1,145 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.TestRailResultUploader.ProjectConfiguration;
+import com.applause.auto.testrail.client.TestRailResultUploader.UploadResultDto;
+import com.applause.auto.testrail.client.enums.TestResultStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRailResultUploaderTest {
+  private static final ProjectConfiguration PROJECT =
+      new ProjectConfiguration(
+          1, 1, false, "Nightly", "Chrome", "passed", "failed", "blocked", "retest", "blocked");
+
+  private final TestRailSimulator simulator = TestRailSimulator.builder().caseCount(300).build();
+
+  @SneakyThrows
+  @AfterEach
+  public void tearDown() {
+    simulator.close();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testUploadsCreateThePlanAndRunAndRecordResults() {
+    try (var uploader = initialize(TestRailClientOptions.DEFAULTS)) {
+      assertThrows(
+          TestRailException.class,
+          () ->
+              uploader.uploadResults(
+                  Set.of(new UploadResultDto("C999", TestResultStatus.PASSED, "not in suite"))));
+      assertEquals(
+          Set.of(),
+          uploader.uploadResults(
+              Set.of(
+                  new UploadResultDto("C1", TestResultStatus.PASSED, "ok"),
+                  new UploadResultDto("C2", TestResultStatus.FAILED, "broken"))));
+      // a later upload adds its cases to the existing run
+      uploader.uploadResults(Set.of(new UploadResultDto("C260", TestResultStatus.PASSED, "")));
+    }
+
+    assertEquals(1, simulator.findPlans("Nightly").size());
+    assertEquals(Optional.of(1), simulator.getStatus("Chrome", 1));
+    assertEquals(Optional.of(5), simulator.getStatus("Chrome", 2));
+    assertEquals(Optional.of(1), simulator.getStatus("Chrome", 260));
+    assertEquals(3, simulator.getResultCount());
+    assertEquals(1, simulator.getCallCount("add_plan_entry"));
+    assertEquals(1, simulator.getCallCount("update_plan_entry"));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testInjectedFailuresAreRetried() {
+    final var options =
+        TestRailClientOptions.builder()
+            .retryPolicy(
+                TestRailRetryPolicy.builder()
+                    .initialBackoff(Duration.ofMillis(1))
+                    .maxBackoff(Duration.ofMillis(5))
+                    .build())
+            .build();
+    try (var uploader = initialize(options)) {
+      simulator.failNext(429, 409);
+      uploader.submitResult(new UploadResultDto("C7", TestResultStatus.PASSED, "retried"));
+      uploader.flushResults();
+    }
+
+    assertEquals(2, simulator.getInjectedFailureCount());
+    assertEquals(Optional.of(1), simulator.getStatus("Chrome", 7));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testFactoryIsReleasedWithTheLastUploader() {
+    final var config =
+        TestRailConfig.builder()
+            .url(simulator.start())
+            .email("user@example.com")
+            .apiKey("key")
+            .build();
+    final var options = TestRailClientOptions.builder().resultBatchSize(7).build();
+    final var first = TestRailResultUploader.initialize(config, PROJECT, null, options);
+    final var second = TestRailResultUploader.initialize(config, PROJECT, null, options);
+    assertEquals(1, TestRailResultUploader.sharedFactoryCount());
+
+    first.close();
+    first.close();
+    assertEquals(1, TestRailResultUploader.sharedFactoryCount());
+    second.close();
+    assertEquals(0, TestRailResultUploader.sharedFactoryCount());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testUploaderThatWasNotClosedIsReleased() {
+    final int factories = TestRailResultUploader.sharedFactoryCount();
+    var uploader = initialize(TestRailClientOptions.builder().resultBatchSize(11).build());
+    uploader.uploadResults(Set.of(new UploadResultDto("C1", TestResultStatus.PASSED, "ok")));
+    assertEquals(factories + 1, TestRailResultUploader.sharedFactoryCount());
+
+    uploader = null;
+    for (int i = 0; i < 100 && TestRailResultUploader.sharedFactoryCount() > factories; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    assertEquals(factories, TestRailResultUploader.sharedFactoryCount());
+  }
+
+  @SneakyThrows
+  private TestRailResultUploader initialize(final TestRailClientOptions options) {
+    final var config =
+        TestRailConfig.builder()
+            .url(simulator.start())
+            .email("user@example.com")
+            .apiKey("key")
+            .build();
+    return TestRailResultUploader.initialize(config, PROJECT, null, options);
+  }
+}
@@ -0,0 +1,770 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client;
+
+import com.google.common.net.HttpHeaders;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import javax.annotation.Nullable;
+import lombok.Builder;
+import lombok.Getter;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * An in-process TestRail server on top of MockWebServer. It serves the endpoints of {@link
+ * TestRailApi} from an in-memory project with one suite, keeps the plans, entries, runs and results
+ * created through it, and can add latency and inject 429 and 409 responses. Tests use it to run the
+ * client end to end, and the load harness in src/jmh to capacity-plan without a real TestRail.
+ *
+ * <p>Pages are capped at maxPageSize items. The client asks for 250 item pages and treats a shorter
+ * page as the last one, so smaller caps simulate a server that truncates listings.
+ */
+public class TestRailSimulator implements Closeable {
+  private static final String API_PREFIX = "/api/v2/";
+  private static final List<String> STATUS_NAMES =
+      List.of("passed", "blocked", "untested", "retest", "failed");
+
+  private final MockWebServer server = new MockWebServer();
+  private final long latencyMillis;
+  private final int maxPageSize;
+  private final double rateLimitRate;
+  private final double maintenanceRate;
+  private final int retryAfterSeconds;
+  @Getter private final long projectId;
+  @Getter private final long suiteId;
+  private final List<Long> caseIds;
+  private final Random random;
+
+  private final Map<Long, Plan> plans = new LinkedHashMap<>();
+  private final Map<Long, Run> runs = new HashMap<>();
+  private final List<Integer> scriptedFailures = new ArrayList<>();
+  private final AtomicLong ids = new AtomicLong(100);
+  private final AtomicLong calls = new AtomicLong();
+  private final AtomicLong results = new AtomicLong();
+  private final AtomicLong injectedFailures = new AtomicLong();
+  private final Map<String, AtomicLong> callsByEndpoint = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a simulator. Unset values use the defaults.
+   *
+   * @param latency The delay before each response, standing in for server and network time. None by
+   *     default.
+   * @param maxPageSize The largest page served by the listing endpoints. 250 by default, like
+   *     TestRail.
+   * @param rateLimitRate The share of requests answered with 429 Too Many Requests. None by
+   *     default.
+   * @param maintenanceRate The share of requests answered with 409, like TestRail in maintenance
+   *     mode. None by default.
+   * @param retryAfterSeconds The Retry-After of the injected 429 responses. 1 by default.
+   * @param projectId The id of the project. 1 by default.
+   * @param suiteId The id of the suite. 1 by default.
+   * @param caseCount The number of test cases in the suite, with ids from 1. 1000 by default.
+   * @param seed The seed of the failure injection, so runs can be repeated
+   */
+  @Builder
+  private TestRailSimulator(
+      @Nullable final Duration latency,
+      @Nullable final Integer maxPageSize,
+      @Nullable final Double rateLimitRate,
+      @Nullable final Double maintenanceRate,
+      @Nullable final Integer retryAfterSeconds,
+      @Nullable final Long projectId,
+      @Nullable final Long suiteId,
+      @Nullable final Integer caseCount,
+      @Nullable final Long seed) {
+    this.latencyMillis = latency != null ? latency.toMillis() : 0;
+    this.maxPageSize = maxPageSize != null ? maxPageSize : TestRailClient.TESTRAIL_PAGE_LIMIT;
+    this.rateLimitRate = rateLimitRate != null ? rateLimitRate : 0;
+    this.maintenanceRate = maintenanceRate != null ? maintenanceRate : 0;
+    this.retryAfterSeconds = retryAfterSeconds != null ? retryAfterSeconds : 1;
+    this.projectId = projectId != null ? projectId : 1;
+    this.suiteId = suiteId != null ? suiteId : 1;
+    this.caseIds = LongStream.rangeClosed(1, caseCount != null ? caseCount : 1000).boxed().toList();
+    this.random = new Random(seed != null ? seed : 0);
+    this.server.setDispatcher(
+        new Dispatcher() {
+          @Override
+          public MockResponse dispatch(final RecordedRequest request) {
+            return handle(request).setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS);
+          }
+        });
+  }
+
+  /**
+   * Starts the server
+   *
+   * @return The base url to configure the client with
+   * @throws IOException If the server cannot start
+   */
+  public String start() throws IOException {
+    server.start();
+    return server.url("/").toString();
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.shutdown();
+  }
+
+  /**
+   * Answers the next requests with the given status codes, in order, before any other handling
+   *
+   * @param statusCodes The status codes, like 429 or 409
+   */
+  public synchronized void failNext(final Integer... statusCodes) {
+    scriptedFailures.addAll(Arrays.asList(statusCodes));
+  }
+
+  /**
+   * Creates an open plan, as if someone set it up in TestRail before the upload
+   *
+   * @param name The plan name
+   * @return The plan id
+   */
+  public synchronized long createPlan(final String name) {
+    final var plan = new Plan(ids.incrementAndGet(), name, Instant.now().getEpochSecond());
+    plans.put(plan.id, plan);
+    return plan.id;
+  }
+
+  /**
+   * Gets the number of requests received, including the ones answered with injected failures
+   *
+   * @return The request count
+   */
+  public long getCallCount() {
+    return calls.get();
+  }
+
+  /**
+   * Gets the number of requests received for one endpoint
+   *
+   * @param endpoint The endpoint name, like add_results_for_cases
+   * @return The request count
+   */
+  public long getCallCount(final String endpoint) {
+    return Optional.ofNullable(callsByEndpoint.get(endpoint)).map(AtomicLong::get).orElse(0L);
+  }
+
+  /**
+   * Gets the number of results accepted
+   *
+   * @return The result count
+   */
+  public long getResultCount() {
+    return results.get();
+  }
+
+  /**
+   * Gets the number of 429 and 409 responses injected
+   *
+   * @return The injected failure count
+   */
+  public long getInjectedFailureCount() {
+    return injectedFailures.get();
+  }
+
+  /**
+   * Gets the plans with the given name
+   *
+   * @param name The plan name
+   * @return The plan ids, oldest first
+   */
+  public synchronized List<Long> findPlans(final String name) {
+    return plans.values().stream().filter(plan -> plan.name.equals(name)).map(Plan::id).toList();
+  }
+
+  /**
+   * Gets the latest status recorded for the case in any run with the given name
+   *
+   * @param runName The run name
+   * @param caseId The case id
+   * @return The status id, if the case has a result
+   */
+  public synchronized Optional<Integer> getStatus(final String runName, final long caseId) {
+    return runs.values().stream()
+        .filter(run -> run.name.equals(runName))
+        .map(run -> run.statuses.get(caseId))
+        .filter(Objects::nonNull)
+        .findFirst();
+  }
+
+  private MockResponse handle(final RecordedRequest request) {
+    calls.incrementAndGet();
+    final var url = request.getRequestUrl();
+    final var query = url == null ? null : url.encodedQuery();
+    if (query == null || !query.startsWith(API_PREFIX)) {
+      return error(404, "Unknown method");
+    }
+    // index.php?/api/v2/get_cases/1&suite_id=1 keeps the route before the first '&'
+    final var route = query.substring(API_PREFIX.length()).split("&", 2)[0].split("/");
+    final var endpoint = route[0];
+    callsByEndpoint.computeIfAbsent(endpoint, e -> new AtomicLong()).incrementAndGet();
+    final var injected = nextFailure();
+    if (injected != null) {
+      injectedFailures.incrementAndGet();
+      return injected;
+    }
+    final var body = request.getBody().readUtf8();
+    try {
+      synchronized (this) {
+        return switch (endpoint) {
+          case "get_statuses" -> json(statuses());
+          case "get_project" -> getProject(id(route, 1));
+          case "get_suite" -> getSuite(id(route, 1));
+          case "get_cases" -> getCases(id(route, 1), url);
+          case "get_plans" -> getPlans(id(route, 1), url);
+          case "get_plan" -> getPlan(id(route, 1));
+          case "add_plan" -> addPlan(id(route, 1), parse(body));
+          case "add_plan_entry" -> addPlanEntry(id(route, 1), parse(body));
+          case "update_plan_entry" -> updatePlanEntry(id(route, 1), route[2], parse(body));
+          case "get_tests" -> getTests(id(route, 1), url);
+          case "add_results_for_cases" -> addResultsForCases(id(route, 1), parse(body));
+          case "add_result" -> addResult(id(route, 1), parse(body));
+          default -> error(404, "Unknown method '" + endpoint + "'");
+        };
+      }
+    } catch (RuntimeException e) {
+      return error(400, "Invalid request: " + e.getMessage());
+    }
+  }
+
+  @Nullable
+  private synchronized MockResponse nextFailure() {
+    final int status;
+    if (!scriptedFailures.isEmpty()) {
+      status = scriptedFailures.remove(0);
+    } else {
+      final double draw = random.nextDouble();
+      if (draw < rateLimitRate) {
+        status = 429;
+      } else if (draw < rateLimitRate + maintenanceRate) {
+        status = 409;
+      } else {
+        return null;
+      }
+    }
+    final var response =
+        error(status, status == 429 ? "API rate limit exceeded" : "TestRail is in maintenance");
+    return status == 429
+        ? response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+        : response;
+  }
+
+  private MockResponse getProject(final long id) {
+    if (id != projectId) {
+      return error(400, "Field :project_id is not a valid or accessible project.");
+    }
+    return json(
+        object(
+            "id",
+            id,
+            "name",
+            "Simulated project",
+            "announcement",
+            null,
+            "show_announcement",
+            false,
+            "is_completed",
+            false,
+            "completed_on",
+            null,
+            "suite_mode",
+            3,
+            "url",
+            server.url("/index.php?/projects/overview/" + id).toString()));
+  }
+
+  private MockResponse getSuite(final long id) {
+    if (id != suiteId) {
+      return error(400, "Field :suite_id is not a valid test suite.");
+    }
+    return json(
+        object(
+            "id",
+            id,
+            "name",
+            "Simulated suite",
+            "description",
+            null,
+            "project_id",
+            projectId,
+            "is_master",
+            false,
+            "is_baseline",
+            false,
+            "is_completed",
+            false,
+            "completed_on",
+            null,
+            "url",
+            server.url("/index.php?/suites/view/" + id).toString()));
+  }
+
+  private MockResponse getCases(final long project, final HttpUrl url) {
+    if (project != projectId || longParam(url, "suite_id", suiteId) != suiteId) {
+      return error(400, "Field :suite_id is not a valid test suite.");
+    }
+    return page(url, "cases", caseIds, this::testCase);
+  }
+
+  private MockResponse getPlans(final long project, final HttpUrl url) {
+    if (project != projectId) {
+      return error(400, "Field :project_id is not a valid or accessible project.");
+    }
+    final var isCompleted = url.queryParameter("is_completed");
+    final long createdAfter = longParam(url, "created_after", Long.MIN_VALUE);
+    // TestRail lists plans newest first
+    final var matching =
+        plans.values().stream()
+            .filter(plan -> isCompleted == null || plan.completed == "1".equals(isCompleted))
+            .filter(plan -> plan.createdOn > createdAfter)
+            .sorted((a, b) -> Long.compare(b.id, a.id))
+            .toList();
+    return page(url, "plans", matching, plan -> plan(plan, false));
+  }
+
+  private MockResponse getPlan(final long id) {
+    final var plan = plans.get(id);
+    return plan == null
+        ? error(400, "Field :plan_id is not a valid test plan.")
+        : json(plan(plan, true));
+  }
+
+  private MockResponse addPlan(final long project, final JsonObject body) {
+    if (project != projectId) {
+      return error(400, "Field :project_id is not a valid or accessible project.");
+    }
+    return json(plan(plans.get(createPlan(body.get("name").getAsString())), true));
+  }
+
+  private MockResponse addPlanEntry(final long planId, final JsonObject body) {
+    final var plan = plans.get(planId);
+    if (plan == null || plan.completed) {
+      return error(400, "Field :plan_id is not a valid test plan.");
+    }
+    if (body.get("suite_id").getAsLong() != suiteId) {
+      return error(400, "Field :suite_id is not a valid test suite.");
+    }
+    final var entry = new Entry(UUID.randomUUID().toString(), body.get("name").getAsString());
+    final var run = new Run(ids.incrementAndGet(), plan.id, entry.id, entry.name);
+    final var unknown = setCases(run, body);
+    if (unknown.isPresent()) {
+      return unknown.get();
+    }
+    entry.runs.add(run);
+    plan.entries.add(entry);
+    runs.put(run.id, run);
+    return json(entry(entry));
+  }
+
+  private MockResponse updatePlanEntry(
+      final long planId, final String entryId, final JsonObject body) {
+    final var entry =
+        Optional.ofNullable(plans.get(planId)).stream()
+            .flatMap(plan -> plan.entries.stream())
+            .filter(e -> e.id.equals(entryId))
+            .findFirst();
+    if (entry.isEmpty()) {
+      return error(400, "Field :entry_id is not a valid plan entry.");
+    }
+    for (final var run : entry.get().runs) {
+      final var unknown = setCases(run, body);
+      if (unknown.isPresent()) {
+        return unknown.get();
+      }
+    }
+    return json(entry(entry.get()));
+  }
+
+  /** Applies include_all and case_ids to the run, like add_plan_entry and update_plan_entry */
+  private Optional<MockResponse> setCases(final Run run, final JsonObject body) {
+    if (body.has("include_all") && !body.get("include_all").isJsonNull()) {
+      run.includeAll = body.get("include_all").getAsBoolean();
+    }
+    final Set<Long> requested = new LinkedHashSet<>();
+    if (run.includeAll) {
+      requested.addAll(caseIds);
+    } else if (body.has("case_ids") && !body.get("case_ids").isJsonNull()) {
+      for (final JsonElement caseId : body.getAsJsonArray("case_ids")) {
+        requested.add(caseId.getAsLong());
+      }
+    } else {
+      return Optional.empty();
+    }
+    final var unknown = requested.stream().filter(id -> !caseIds.contains(id)).findFirst();
+    if (unknown.isPresent()) {
+      return Optional.of(error(400, "Field :case_ids contains unknown case C" + unknown.get()));
+    }
+    run.caseIds.clear();
+    run.caseIds.addAll(requested);
+    return Optional.empty();
+  }
+
+  private MockResponse getTests(final long runId, final HttpUrl url) {
+    final var run = runs.get(runId);
+    if (run == null) {
+      return error(400, "Field :run_id is not a valid test run.");
+    }
+    final var statusFilter =
+        Optional.ofNullable(url.queryParameter("status_id")).stream()
+            .flatMap(ids -> Arrays.stream(ids.split(",")))
+            .map(Integer::parseInt)
+            .collect(Collectors.toSet());
+    final var tests =
+        run.caseIds.stream()
+            .filter(caseId -> statusFilter.isEmpty() || statusFilter.contains(run.statusOf(caseId)))
+            .toList();
+    return page(url, "tests", tests, caseId -> test(run, caseId));
+  }
+
+  private MockResponse addResultsForCases(final long runId, final JsonObject body) {
+    final var run = runs.get(runId);
+    if (run == null || run.completed) {
+      return error(400, "Field :run_id is not a valid test run.");
+    }
+    final var submitted = body.getAsJsonArray("results");
+    // TestRail rejects the whole request when one of the cases is not in the run
+    for (final JsonElement result : submitted) {
+      final long caseId = result.getAsJsonObject().get("case_id").getAsLong();
+      if (!run.caseIds.contains(caseId)) {
+        return error(
+            400,
+            "Field :results cannot be parsed (Field :case_id is not a valid test case: C"
+                + caseId
+                + ")");
+      }
+    }
+    final var accepted = new ArrayList<Map<String, Object>>();
+    for (final JsonElement result : submitted) {
+      final var object = result.getAsJsonObject();
+      accepted.add(record(run, object.get("case_id").getAsLong(), object));
+    }
+    return json(accepted);
+  }
+
+  private MockResponse addResult(final long testId, final JsonObject body) {
+    final var run = runs.get(testId / 1_000_000);
+    if (run == null || !run.caseIds.contains(testId % 1_000_000)) {
+      return error(400, "Field :test_id is not a valid test.");
+    }
+    return json(record(run, testId % 1_000_000, body));
+  }
+
+  private Map<String, Object> record(final Run run, final long caseId, final JsonObject result) {
+    final int statusId = result.get("status_id").getAsInt();
+    run.statuses.put(caseId, statusId);
+    results.incrementAndGet();
+    return object(
+        "id",
+        ids.incrementAndGet(),
+        "test_id",
+        run.testId(caseId),
+        "status_id",
+        statusId,
+        "comment",
+        result.has("comment") ? result.get("comment").getAsString() : null,
+        "created_by",
+        1,
+        "created_on",
+        String.valueOf(Instant.now().getEpochSecond()),
+        "assignedto_id",
+        null,
+        "defects",
+        null,
+        "elapsed",
+        null,
+        "version",
+        null);
+  }
+
+  private <T> MockResponse page(
+      final HttpUrl url,
+      final String itemsName,
+      final List<T> items,
+      final Function<T, Map<String, Object>> toJson) {
+    final int offset = (int) longParam(url, "offset", 0);
+    final int limit = (int) Math.min(longParam(url, "limit", maxPageSize), maxPageSize);
+    final var page =
+        items.subList(Math.min(offset, items.size()), Math.min(offset + limit, items.size()));
+    final var nextOffset = offset + page.size();
+    final var route = url.encodedQuery().split("&", 2)[0];
+    return json(
+        object(
+            "offset",
+            offset,
+            "limit",
+            limit,
+            "size",
+            page.size(),
+            "_links",
+            object(
+                "next",
+                nextOffset < items.size()
+                    ? route + "&limit=" + limit + "&offset=" + nextOffset
+                    : null,
+                "prev",
+                offset > 0
+                    ? route + "&limit=" + limit + "&offset=" + Math.max(0, offset - limit)
+                    : null),
+            itemsName,
+            page.stream().map(toJson).toList()));
+  }
+
+  private List<Map<String, Object>> statuses() {
+    final var statuses = new ArrayList<Map<String, Object>>();
+    for (int i = 0; i < STATUS_NAMES.size(); i++) {
+      final var name = STATUS_NAMES.get(i);
+      statuses.add(
+          object(
+              "id",
+              i + 1,
+              "name",
+              name,
+              "label",
+              name.substring(0, 1).toUpperCase() + name.substring(1),
+              "color_dark",
+              0,
+              "color_medium",
+              0,
+              "color_bright",
+              0,
+              "is_system",
+              true,
+              "is_untested",
+              "untested".equals(name),
+              "is_final",
+              !"untested".equals(name) && !"retest".equals(name)));
+    }
+    return statuses;
+  }
+
+  private Map<String, Object> testCase(final long caseId) {
+    return object(
+        "id",
+        caseId,
+        "title",
+        "Simulated case " + caseId,
+        "section_id",
+        10 + caseId / 50,
+        "template_id",
+        1,
+        "type_id",
+        7,
+        "priority_id",
+        2,
+        "suite_id",
+        suiteId,
+        "created_on",
+        1_700_000_000L,
+        "updated_on",
+        1_700_000_000L,
+        "refs",
+        null);
+  }
+
+  private Map<String, Object> plan(final Plan plan, final boolean withEntries) {
+    final var json =
+        object(
+            "id",
+            plan.id,
+            "name",
+            plan.name,
+            "description",
+            null,
+            "milestone_id",
+            null,
+            "assignedto_id",
+            null,
+            "is_completed",
+            plan.completed,
+            "completed_on",
+            null,
+            "project_id",
+            projectId,
+            "created_on",
+            plan.createdOn,
+            "created_by",
+            1,
+            "url",
+            server.url("/index.php?/plans/view/" + plan.id).toString());
+    if (withEntries) {
+      json.put("entries", plan.entries.stream().map(this::entry).toList());
+    }
+    return json;
+  }
+
+  private Map<String, Object> entry(final Entry entry) {
+    return object(
+        "id",
+        entry.id,
+        "name",
+        entry.name,
+        "suite_id",
+        suiteId,
+        "runs",
+        entry.runs.stream().map(this::run).toList());
+  }
+
+  private Map<String, Object> run(final Run run) {
+    return object(
+        "id",
+        run.id,
+        "suite_id",
+        suiteId,
+        "name",
+        run.name,
+        "plan_id",
+        run.planId,
+        "project_id",
+        projectId,
+        "entry_id",
+        run.entryId,
+        "entry_index",
+        1,
+        "include_all",
+        run.includeAll,
+        "is_completed",
+        run.completed,
+        "config",
+        null,
+        "config_ids",
+        List.of(),
+        "untested_count",
+        run.caseIds.size() - run.statuses.size(),
+        "url",
+        server.url("/index.php?/runs/view/" + run.id).toString());
+  }
+
+  private Map<String, Object> test(final Run run, final long caseId) {
+    return object(
+        "id",
+        run.testId(caseId),
+        "case_id",
+        caseId,
+        "run_id",
+        run.id,
+        "status_id",
+        run.statusOf(caseId),
+        "title",
+        "Simulated case " + caseId,
+        "assignedto_id",
+        null,
+        "priority_id",
+        2,
+        "type_id",
+        7);
+  }
+
+  private static long id(final String[] route, final int index) {
+    return Long.parseLong(route[index]);
+  }
+
+  private static long longParam(final HttpUrl url, final String name, final long fallback) {
+    return Optional.ofNullable(url.queryParameter(name)).map(Long::parseLong).orElse(fallback);
+  }
+
+  private static JsonObject parse(final String body) {
+    return JsonParser.parseString(body).getAsJsonObject();
+  }
+
+  private static Map<String, Object> object(final Object... keysAndValues) {
+    final var object = new LinkedHashMap<String, Object>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      object.put((String) keysAndValues[i], keysAndValues[i + 1]);
+    }
+    return object;
+  }
+
+  private static MockResponse json(final Object body) {
+    return new MockResponse()
+        .setHeader(HttpHeaders.CONTENT_TYPE, "application/json")
+        .setBody(TestRailClientFactory.gson.toJson(body));
+  }
+
+  private static MockResponse error(final int status, final String message) {
+    return json(Map.of("error", message)).setResponseCode(status);
+  }
+
+  private record Plan(
+      long id, String name, long createdOn, List<Entry> entries, boolean completed) {
+    Plan(final long id, final String name, final long createdOn) {
+      this(id, name, createdOn, new ArrayList<>(), false);
+    }
+  }
+
+  private record Entry(String id, String name, List<Run> runs) {
+    Entry(final String id, final String name) {
+      this(id, name, new ArrayList<>());
+    }
+  }
+
+  private static final class Run {
+    private final long id;
+    private final long planId;
+    private final String entryId;
+    private final String name;
+    private final Set<Long> caseIds = new LinkedHashSet<>();
+    private final Map<Long, Integer> statuses = new HashMap<>();
+    private boolean includeAll;
+    private boolean completed;
+
+    private Run(final long id, final long planId, final String entryId, final String name) {
+      this.id = id;
+      this.planId = planId;
+      this.entryId = entryId;
+      this.name = name;
+    }
+
+    private long testId(final long caseId) {
+      return id * 1_000_000 + caseId;
+    }
+
+    private int statusOf(final long caseId) {
+      // untested
+      return statuses.getOrDefault(caseId, 3);
+    }
+  }
+}
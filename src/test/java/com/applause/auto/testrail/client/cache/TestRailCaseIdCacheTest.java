@@ -0,0 +1,171 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.testrail.TestCaseDto;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class TestRailCaseIdCacheTest {
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  /** Case ID to updated_on timestamp of the simulated suite */
+  private final Map<Long, Long> suite = new ConcurrentHashMap<>(Map.of(1L, 100L, 2L, 100L));
+
+  /** The updated_after filter of every load, null for a full download */
+  private final List<Long> loads = new ArrayList<>();
+
+  /** Moves forward by a nanosecond on every read, so consecutive calls are ordered */
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.incrementAndGet();
+        }
+      };
+
+  private TestRailCaseIdCache newCache() {
+    return new TestRailCaseIdCache(
+        (projectId, suiteId, updatedAfter) -> {
+          loads.add(updatedAfter);
+          return suite.entrySet().stream()
+              .filter(entry -> updatedAfter == null || entry.getValue() > updatedAfter)
+              .map(entry -> testCase(entry.getKey(), entry.getValue()))
+              .toList();
+        },
+        TTL,
+        10,
+        Duration.ofMinutes(5),
+        100,
+        ticker);
+  }
+
+  private static TestCaseDto testCase(final long id, final long updatedOn) {
+    final var testCase = new TestCaseDto();
+    testCase.setId(id);
+    testCase.setUpdatedOn(updatedOn);
+    return testCase;
+  }
+
+  @Test
+  public void testCaseIdsAreLoadedOncePerSuite() throws TestRailException {
+    final var cache = newCache();
+    assertEquals(Set.of(1L, 2L), cache.getCaseIds(1, 10));
+    assertEquals(Set.of(), cache.findUnknownCaseIds(1, 10, List.of(1L, 2L)));
+    assertEquals(1, loads.size(), "the second lookup should be served from the cache");
+
+    cache.getCaseIds(1, 20);
+    assertEquals(2, loads.size(), "every suite is cached separately");
+  }
+
+  @Test
+  public void testMissIsConfirmedWithIncrementalSync() throws TestRailException {
+    final var cache = newCache();
+    cache.getCaseIds(1, 10);
+    suite.put(3L, 200L);
+
+    assertEquals(Set.of(), cache.findUnknownCaseIds(1, 10, List.of(1L, 3L)));
+    assertEquals(
+        Arrays.asList(null, 99L), loads, "only the cases updated since the last load are fetched");
+    assertEquals(Set.of(1L, 2L, 3L), cache.getCaseIds(1, 10));
+  }
+
+  @Test
+  public void testUnknownCaseIdIsConfirmedOnceAndRemembered() throws TestRailException {
+    final var cache = newCache();
+    cache.getCaseIds(1, 10);
+
+    assertEquals(Set.of(3L), cache.findUnknownCaseIds(1, 10, List.of(1L, 3L)));
+    assertEquals(2, loads.size(), "a new miss should sync the suite once");
+
+    assertEquals(Set.of(3L), cache.findUnknownCaseIds(1, 10, List.of(3L)));
+    assertEquals(2, loads.size(), "a remembered miss should not sync the suite");
+  }
+
+  @Test
+  public void testMissOnFreshLoadIsNotSynced() throws TestRailException {
+    final var cache = newCache();
+    assertEquals(Set.of(3L), cache.findUnknownCaseIds(1, 10, List.of(3L)));
+    assertEquals(1, loads.size(), "a freshly loaded suite does not need to be confirmed");
+  }
+
+  @Test
+  public void testSuiteIsDownloadedInFullAfterTtl() throws TestRailException {
+    final var cache = newCache();
+    cache.getCaseIds(1, 10);
+    suite.remove(2L);
+
+    nanos.addAndGet(TTL.toNanos());
+    assertEquals(Set.of(1L), cache.getCaseIds(1, 10), "deleted cases disappear on a full scan");
+    assertEquals(Arrays.asList(null, null), loads);
+  }
+
+  @Test
+  public void testBackgroundSyncPicksUpNewCases() throws TestRailException {
+    final var cache = newCache();
+    cache.getCaseIds(1, 10);
+    suite.put(3L, 200L);
+
+    cache.syncAll();
+    assertEquals(Set.of(1L, 2L, 3L), cache.getCaseIds(1, 10));
+    assertEquals(Arrays.asList(null, 99L), loads);
+  }
+
+  @Test
+  public void testInvalidateForgetsSuite() throws TestRailException {
+    final var cache = newCache();
+    cache.findUnknownCaseIds(1, 10, List.of(3L));
+    suite.put(3L, 200L);
+
+    cache.invalidate(1, 10);
+    assertEquals(Set.of(), cache.findUnknownCaseIds(1, 10, List.of(3L)));
+    assertEquals(Arrays.asList(null, null), loads);
+  }
+
+  @Test
+  public void testLoaderErrorIsRethrown() {
+    final var error = new TestRailException(TestRailErrorStatus.AUTHENTICATION_FAILED);
+    final var cache =
+        new TestRailCaseIdCache(
+            (projectId, suiteId, updatedAfter) -> {
+              throw error;
+            },
+            TTL,
+            10,
+            Duration.ofMinutes(5),
+            100,
+            ticker);
+    assertSame(error, assertThrows(TestRailException.class, () -> cache.getCaseIds(1, 10)));
+  }
+}
@@ -0,0 +1,108 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import lombok.SneakyThrows;
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CacheInvalidationInterceptorTest {
+  private final MockWebServer server = new MockWebServer();
+  @TempDir Path cacheDirectory;
+  private OkHttpClient client;
+
+  @SneakyThrows
+  @BeforeEach
+  public void setup() {
+    server.start();
+    final var cache = new Cache(cacheDirectory.toFile(), 1024 * 1024);
+    client =
+        new OkHttpClient.Builder()
+            .cache(cache)
+            .addNetworkInterceptor(
+                new CacheMaxAgeInterceptor(Map.of("get_plan", Duration.ofMinutes(5))))
+            .addInterceptor(new CacheInvalidationInterceptor(cache))
+            .build();
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void tearDown() {
+    server.shutdown();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testPlanWritesEvictOnlyTheirPlan() {
+    get("/get_plan/5");
+    get("/get_plan/7");
+    post("/add_plan_entry/5");
+    get("/get_plan/5");
+    get("/get_plan/7");
+    assertEquals(4, server.getRequestCount());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRunWritesEvictEveryPlan() {
+    get("/get_plan/5");
+    get("/get_plan/7");
+    // the run ID says nothing about the plan, even when it happens to match a plan ID
+    post("/update_run_in_plan_entry/5");
+    get("/get_plan/5");
+    get("/get_plan/7");
+    assertEquals(5, server.getRequestCount());
+  }
+
+  @SneakyThrows
+  private void get(final String path) {
+    server.enqueue(new MockResponse().setBody("{}"));
+    try (var response =
+        client.newCall(new Request.Builder().url(server.url(path)).build()).execute()) {
+      response.body().string();
+    }
+  }
+
+  @SneakyThrows
+  private void post(final String path) {
+    server.enqueue(new MockResponse().setBody("{}"));
+    try (var response =
+        client
+            .newCall(
+                new Request.Builder()
+                    .url(server.url(path))
+                    .post(RequestBody.create(new byte[0]))
+                    .build())
+            .execute()) {
+      response.body().string();
+    }
+  }
+}
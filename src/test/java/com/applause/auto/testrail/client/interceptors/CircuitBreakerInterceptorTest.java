@@ -0,0 +1,71 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.applause.auto.testrail.client.resilience.TestRailCircuitBreaker;
+import java.io.IOException;
+import java.time.Duration;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CircuitBreakerInterceptorTest {
+  private static final String HOST = "testrail.example.com";
+
+  private final Interceptor.Chain chain = mock(Interceptor.Chain.class);
+  private final Call call = mock(Call.class);
+
+  @BeforeEach
+  public void setup() {
+    when(chain.request())
+        .thenReturn(new Request.Builder().url("https://" + HOST + "/get_plan/1").build());
+    when(chain.call()).thenReturn(call);
+  }
+
+  @Test
+  public void testCancelledCallsAreNotFailures() throws IOException {
+    final var breaker = new TestRailCircuitBreaker(1, Duration.ofSeconds(30));
+    final var interceptor = new CircuitBreakerInterceptor(breaker);
+    when(chain.proceed(any())).thenThrow(new IOException("Canceled"));
+
+    when(call.isCanceled()).thenReturn(true);
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertEquals(TestRailCircuitBreaker.State.CLOSED, breaker.getState(HOST));
+
+    when(call.isCanceled()).thenReturn(false);
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertEquals(TestRailCircuitBreaker.State.OPEN, breaker.getState(HOST));
+  }
+
+  @Test
+  public void testProbeWithoutOutcomeIsReleased() throws IOException {
+    final var breaker = new TestRailCircuitBreaker(1, Duration.ZERO);
+    final var interceptor = new CircuitBreakerInterceptor(breaker);
+    breaker.recordFailure(HOST);
+    when(chain.proceed(any())).thenThrow(new IllegalStateException("broken interceptor"));
+
+    assertThrows(IllegalStateException.class, () -> interceptor.intercept(chain));
+    assertEquals(TestRailCircuitBreaker.State.OPEN, breaker.getState(HOST));
+    assertEquals(TestRailCircuitBreaker.Permit.PROBE, breaker.acquire(HOST));
+  }
+}
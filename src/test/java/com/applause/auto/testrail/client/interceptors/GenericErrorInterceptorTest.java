@@ -0,0 +1,81 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.SneakyThrows;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.Test;
+
+public class GenericErrorInterceptorTest {
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @SneakyThrows
+  @Test
+  public void testErrorBodyIsBufferedUpToTheBudget() {
+    try (var server = new MockWebServer()) {
+      server.enqueue(new MockResponse().setResponseCode(503).setBody("x".repeat(10_000)));
+      server.enqueue(new MockResponse().setResponseCode(400).setBody("{\"error\":\"bad\"}"));
+      final var client =
+          new OkHttpClient.Builder()
+              .addInterceptor(
+                  new GenericErrorInterceptor(Set.of(), 1_000, 100, Duration.ZERO, ticker))
+              .build();
+
+      try (var response =
+          client.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+        assertEquals(503, response.code());
+        assertEquals("x".repeat(1_000), response.body().string());
+      }
+      try (var response =
+          client.newCall(new Request.Builder().url(server.url("/")).build()).execute()) {
+        assertEquals("{\"error\":\"bad\"}", response.body().string());
+      }
+    }
+  }
+
+  @Test
+  public void testEachStatusIsLoggedOncePerInterval() {
+    final var interceptor =
+        new GenericErrorInterceptor(Set.of(), 1_000, 100, Duration.ofSeconds(10), ticker);
+
+    assertEquals(0, interceptor.sample(429));
+    assertEquals(-1, interceptor.sample(429));
+    assertEquals(-1, interceptor.sample(429));
+    assertEquals(0, interceptor.sample(503), "other statuses are sampled separately");
+
+    nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+    assertEquals(2, interceptor.sample(429), "the skipped responses are reported");
+    assertEquals(-1, interceptor.sample(429));
+  }
+}
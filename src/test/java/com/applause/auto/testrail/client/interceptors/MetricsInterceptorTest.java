@@ -0,0 +1,60 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.metrics.InMemoryTestRailMetrics;
+import java.io.IOException;
+import java.util.Map;
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MetricsInterceptorTest {
+  private final Interceptor.Chain chain = mock(Interceptor.Chain.class);
+  private final Call call = mock(Call.class);
+
+  @BeforeEach
+  public void setup() {
+    when(chain.request())
+        .thenReturn(new Request.Builder().url("https://testrail.example.com/get_cases/1").build());
+    when(chain.call()).thenReturn(call);
+  }
+
+  @Test
+  public void testCancelledCallsAreNotErrors() throws IOException {
+    final var metrics = new InMemoryTestRailMetrics();
+    final var interceptor = new MetricsInterceptor(metrics);
+    when(chain.proceed(any())).thenThrow(new IOException("Canceled"));
+
+    when(call.isCanceled()).thenReturn(true);
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertNull(metrics.snapshot().endpoints().get("get_cases"));
+
+    when(call.isCanceled()).thenReturn(false);
+    assertThrows(IOException.class, () -> interceptor.intercept(chain));
+    assertEquals(
+        Map.of(TestRailErrorStatus.UNKNOWN_ERROR, 1L),
+        metrics.snapshot().endpoints().get("get_cases").errors());
+  }
+}
@@ -0,0 +1,133 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.interceptors.RequestCompressionInterceptor.Capability;
+import lombok.SneakyThrows;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RequestCompressionInterceptorTest {
+  private static final MediaType JSON = MediaType.get("application/json");
+  private static final String LARGE_BODY = "{\"comment\":\"" + "failure ".repeat(500) + "\"}";
+
+  private final MockWebServer server = new MockWebServer();
+  private final RequestCompressionInterceptor interceptor = new RequestCompressionInterceptor(1024);
+  private final OkHttpClient client =
+      new OkHttpClient.Builder().addInterceptor(interceptor).build();
+
+  @SneakyThrows
+  @BeforeEach
+  public void setup() {
+    server.start();
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void tearDown() {
+    server.shutdown();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testLargeBodiesAreCompressed() {
+    server.enqueue(new MockResponse());
+
+    assertEquals(200, post(LARGE_BODY));
+    final var request = server.takeRequest();
+    assertEquals("gzip", request.getHeader("Content-Encoding"));
+    assertTrue(request.getBodySize() < LARGE_BODY.length());
+    assertEquals(LARGE_BODY, gunzip(request));
+    assertEquals(Capability.SUPPORTED, interceptor.getCapability(server.getHostName()));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testSmallBodiesAreSentAsIs() {
+    server.enqueue(new MockResponse());
+
+    assertEquals(200, post("{}"));
+    assertNull(server.takeRequest().getHeader("Content-Encoding"));
+    assertEquals(Capability.UNKNOWN, interceptor.getCapability(server.getHostName()));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRejectedProbeFallsBackToUncompressedBodies() {
+    server.enqueue(new MockResponse().setResponseCode(415));
+    server.enqueue(new MockResponse());
+    server.enqueue(new MockResponse());
+
+    assertEquals(200, post(LARGE_BODY));
+    assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+    final var retry = server.takeRequest();
+    assertNull(retry.getHeader("Content-Encoding"));
+    assertEquals(LARGE_BODY, retry.getBody().readUtf8());
+    assertEquals(Capability.UNSUPPORTED, interceptor.getCapability(server.getHostName()));
+
+    assertEquals(200, post(LARGE_BODY));
+    assertNull(server.takeRequest().getHeader("Content-Encoding"));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testBadRequestIsReturnedOnceTheHostAcceptedGzip() {
+    server.enqueue(new MockResponse());
+    server.enqueue(new MockResponse().setResponseCode(400));
+
+    assertEquals(200, post(LARGE_BODY));
+    assertEquals(400, post(LARGE_BODY));
+    assertEquals(2, server.getRequestCount());
+    assertEquals(Capability.SUPPORTED, interceptor.getCapability(server.getHostName()));
+  }
+
+  @SneakyThrows
+  private int post(final String body) {
+    try (var response =
+        client
+            .newCall(
+                new Request.Builder()
+                    .url(server.url("/index.php?/api/v2/add_results_for_cases/1"))
+                    .post(RequestBody.create(body, JSON))
+                    .build())
+            .execute()) {
+      return response.code();
+    }
+  }
+
+  @SneakyThrows
+  private static String gunzip(final RecordedRequest request) {
+    final var buffer = new Buffer();
+    try (var source = new GzipSource(request.getBody())) {
+      buffer.writeAll(source);
+    }
+    return buffer.readUtf8();
+  }
+}
@@ -0,0 +1,42 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import okhttp3.HttpUrl;
+import org.junit.jupiter.api.Test;
+
+public class TestRailEndpointsTest {
+  @Test
+  public void testEndpointBeforeAndAfterRouting() {
+    assertEquals(
+        "get_plan/12", TestRailEndpoints.endpoint(HttpUrl.get("https://testrail.io/get_plan/12")));
+    assertEquals(
+        "get_plans/1",
+        TestRailEndpoints.endpoint(
+            HttpUrl.get("https://testrail.io/index.php?/api/v2/get_plans/1&offset=250")));
+    assertNull(TestRailEndpoints.endpoint(HttpUrl.get("https://testrail.io/")));
+  }
+
+  @Test
+  public void testEndpointName() {
+    assertEquals("get_plan", TestRailEndpoints.endpointName("get_plan/12"));
+    assertEquals("get_statuses", TestRailEndpoints.endpointName("get_statuses"));
+  }
+}
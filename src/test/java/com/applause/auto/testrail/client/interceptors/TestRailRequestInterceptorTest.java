@@ -0,0 +1,72 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.interceptors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.SneakyThrows;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TestRailRequestInterceptorTest {
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "https://testrail.example.com/get_project/1",
+        "https://testrail.example.com/get_cases/1?suite_id=2&offset=250&limit=250",
+        "https://testrail.example.com/get_plans/1?is_completed=0&filter=plan%20name",
+        "https://testrail.example.com/add_plan_entry/5",
+      })
+  public void testMatchesTheSeparateInterceptors(final String url) {
+    final var fused = send(url, new TestRailRequestInterceptor("user@example.com", "key"));
+    final var separate =
+        send(url, new HeadersInterceptor("user@example.com", "key"), new UrlInterceptor());
+
+    assertEquals(separate.url(), fused.url());
+    assertEquals(separate.headers(), fused.headers());
+  }
+
+  @SneakyThrows
+  private static Request send(final String url, final Interceptor... interceptors) {
+    final var sent = new AtomicReference<Request>();
+    final var builder = new OkHttpClient.Builder();
+    List.of(interceptors).forEach(builder::addInterceptor);
+    builder.addInterceptor(
+        chain -> {
+          sent.set(chain.request());
+          return new Response.Builder()
+              .request(chain.request())
+              .protocol(Protocol.HTTP_1_1)
+              .code(200)
+              .message("OK")
+              .body(ResponseBody.create("{}", null))
+              .build();
+        });
+    builder.build().newCall(new Request.Builder().url(url).build()).execute().close();
+    return sent.get();
+  }
+}
@@ -0,0 +1,109 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.jfr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.TestRailResultUploader;
+import com.applause.auto.testrail.client.TestRailResultUploader.ProjectConfiguration;
+import com.applause.auto.testrail.client.TestRailResultUploader.UploadResultDto;
+import com.applause.auto.testrail.client.TestRailSimulator;
+import com.applause.auto.testrail.client.enums.TestResultStatus;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+public class TestRailJfrEventsTest {
+  private static final ProjectConfiguration PROJECT =
+      new ProjectConfiguration(
+          1, 1, false, "Nightly", "Chrome", "passed", "failed", "blocked", "retest", "blocked");
+
+  @SneakyThrows
+  @Test
+  public void testUploadEmitsCallPageAndPhaseEvents() {
+    final List<RecordedEvent> events;
+    try (var simulator = TestRailSimulator.builder().caseCount(300).build();
+        var recording = new Recording()) {
+      recording.enable(TestRailCallEvent.class);
+      recording.enable(TestRailPageEvent.class);
+      recording.enable(TestRailUploadPhaseEvent.class);
+      recording.start();
+      final var config =
+          TestRailConfig.builder()
+              .url(simulator.start())
+              .email("user@example.com")
+              .apiKey("key")
+              .build();
+      try (var uploader =
+          TestRailResultUploader.initialize(
+              config, PROJECT, null, TestRailClientOptions.DEFAULTS)) {
+        uploader.uploadResults(Set.of(new UploadResultDto("C1", TestResultStatus.PASSED, "ok")));
+      }
+      recording.stop();
+      final var file = Files.createTempFile("testrail", ".jfr");
+      try {
+        recording.dump(file);
+        events = RecordingFile.readAllEvents(file);
+      } finally {
+        Files.delete(file);
+      }
+    }
+
+    final var calls = ofType(events, "com.applause.testrail.ApiCall");
+    final var addResults =
+        calls.stream()
+            .filter(e -> "add_results_for_cases".equals(e.getString("endpoint")))
+            .toList();
+    assertEquals(1, addResults.size());
+    assertEquals("POST", addResults.get(0).getString("method"));
+    assertEquals(200, addResults.get(0).getInt("status"));
+    assertTrue(addResults.get(0).getLong("requestBytes") > 0);
+    assertTrue(addResults.get(0).getLong("responseBytes") > 0);
+    assertTrue(addResults.get(0).getString("path").startsWith("add_results_for_cases/"));
+
+    final var pages = ofType(events, "com.applause.testrail.Page");
+    assertTrue(
+        pages.stream()
+            .anyMatch(e -> e.getString("path").startsWith("get_cases/1") && e.getInt("items") > 0));
+
+    final var phases =
+        ofType(events, "com.applause.testrail.UploadPhase").stream()
+            .map(e -> e.getString("phase"))
+            .collect(Collectors.toSet());
+    assertEquals(
+        Set.of(
+            TestRailUploadPhaseEvent.SUITE_FETCH,
+            TestRailUploadPhaseEvent.PLAN_VERIFY,
+            TestRailUploadPhaseEvent.RUN_VERIFY,
+            TestRailUploadPhaseEvent.MEMBERSHIP_CHECK,
+            TestRailUploadPhaseEvent.ADD_RESULTS),
+        phases);
+  }
+
+  private static List<RecordedEvent> ofType(final List<RecordedEvent> events, final String name) {
+    return events.stream().filter(e -> e.getEventType().getName().equals(name)).toList();
+  }
+}
@@ -0,0 +1,81 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.TestRailClientFactory;
+import com.applause.auto.testrail.client.TestRailSimulator;
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import com.applause.auto.testrail.client.resilience.TestRailRetryPolicy;
+import java.time.Duration;
+import java.util.Map;
+import lombok.SneakyThrows;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+public class InMemoryTestRailMetricsTest {
+
+  @SneakyThrows
+  @Test
+  public void testCallsAreRecordedPerEndpoint() {
+    final var metrics = new InMemoryTestRailMetrics();
+    try (var simulator = TestRailSimulator.builder().caseCount(600).build()) {
+      final var client =
+          new TestRailClientFactory(
+                  new OkHttpClient(),
+                  TestRailClientOptions.builder()
+                      .metricsListener(metrics)
+                      .retryPolicy(
+                          TestRailRetryPolicy.builder()
+                              .initialBackoff(Duration.ofMillis(1))
+                              .build())
+                      .build())
+              .getTestRailClient(
+                  TestRailConfig.builder()
+                      .url(simulator.start())
+                      .email("user@example.com")
+                      .apiKey("key")
+                      .build());
+
+      simulator.failNext(429);
+      client.getProject(1);
+      assertEquals(600, client.getTestCasesForSuite(1, 1).size());
+      assertThrows(TestRailException.class, () -> client.getTestSuite(7));
+    }
+
+    final var snapshot = metrics.snapshot();
+    final var project = snapshot.endpoints().get("get_project");
+    assertEquals(2, project.calls());
+    assertEquals(Map.of(TestRailErrorStatus.HIT_RATE_LIMIT, 1L), project.errors());
+    assertEquals(2, project.latency().getCount());
+    assertTrue(project.responseBytes() > 0);
+    assertEquals(Map.of("getProject", 1L), snapshot.retriesByOperation());
+
+    final var cases = snapshot.endpoints().get("get_cases");
+    // the three pages, plus prefetched ones past the last page that completed before the cancel
+    assertTrue(cases.calls() >= 3);
+    assertTrue(cases.errors().isEmpty());
+    assertEquals(
+        Map.of(TestRailErrorStatus.UNKNOWN_ERROR, 1L),
+        snapshot.endpoints().get("get_suite").errors());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+public class TestRailLatencyHistogramTest {
+
+  @Test
+  public void testBucketsRoundTripWithinThePrecision() {
+    for (final long value : new long[] {0, 1, 31, 32, 33, 63, 64, 1_000, 123_456_789L}) {
+      final long reported =
+          TestRailLatencyHistogram.highestValueIn(TestRailLatencyHistogram.bucketOf(value));
+      assertTrue(reported >= value, "value " + value + " reported as " + reported);
+      assertTrue(reported <= value * 1.04 + 1, "value " + value + " reported as " + reported);
+    }
+    assertEquals(
+        TestRailLatencyHistogram.bucketOf(Long.MAX_VALUE) + 1,
+        (Long.SIZE - 5) * 32,
+        "the largest value uses the last bucket");
+  }
+
+  @Test
+  public void testPercentiles() {
+    final var histogram = new TestRailLatencyHistogram();
+    LongStream.rangeClosed(1, 1_000).forEach(histogram::record);
+
+    final var snapshot = histogram.snapshot();
+    assertEquals(1_000, snapshot.getCount());
+    assertEquals(1_000, snapshot.getMax());
+    assertEquals(500.5, snapshot.getMean());
+    assertEquals(500, snapshot.getValueAtPercentile(50), 500 * 0.04);
+    assertEquals(990, snapshot.getValueAtPercentile(99), 990 * 0.04);
+    assertEquals(1_000, snapshot.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void testConcurrentRecording() throws Exception {
+    final var histogram = new TestRailLatencyHistogram();
+    final var threads = Executors.newFixedThreadPool(8);
+    for (int t = 0; t < 8; t++) {
+      threads.submit(() -> LongStream.range(0, 10_000).forEach(histogram::record));
+    }
+    threads.shutdown();
+    assertTrue(threads.awaitTermination(10, TimeUnit.SECONDS));
+
+    assertEquals(80_000, histogram.snapshot().getCount());
+  }
+}
@@ -0,0 +1,104 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.TestRailClient;
+import com.applause.auto.testrail.client.TestRailClientFactory;
+import com.applause.auto.testrail.client.TestRailSimulator;
+import com.applause.auto.testrail.client.metrics.TestRailCallTimeline.Phase;
+import com.applause.auto.testrail.client.metrics.TestRailCallTimeline.Span;
+import com.applause.auto.testrail.client.models.config.TestRailClientOptions;
+import com.applause.auto.testrail.client.models.config.TestRailConfig;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+public class TestRailSlowCallRecorderTest {
+
+  @SneakyThrows
+  @Test
+  public void testSlowCallsAreKeptInARingBuffer() {
+    final var options =
+        TestRailClientOptions.builder()
+            .slowCallThreshold(Duration.ofMillis(40))
+            .slowCallCapacity(2)
+            .build();
+    final var factory = new TestRailClientFactory(new OkHttpClient(), options);
+    final var recorder = factory.getSlowCallRecorder().orElseThrow();
+    try (var simulator = TestRailSimulator.builder().latency(Duration.ofMillis(50)).build()) {
+      final var client = client(factory, simulator);
+      client.getProject(1);
+      client.getTestSuite(1);
+      client.getProject(1);
+    }
+
+    assertEquals(3, recorder.getSlowCallCount());
+    final var slowCalls = recorder.getSlowCalls();
+    assertEquals(2, slowCalls.size());
+    assertEquals("get_suite/1", slowCalls.get(0).endpoint());
+    final var last = slowCalls.get(1);
+    assertEquals("get_project/1", last.endpoint());
+    assertEquals("GET", last.method());
+    assertNull(last.error());
+    assertTrue(last.connectionReused());
+    assertEquals("http/1.1", last.protocol());
+    assertTrue(last.responseBytes() > 0);
+    assertEquals(0, last.nanosIn(Phase.CONNECT));
+    assertTrue(last.nanosIn(Phase.SERVER_WAIT) >= TimeUnit.MILLISECONDS.toNanos(50));
+    assertTrue(last.durationNanos() >= last.nanosIn(Phase.SERVER_WAIT));
+    for (int i = 1; i < last.spans().size(); i++) {
+      final Span previous = last.spans().get(i - 1);
+      assertTrue(previous.offsetNanos() <= last.spans().get(i).offsetNanos());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testFastCallsAreNotKept() {
+    final var options =
+        TestRailClientOptions.builder().slowCallThreshold(Duration.ofMinutes(1)).build();
+    final var factory = new TestRailClientFactory(new OkHttpClient(), options);
+    try (var simulator = TestRailSimulator.builder().build()) {
+      client(factory, simulator).getProject(1);
+    }
+
+    final var recorder = factory.getSlowCallRecorder().orElseThrow();
+    assertEquals(0, recorder.getSlowCallCount());
+    assertTrue(recorder.getSlowCalls().isEmpty());
+  }
+
+  @Test
+  public void testRecorderIsOffByDefault() {
+    assertTrue(new TestRailClientFactory(new OkHttpClient()).getSlowCallRecorder().isEmpty());
+  }
+
+  @SneakyThrows
+  private static TestRailClient client(
+      final TestRailClientFactory factory, final TestRailSimulator simulator) {
+    return factory.getTestRailClient(
+        TestRailConfig.builder()
+            .url(simulator.start())
+            .email("user@example.com")
+            .apiKey("key")
+            .build());
+  }
+}
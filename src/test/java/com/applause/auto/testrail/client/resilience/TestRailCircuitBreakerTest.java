@@ -0,0 +1,130 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import static com.applause.auto.testrail.client.resilience.TestRailCircuitBreaker.Permit;
+import static com.applause.auto.testrail.client.resilience.TestRailCircuitBreaker.State;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRailCircuitBreakerTest {
+  private static final String HOST = "testrail.example.com";
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final List<String> transitions = new ArrayList<>();
+  private final TestRailCircuitBreaker breaker =
+      new TestRailCircuitBreaker(
+          3,
+          Duration.ofSeconds(30),
+          new Ticker() {
+            @Override
+            public long read() {
+              return nanos.get();
+            }
+          });
+
+  @BeforeEach
+  public void setup() {
+    breaker.addListener((host, from, to) -> transitions.add(host + ":" + from + "->" + to));
+  }
+
+  @Test
+  public void testOpensAfterConsecutiveFailures() {
+    breaker.recordFailure(HOST);
+    breaker.recordFailure(HOST);
+    breaker.recordSuccess(HOST);
+    breaker.recordFailure(HOST);
+    breaker.recordFailure(HOST);
+    assertEquals(State.CLOSED, breaker.getState(HOST));
+    assertEquals(Permit.ALLOWED, breaker.acquire(HOST));
+
+    breaker.recordFailure(HOST);
+    assertEquals(State.OPEN, breaker.getState(HOST));
+    assertEquals(Permit.REJECTED, breaker.acquire(HOST));
+    assertEquals(Permit.ALLOWED, breaker.acquire("other.example.com"));
+    assertEquals(List.of(HOST + ":CLOSED->OPEN"), transitions);
+  }
+
+  @Test
+  public void testHalfOpenProbe() {
+    for (int i = 0; i < 3; i++) {
+      breaker.recordFailure(HOST);
+    }
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+    // only one caller probes, the others keep failing fast
+    assertEquals(Permit.PROBE, breaker.acquire(HOST));
+    assertEquals(Permit.REJECTED, breaker.acquire(HOST));
+
+    // a failed probe opens the circuit for another period
+    breaker.recordFailure(HOST);
+    assertEquals(State.OPEN, breaker.getState(HOST));
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(29));
+    assertEquals(Permit.REJECTED, breaker.acquire(HOST));
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertEquals(Permit.PROBE, breaker.acquire(HOST));
+
+    breaker.recordSuccess(HOST);
+    assertEquals(State.CLOSED, breaker.getState(HOST));
+    assertEquals(Permit.ALLOWED, breaker.acquire(HOST));
+    assertEquals(
+        List.of(
+            HOST + ":CLOSED->OPEN",
+            HOST + ":OPEN->HALF_OPEN",
+            HOST + ":HALF_OPEN->OPEN",
+            HOST + ":OPEN->HALF_OPEN",
+            HOST + ":HALF_OPEN->CLOSED"),
+        transitions);
+  }
+
+  @Test
+  public void testReleasedProbeIsSentAgain() {
+    for (int i = 0; i < 3; i++) {
+      breaker.recordFailure(HOST);
+    }
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    assertEquals(Permit.PROBE, breaker.acquire(HOST));
+
+    breaker.releaseProbe(HOST);
+    assertEquals(State.OPEN, breaker.getState(HOST));
+    assertEquals(Permit.PROBE, breaker.acquire(HOST));
+
+    // releasing without a probe in flight changes nothing
+    breaker.recordSuccess(HOST);
+    breaker.releaseProbe(HOST);
+    assertEquals(State.CLOSED, breaker.getState(HOST));
+  }
+
+  @Test
+  public void testDisabledBreakerNeverOpens() {
+    final var disabled = new TestRailCircuitBreaker(0, Duration.ofSeconds(30));
+    for (int i = 0; i < 100; i++) {
+      disabled.recordFailure(HOST);
+    }
+    assertFalse(disabled.isEnabled());
+    assertEquals(Permit.ALLOWED, disabled.acquire(HOST));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TestRailRateLimiterTest {
+  private final AtomicLong nanos = new AtomicLong();
+  private final List<Long> sleeps = new ArrayList<>();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @BeforeEach
+  public void setup() {
+    nanos.set(TimeUnit.HOURS.toNanos(1));
+    sleeps.clear();
+  }
+
+  private TestRailRateLimiter limiter(final int requestsPerMinute, final int burst) {
+    return new TestRailRateLimiter(
+        requestsPerMinute,
+        burst,
+        Duration.ofMinutes(1),
+        ticker,
+        sleepNanos -> {
+          sleeps.add(sleepNanos);
+          nanos.addAndGet(sleepNanos);
+        });
+  }
+
+  @SneakyThrows
+  @Test
+  public void testBurstThenRequestsPerMinute() {
+    final var limiter = limiter(60, 2);
+    limiter.acquire("testrail.example.com");
+    limiter.acquire("testrail.example.com");
+    assertTrue(sleeps.isEmpty());
+
+    limiter.acquire("testrail.example.com");
+    assertEquals(List.of(TimeUnit.SECONDS.toNanos(1)), sleeps);
+
+    // other hosts have their own bucket
+    limiter.acquire("other.example.com");
+    assertEquals(1, sleeps.size());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testRetryAfterPausesTheHost() {
+    final var limiter = limiter(0, 1);
+    limiter.acquire("testrail.example.com");
+    limiter.pause("testrail.example.com", Duration.ofSeconds(30));
+
+    limiter.acquire("testrail.example.com");
+    assertEquals(List.of(TimeUnit.SECONDS.toNanos(30)), sleeps);
+    limiter.acquire("other.example.com");
+    assertEquals(1, sleeps.size());
+
+    // pauses are capped
+    limiter.pause("testrail.example.com", Duration.ofHours(1));
+    limiter.acquire("testrail.example.com");
+    assertEquals(TimeUnit.MINUTES.toNanos(1), sleeps.get(1));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testHugeRetryAfterIsCapped() {
+    final var limiter = limiter(0, 1);
+    limiter.acquire("testrail.example.com");
+    final var retryAfter =
+        TestRailRateLimiter.parseRetryAfter(String.valueOf(Long.MAX_VALUE), Instant.now());
+    limiter.pause("testrail.example.com", retryAfter.orElseThrow());
+    limiter.pause("testrail.example.com", Duration.ofSeconds(Long.MAX_VALUE));
+
+    limiter.acquire("testrail.example.com");
+    assertEquals(List.of(TimeUnit.MINUTES.toNanos(1)), sleeps);
+  }
+
+  @Test
+  public void testParseRetryAfter() {
+    final var now = Instant.parse("2026-01-01T00:00:00Z");
+    assertEquals(
+        Optional.of(Duration.ofSeconds(120)), TestRailRateLimiter.parseRetryAfter("120", now));
+    assertEquals(
+        Optional.of(Duration.ofSeconds(90)),
+        TestRailRateLimiter.parseRetryAfter(
+            DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                now.plusSeconds(90).atOffset(ZoneOffset.UTC)),
+            now));
+    assertEquals(Optional.empty(), TestRailRateLimiter.parseRetryAfter("soon", now));
+    assertEquals(Optional.empty(), TestRailRateLimiter.parseRetryAfter(null, now));
+    // too many digits for a long
+    assertEquals(
+        Optional.empty(), TestRailRateLimiter.parseRetryAfter("99999999999999999999", now));
+  }
+
+  @Test
+  public void testSharedLimitersAreReusedPerSettings() {
+    final var shared = TestRailRateLimiter.shared(180, 10, Duration.ofMinutes(5));
+    assertSame(shared, TestRailRateLimiter.shared(180, 10, Duration.ofMinutes(5)));
+    assertNotSame(shared, TestRailRateLimiter.shared(60, 10, Duration.ofMinutes(5)));
+  }
+}
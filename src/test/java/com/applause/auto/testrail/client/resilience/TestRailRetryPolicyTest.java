@@ -0,0 +1,190 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.resilience;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.errors.TestRailErrorStatus;
+import com.applause.auto.testrail.client.errors.TestRailException;
+import com.google.common.base.Ticker;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.SneakyThrows;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import retrofit2.Response;
+
+public class TestRailRetryPolicyTest {
+  private final AtomicLong nanos = new AtomicLong();
+  private final List<Long> sleeps = new ArrayList<>();
+  private final Ticker ticker =
+      new Ticker() {
+        @Override
+        public long read() {
+          return nanos.get();
+        }
+      };
+
+  @BeforeEach
+  public void setup() {
+    nanos.set(0);
+    sleeps.clear();
+  }
+
+  /** A policy whose jitter always picks the full backoff, so the delays are predictable */
+  private TestRailRetryPolicy policy(final int maxAttempts, final Duration maxElapsed) {
+    return new TestRailRetryPolicy(
+        maxAttempts,
+        Duration.ofSeconds(1),
+        Duration.ofSeconds(5),
+        maxElapsed,
+        ticker,
+        sleepNanos -> {
+          sleeps.add(sleepNanos);
+          nanos.addAndGet(sleepNanos);
+        },
+        bound -> bound);
+  }
+
+  private static Response<String> error(final int code) {
+    return Response.error(code, ResponseBody.create("", MediaType.get("application/json")));
+  }
+
+  private static TestRailRetryPolicy.Attempt<String> responses(final Object... outcomes) {
+    final Queue<Object> queue = new ArrayDeque<>(List.of(outcomes));
+    return () -> {
+      final var outcome = queue.remove();
+      if (outcome instanceof TestRailException e) {
+        throw e;
+      }
+      return outcome instanceof Integer code ? error(code) : Response.success((String) outcome);
+    };
+  }
+
+  @SneakyThrows
+  @Test
+  public void testReadsAreRetriedWithExponentialBackoff() {
+    final var response =
+        policy(5, Duration.ofMinutes(1))
+            .execute(
+                "getPlan",
+                responses(
+                    503,
+                    new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT),
+                    409,
+                    429,
+                    "plan"));
+
+    assertEquals("plan", response.body());
+    assertEquals(List.of(1L, 2L, 4L, 5L).stream().map(TimeUnit.SECONDS::toNanos).toList(), sleeps);
+  }
+
+  @SneakyThrows
+  @Test
+  public void testAttemptsAndTimeBudgetAreLimited() {
+    assertEquals(
+        503, policy(2, Duration.ofMinutes(1)).execute("getPlan", responses(503, 503)).code());
+    assertEquals(1, sleeps.size());
+
+    sleeps.clear();
+    // the third attempt would start after the budget of 3 seconds
+    final var error =
+        assertThrows(
+            TestRailException.class,
+            () ->
+                policy(10, Duration.ofSeconds(3))
+                    .execute(
+                        "getPlan",
+                        responses(
+                            new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT),
+                            new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT))));
+    assertEquals(TestRailErrorStatus.SOCKET_TIMEOUT, error.getStatus());
+    assertEquals(1, sleeps.size());
+
+    // other failures are not retried
+    assertEquals(400, policy(5, Duration.ofMinutes(1)).execute("getPlan", responses(400)).code());
+    assertEquals(1, sleeps.size());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testWritesAreRetriedWhenRejected() {
+    final var rechecks = new AtomicInteger();
+    final var response =
+        policy(5, Duration.ofMinutes(1))
+            .executeWrite(
+                "addPlan",
+                responses(429, 409, "plan"),
+                () -> {
+                  rechecks.incrementAndGet();
+                  return Optional.empty();
+                });
+
+    assertEquals("plan", response.body());
+    assertEquals(0, rechecks.get());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testAmbiguousWritesAreRechecked() {
+    // not applied: the write is sent again
+    final var rechecks = new AtomicInteger();
+    final var retried =
+        policy(5, Duration.ofMinutes(1))
+            .executeWrite(
+                "addPlan",
+                responses(new TestRailException(TestRailErrorStatus.SOCKET_TIMEOUT), "plan"),
+                () -> {
+                  rechecks.incrementAndGet();
+                  return Optional.empty();
+                });
+    assertEquals("plan", retried.body());
+    assertEquals(1, rechecks.get());
+
+    // applied: the write is not sent again
+    final var found =
+        policy(5, Duration.ofMinutes(1))
+            .executeWrite("addPlan", responses(502), () -> Optional.of("existing plan"));
+    assertTrue(found.isSuccessful());
+    assertEquals("existing plan", found.body());
+  }
+
+  @Test
+  public void testBackoffIsJitteredBelowTheCeiling() {
+    final var policy =
+        TestRailRetryPolicy.builder()
+            .initialBackoff(Duration.ofMillis(100))
+            .maxBackoff(Duration.ofSeconds(1))
+            .build();
+    for (int attempt = 1; attempt < 40; attempt++) {
+      final long backoff = policy.backoffNanos(attempt);
+      assertTrue(backoff >= 0);
+      assertTrue(backoff <= TimeUnit.SECONDS.toNanos(1));
+    }
+    assertEquals(1, TestRailRetryPolicy.DISABLED.getMaxAttempts());
+  }
+}
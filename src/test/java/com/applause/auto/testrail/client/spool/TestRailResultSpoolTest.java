@@ -0,0 +1,139 @@
+/*
+*
+* Copyright © 2026 Applause App Quality, Inc.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*
+*/
+package com.applause.auto.testrail.client.spool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.applause.auto.testrail.client.models.internal.TestRailStatusComment;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TestRailResultSpoolTest {
+  private static final TestRailStatusComment PASSED = new TestRailStatusComment(1, "passed");
+  private static final TestRailStatusComment FAILED = new TestRailStatusComment(5, "failed ✗");
+
+  @TempDir Path directory;
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".log")).sorted().toList();
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testUnacknowledgedResultsAreRecovered() {
+    try (var spool = TestRailResultSpool.open(directory, 1024 * 1024)) {
+      final long first = spool.append("run", 1L, PASSED);
+      spool.append("run", 2L, FAILED);
+      spool.append("other run", 3L, PASSED);
+      spool.acknowledge(List.of(first));
+    }
+
+    try (var spool = TestRailResultSpool.open(directory, 1024 * 1024)) {
+      final var pending = spool.pending();
+      assertEquals(2, pending.size());
+      assertEquals("run", pending.get(0).runName());
+      assertEquals(2L, pending.get(0).caseId());
+      assertEquals(FAILED, pending.get(0).result());
+      assertEquals("other run", pending.get(1).runName());
+
+      // entry IDs keep increasing across restarts
+      assertTrue(spool.append("run", 4L, PASSED) > pending.get(1).entryId());
+      spool.acknowledge(pending.stream().map(SpooledResult::entryId).toList());
+    }
+
+    try (var spool = TestRailResultSpool.open(directory, 1024 * 1024)) {
+      assertEquals(List.of(4L), spool.pending().stream().map(SpooledResult::caseId).toList());
+      // recovery compacts the spool into a single segment
+      assertEquals(1, segments().size());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testTornRecordIsDiscarded() {
+    try (var spool = TestRailResultSpool.open(directory, 1024 * 1024)) {
+      spool.append("run", 1L, PASSED);
+      spool.append("run", 2L, PASSED);
+    }
+    // simulate a crash in the middle of writing a record
+    final var segment = segments().get(0);
+    Files.write(segment, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+    try (var spool = TestRailResultSpool.open(directory, 1024 * 1024)) {
+      assertEquals(List.of(1L, 2L), spool.pending().stream().map(SpooledResult::caseId).toList());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testAcknowledgedSegmentsAreDeleted() {
+    try (var spool = TestRailResultSpool.open(directory, 200)) {
+      for (long caseId = 1; caseId <= 20; caseId++) {
+        spool.append("run", caseId, PASSED);
+      }
+      assertTrue(segments().size() > 2);
+
+      // an older segment with pending results keeps the newer ones
+      final var pending = spool.pending();
+      spool.acknowledge(
+          pending.subList(1, pending.size()).stream().map(SpooledResult::entryId).toList());
+      assertTrue(segments().size() > 2);
+
+      spool.acknowledge(List.of(pending.get(0).entryId()));
+      assertEquals(1, segments().size());
+      assertTrue(spool.pending().isEmpty());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testSpoolIsLockedWhileOpen() {
+    try (var spool = TestRailResultSpool.open(directory, 1024)) {
+      assertThrows(IOException.class, () -> TestRailResultSpool.open(directory, 1024).close());
+    }
+  }
+
+  @SneakyThrows
+  @Test
+  public void testConcurrentUploadersGetTheirOwnSpool() {
+    try (var first = TestRailResultSpool.openAvailable(directory, 1024 * 1024)) {
+      first.append("run", 1L, PASSED);
+      try (var second = TestRailResultSpool.openAvailable(directory, 1024 * 1024)) {
+        second.append("run", 2L, FAILED);
+        assertEquals(1, second.pending().size());
+      }
+    }
+    // a single next uploader replays the results of both slots
+    try (var next = TestRailResultSpool.openAvailable(directory, 1024 * 1024)) {
+      assertEquals(List.of(1L, 2L), next.pending().stream().map(SpooledResult::caseId).toList());
+    }
+    // and the moved results are not replayed twice
+    try (var slot = TestRailResultSpool.open(directory.resolve("slot-1"), 1024 * 1024)) {
+      assertTrue(slot.pending().isEmpty());
+    }
+  }
+}